@@ -9,19 +9,36 @@ import controller.UserController;
 import factory.AuditFactory;
 import factory.ProductFactory;
 import factory.UserFactory;
+import index.ProductIndex;
+import repository.audit.AuditArchive;
+import repository.audit.AuditJournal;
+import repository.audit.AuditRepository;
 import repository.audit.AuditRepositoryImpl;
+import repository.audit.JournaledAuditRepository;
 import repository.product.ProductRepositoryImpl;
 import repository.user.UserRepositoryImpl;
+import service.audit.AuditArchiveService;
+import service.audit.AuditArchiveServiceImpl;
+import service.audit.AuditJournalShipper;
+import service.audit.AuditRetentionService;
+import service.audit.AuditRetentionServiceImpl;
 import service.audit.AuditService;
 import service.audit.AuditServiceImpl;
+import service.audit.AuditWriter;
 import service.metrics.MetricsService;
 import service.metrics.MetricsServiceImpl;
+import service.product.ProductCountService;
+import service.product.ProductCountServiceImpl;
 import service.product.ProductService;
 import service.product.ProductServiceImpl;
 import service.user.UserService;
 import service.user.UserServiceImpl;
 import ui.ConsoleUI;
 import util.ConnectionPoolManager;
+import util.RepositoryExecutor;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Главный класс приложения "Маркетплейс".
@@ -41,6 +58,7 @@ public class ProductCatalogApp {
             Config config = new Config("dev.yaml");
 
             ConnectionPoolManager.initialize(config);
+            RepositoryExecutor.initialize(ConnectionPoolManager.getMaximumPoolSize());
 
             DatabaseMigrator migrator = new DatabaseMigrator();
             migrator.runMigrations(config);
@@ -49,9 +67,57 @@ public class ProductCatalogApp {
             UserRepositoryImpl userRepo = UserFactory.createUserRepository();
             AuditRepositoryImpl auditRepo = AuditFactory.createAuditRepository();
 
-            ConsoleUI ui = getConsoleUI(productRepo, userRepo, auditRepo);
+            ProductCountService productCountService = new ProductCountServiceImpl(productRepo);
+            productCountService.startReconciliation(5, TimeUnit.MINUTES);
+
+            AuditRetentionService auditRetentionService = new AuditRetentionServiceImpl(auditRepo,
+                    config.getAuditRetentionMonths(), config.getAuditPartitionsAhead());
+            auditRetentionService.runMaintenance();
+            auditRetentionService.startMaintenance(1, TimeUnit.DAYS);
+
+            AuditArchiveService auditArchiveService = null;
+            if (config.getAuditArchiveDirectory() != null) {
+                auditArchiveService = new AuditArchiveServiceImpl(auditRepo,
+                        new AuditArchive(Path.of(config.getAuditArchiveDirectory())), config.getAuditArchiveAfterDays());
+                auditArchiveService.startArchival(1, TimeUnit.DAYS);
+            }
+
+            AuditRepository auditSink = auditRepo;
+            AuditJournal auditJournal = null;
+            AuditJournalShipper auditShipper = null;
+            if (config.getAuditJournalDirectory() != null) {
+                auditJournal = new AuditJournal(Path.of(config.getAuditJournalDirectory()), config.getAuditJournalSegmentSize());
+                auditShipper = new AuditJournalShipper(auditJournal, auditRepo, config.getAuditBatchSize(), config.getAuditFlushMillis());
+                auditShipper.start();
+                auditSink = new JournaledAuditRepository(auditJournal, auditRepo);
+            }
+
+            // журнал сам объединяет одновременные записи в один сброс на диск, поэтому при нем запись синхронная:
+            // очередь в памяти теряла бы записи при сбое процесса
+            AuditWriter auditWriter = auditJournal != null ? null : new AuditWriter(auditSink, config.getAuditQueueCapacity(),
+                    config.getAuditBatchSize(), config.getAuditFlushMillis(), config.getAuditOverflowPolicy());
+
+            ConsoleUI ui = getConsoleUI(productRepo, userRepo, auditSink, auditWriter, productCountService);
 
-            Runtime.getRuntime().addShutdownHook(new Thread(ConnectionPoolManager::close));
+            AuditJournal journal = auditJournal;
+            AuditJournalShipper shipper = auditShipper;
+            AuditArchiveService archiveService = auditArchiveService;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                productCountService.shutdown();
+                auditRetentionService.shutdown();
+                if (archiveService != null) {
+                    archiveService.shutdown();
+                }
+                RepositoryExecutor.shutdown(5, TimeUnit.SECONDS);
+                if (auditWriter != null) {
+                    auditWriter.close();
+                }
+                if (shipper != null) {
+                    shipper.close();
+                    journal.close();
+                }
+                ConnectionPoolManager.close();
+            }));
 
             ui.start();
 
@@ -70,13 +136,16 @@ public class ProductCatalogApp {
      * @param productRepo репозиторий товаров
      * @param userRepo репозиторий пользователей
      * @param auditRepo репозиторий аудита
+     * @param auditWriter фоновая запись журнала аудита (null - запись синхронная)
+     * @param productCountService сервис счетчиков товаров
      * @return сконфигурированный экземпляр консольного интерфейса
      */
-    private static ConsoleUI getConsoleUI(ProductRepositoryImpl productRepo, UserRepositoryImpl userRepo, AuditRepositoryImpl auditRepo) {
-        AuditService audit = new AuditServiceImpl(auditRepo);
+    private static ConsoleUI getConsoleUI(ProductRepositoryImpl productRepo, UserRepositoryImpl userRepo, AuditRepository auditRepo,
+                                          AuditWriter auditWriter, ProductCountService productCountService) {
+        AuditService audit = new AuditServiceImpl(auditRepo, auditWriter);
         MetricsService metricsService = new MetricsServiceImpl();
         QueryCache cache = new QueryCache(100);
-        ProductService productService = new ProductServiceImpl(productRepo, cache);
+        ProductService productService = new ProductServiceImpl(productRepo, cache, new ProductIndex(), productCountService);
         UserService userService = new UserServiceImpl(userRepo);
 
         return new ConsoleUI(
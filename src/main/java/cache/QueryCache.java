@@ -1,6 +1,7 @@
 package cache;
 
 import model.Product;
+import model.ProductFacets;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -9,8 +10,10 @@ import java.util.Map;
 
 /**
  * LRU кэш для хранения результатов поиска товаров.
+ * Рядом с результатами поиска по тому же ключу хранятся фасетные счетчики.
  * Автоматически удаляет наименее используемые записи при превышении ёмкости.
- * Потокобезопасность не гарантируется.
+ * Потокобезопасен: все операции выполняются под блокировкой экземпляра,
+ * так как LinkedHashMap с порядком доступа изменяется и при чтении.
  */
 public class QueryCache {
     /** Максимальное количество записей в кэше */
@@ -19,6 +22,9 @@ public class QueryCache {
     /** Внутреннее хранилище кэша с доступом по принципу LRU */
     private final LinkedHashMap<String, List<Product>> cache;
 
+    /** Фасетные счетчики, закэшированные по ключу поискового запроса */
+    private final LinkedHashMap<String, ProductFacets> facetsCache;
+
     /**
      * Создает новый экземпляр кэша с указанной емкостью.
      *
@@ -36,6 +42,12 @@ public class QueryCache {
                 return size() > QueryCache.this.capacity;
             }
         };
+        this.facetsCache = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProductFacets> eldest) {
+                return size() > QueryCache.this.capacity;
+            }
+        };
     }
 
     /**
@@ -45,7 +57,7 @@ public class QueryCache {
      * @param key ключ поискового запроса
      * @return список товаров или null, если ключ не найден
      */
-    public List<Product> get(String key) {
+    public synchronized List<Product> get(String key) {
         List<Product> cachedValue = cache.get(key);
         if (cachedValue == null) {
             return null;
@@ -61,7 +73,7 @@ public class QueryCache {
      * @param value список товаров для кэширования
      * @throws NullPointerException если key или value равны null
      */
-    public void put(String key, List<Product> value) {
+    public synchronized void put(String key, List<Product> value) {
         if (key == null || value == null) {
             throw new NullPointerException("Key and value cannot be null");
         }
@@ -69,11 +81,36 @@ public class QueryCache {
     }
 
     /**
-     * Полностью очищает кэш.
+     * Возвращает фасетные счетчики по ключу кэша.
+     *
+     * @param key ключ поискового запроса
+     * @return фасетные счетчики или null, если ключ не найден
+     */
+    public synchronized ProductFacets getFacets(String key) {
+        return facetsCache.get(key);
+    }
+
+    /**
+     * Добавляет или обновляет фасетные счетчики для ключа поискового запроса.
+     *
+     * @param key ключ поискового запроса
+     * @param facets фасетные счетчики
+     * @throws NullPointerException если key или facets равны null
+     */
+    public synchronized void putFacets(String key, ProductFacets facets) {
+        if (key == null || facets == null) {
+            throw new NullPointerException("Key and facets cannot be null");
+        }
+        facetsCache.put(key, facets);
+    }
+
+    /**
+     * Полностью очищает кэш, включая фасетные счетчики.
      * Используется при изменении данных товаров для обеспечения актуальности.
      */
-    public void invalidateAll() {
+    public synchronized void invalidateAll() {
         cache.clear();
+        facetsCache.clear();
     }
 
     /**
@@ -81,7 +118,7 @@ public class QueryCache {
      *
      * @return количество закэшированных запросов
      */
-    public int size() {
+    public synchronized int size() {
         return cache.size();
     }
 }
\ No newline at end of file
@@ -1,7 +1,16 @@
 package config;
 
+import model.enums.AuditOverflowPolicy;
 import org.yaml.snakeyaml.Yaml;
+import repository.audit.AuditJournal;
+import service.audit.AuditArchiveServiceImpl;
+import service.audit.AuditRetentionServiceImpl;
+import service.audit.AuditWriter;
+import util.ConnectionPoolManager;
+
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 public class Config {
     private Map<String, Object> config;
@@ -18,6 +27,15 @@ public class Config {
         }
     }
 
+    /**
+     * Создает конфигурацию из готовых значений (например, для временной БД в тестах).
+     *
+     * @param config значения в том же виде, что и разобранный файл конфигурации
+     */
+    public Config(Map<String, Object> config) {
+        this.config = config;
+    }
+
     public String getDbUrl() {
         Map<String, Object> dbConfig = (Map<String, Object>) config.get("database");
         return String.format("jdbc:postgresql://%s:%d/%s?currentSchema=%s",
@@ -27,6 +45,132 @@ public class Config {
                 dbConfig.get("defaultSchema"));
     }
 
+    /**
+     * Возвращает URL реплик для чтения (database.replicas: список host/port).
+     * Имя базы, схема и учетные данные берутся из настроек основного сервера.
+     *
+     * @return URL реплик (пустой список, если реплики не настроены)
+     */
+    public List<String> getReplicaUrls() {
+        Map<String, Object> dbConfig = (Map<String, Object>) config.get("database");
+        List<Map<String, Object>> replicas = (List<Map<String, Object>>) dbConfig.get("replicas");
+        List<String> urls = new ArrayList<>();
+        if (replicas != null) {
+            for (Map<String, Object> replica : replicas) {
+                urls.add(String.format("jdbc:postgresql://%s:%d/%s?currentSchema=%s",
+                        replica.get("host"),
+                        replica.get("port"),
+                        dbConfig.get("name"),
+                        dbConfig.get("defaultSchema")));
+            }
+        }
+        return urls;
+    }
+
+    public int getDbPoolSize() {
+        Map<String, Object> dbConfig = (Map<String, Object>) config.get("database");
+        Object poolSize = dbConfig.get("poolSize");
+        return poolSize == null ? ConnectionPoolManager.DEFAULT_POOL_SIZE : ((Number) poolSize).intValue();
+    }
+
+    /**
+     * Возвращает окно чтения своих записей: сколько миллисекунд после записи чтения сеанса
+     * направляются на основной сервер (database.readYourWritesMillis).
+     */
+    public long getReadYourWritesMillis() {
+        Map<String, Object> dbConfig = (Map<String, Object>) config.get("database");
+        Object millis = dbConfig.get("readYourWritesMillis");
+        return millis == null ? ConnectionPoolManager.DEFAULT_READ_YOUR_WRITES_MILLIS : ((Number) millis).longValue();
+    }
+
+    /**
+     * Возвращает срок хранения журнала аудита в месяцах (audit.retentionMonths).
+     */
+    public int getAuditRetentionMonths() {
+        Object months = auditSetting("retentionMonths");
+        return months == null ? AuditRetentionServiceImpl.DEFAULT_RETENTION_MONTHS : ((Number) months).intValue();
+    }
+
+    /**
+     * Возвращает, на сколько месяцев вперед заранее создаются секции журнала аудита (audit.partitionsAhead).
+     */
+    public int getAuditPartitionsAhead() {
+        Object months = auditSetting("partitionsAhead");
+        return months == null ? AuditRetentionServiceImpl.DEFAULT_PARTITIONS_AHEAD : ((Number) months).intValue();
+    }
+
+    /**
+     * Возвращает емкость очереди фоновой записи аудита (audit.queueCapacity).
+     */
+    public int getAuditQueueCapacity() {
+        Object capacity = auditSetting("queueCapacity");
+        return capacity == null ? AuditWriter.DEFAULT_CAPACITY : ((Number) capacity).intValue();
+    }
+
+    /**
+     * Возвращает размер пакета фоновой записи аудита (audit.batchSize).
+     */
+    public int getAuditBatchSize() {
+        Object batchSize = auditSetting("batchSize");
+        return batchSize == null ? AuditWriter.DEFAULT_BATCH_SIZE : ((Number) batchSize).intValue();
+    }
+
+    /**
+     * Возвращает наибольшую задержку фоновой записи аудита в миллисекундах (audit.flushMillis).
+     */
+    public long getAuditFlushMillis() {
+        Object millis = auditSetting("flushMillis");
+        return millis == null ? AuditWriter.DEFAULT_FLUSH_MILLIS : ((Number) millis).longValue();
+    }
+
+    /**
+     * Возвращает поведение очереди аудита при переполнении (audit.overflow: BLOCK или DROP).
+     */
+    public AuditOverflowPolicy getAuditOverflowPolicy() {
+        Object policy = auditSetting("overflow");
+        return policy == null ? AuditOverflowPolicy.BLOCK : AuditOverflowPolicy.valueOf(policy.toString().toUpperCase());
+    }
+
+    /**
+     * Возвращает каталог локального журнала аудита (audit.journalDirectory).
+     * Если каталог не задан, записи аудита пишутся в БД напрямую.
+     */
+    public String getAuditJournalDirectory() {
+        Object directory = auditSetting("journalDirectory");
+        return directory == null || directory.toString().isBlank() ? null : directory.toString();
+    }
+
+    /**
+     * Возвращает размер сегмента журнала аудита в байтах (audit.journalSegmentSize).
+     */
+    public int getAuditJournalSegmentSize() {
+        Object size = auditSetting("journalSegmentSize");
+        return size == null ? AuditJournal.DEFAULT_SEGMENT_SIZE : ((Number) size).intValue();
+    }
+
+    /**
+     * Возвращает каталог архива журнала аудита (audit.archiveDirectory).
+     * Если каталог не задан, записи аудита не архивируются.
+     */
+    public String getAuditArchiveDirectory() {
+        Object directory = auditSetting("archiveDirectory");
+        return directory == null || directory.toString().isBlank() ? null : directory.toString();
+    }
+
+    /**
+     * Возвращает возраст записей аудита в днях, после которого они переносятся в архив (audit.archiveAfterDays).
+     * Записи переносятся целыми месяцами, когда этого возраста достигает конец месяца.
+     */
+    public int getAuditArchiveAfterDays() {
+        Object days = auditSetting("archiveAfterDays");
+        return days == null ? AuditArchiveServiceImpl.DEFAULT_ARCHIVE_AFTER_DAYS : ((Number) days).intValue();
+    }
+
+    private Object auditSetting(String key) {
+        Map<String, Object> auditConfig = (Map<String, Object>) config.get("audit");
+        return auditConfig == null ? null : auditConfig.get(key);
+    }
+
     public String getDbUsername() {
         Map<String, Object> dbConfig = (Map<String, Object>) config.get("database");
         return (String) dbConfig.get("username");
@@ -1,6 +1,8 @@
 package controller;
 
 import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
 import service.audit.AuditService;
 import java.util.List;
 
@@ -26,7 +28,7 @@ public class AuditController {
     }
 
     /**
-     * Возвращает список последних записей аудита.
+     * Возвращает список последних записей аудита от самых новых к более старым.
      * Если запрошенное количество превышает общее количество записей,
      * возвращаются все доступные записи.
      *
@@ -38,9 +40,24 @@ public class AuditController {
         if (count < 0) {
             throw new IllegalArgumentException("Count cannot be negative");
         }
+        if (count == 0) {
+            return List.of();
+        }
+
+        return auditService.getRecentEntries(count);
+    }
 
-        List<AuditEntry> allEntries = auditService.getEntries();
-        int fromIndex = Math.max(0, allEntries.size() - count);
-        return allEntries.subList(fromIndex, allEntries.size());
+    /**
+     * Возвращает страницу записей аудита по фильтрам расследования.
+     *
+     * @param query фильтры по пользователю, действию и периоду, позиция и размер страницы
+     * @return страница записей аудита от новых к старым
+     * @throws NullPointerException если query равен null
+     */
+    public AuditPage queryAuditEntries(AuditQuery query) {
+        if (query == null) {
+            throw new NullPointerException("Query cannot be null");
+        }
+        return auditService.query(query);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,37 @@
 package controller;
 
+import index.SearchPlan;
+import model.CatalogItem;
+import model.ImportReport;
+import model.NewProduct;
 import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.ProductSearchResult;
+import model.SyncReport;
+import model.enums.ExportFormat;
 import service.product.ProductService;
 import service.audit.AuditService;
+import util.RepositoryExecutor;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Контроллер для управления операциями с товарами.
@@ -17,6 +44,9 @@ public class ProductController {
     /** Сервис для записи действий в журнал аудита */
     private final AuditService auditService;
 
+    /** Размер буфера записи файла выгрузки */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Конструктор контроллера
      *
@@ -39,13 +69,13 @@ public class ProductController {
      * @param name название товара
      * @param category категория товара
      * @param brand бренд товара
-     * @param price цена товара
+     * @param price цена товара в копейках
      * @param description описание товара
      * @return созданный объект товара
      * @throws NullPointerException если любой из строковых параметров равен null
      * @throws IllegalArgumentException если price отрицательный
      */
-    public Product createProduct(String username, String name, String category, String brand, double price, String description, Long userId) {
+    public Product createProduct(String username, String name, String category, String brand, long price, String description, Long userId) {
         if (name == null || category == null || brand == null || description == null) {
             throw new NullPointerException("Product fields cannot be null");
         }
@@ -58,6 +88,102 @@ public class ProductController {
         return product;
     }
 
+    /**
+     * Создает несколько товаров одной пакетной операцией и записывает в журнал аудита
+     * одно событие на весь пакет.
+     *
+     * @param username имя пользователя, создающего товары
+     * @param products данные новых товаров
+     * @param userId ID пользователя, создающего товары
+     * @return созданные товары в порядке входного списка
+     * @throws NullPointerException если products или любой из его элементов равен null
+     */
+    public List<Product> createProducts(String username, List<NewProduct> products, Long userId) {
+        if (products == null || products.contains(null)) {
+            throw new NullPointerException("Products cannot be null");
+        }
+
+        List<Product> created = productService.createProducts(products, userId);
+        if (!created.isEmpty()) {
+            auditService.record(username, "BULK_ADD_PRODUCT", "count=" + created.size()
+                    + ", ids=" + created.get(0).getId() + ".." + created.get(created.size() - 1).getId());
+        }
+        return created;
+    }
+
+    /**
+     * Импортирует каталог товаров из CSV-файла в кодировке UTF-8 и записывает событие в журнал аудита.
+     *
+     * @param username имя пользователя, выполняющего импорт
+     * @param csvFile путь к CSV-файлу со столбцами name, category, brand, price, description
+     * @param userId ID пользователя, от имени которого создаются новые товары
+     * @return результат импорта
+     * @throws UncheckedIOException если файл не удалось открыть
+     */
+    public ImportReport importCatalog(String username, Path csvFile, Long userId) {
+        ImportReport report;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            report = productService.importCatalog(reader, userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + csvFile, e);
+        }
+        auditService.record(username, "IMPORT_PRODUCTS", csvFile.getFileName() + ": " + report);
+        return report;
+    }
+
+    /**
+     * Синхронизирует каталог с фидом поставщика и записывает событие в журнал аудита,
+     * если какие-либо товары были созданы или изменены.
+     *
+     * @param username имя пользователя, выполняющего синхронизацию
+     * @param items товары фида
+     * @param userId ID пользователя, от имени которого создаются новые товары
+     * @return количество созданных, измененных и неизмененных товаров
+     * @throws NullPointerException если items или любой из его элементов равен null
+     * @throws IllegalArgumentException если userId равен null
+     */
+    public SyncReport syncCatalog(String username, List<CatalogItem> items, Long userId) {
+        if (items == null || items.contains(null)) {
+            throw new NullPointerException("Catalog items cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required for catalog sync");
+        }
+
+        SyncReport report = productService.syncCatalog(items, userId);
+        if (report.hasChanges()) {
+            auditService.record(username, "SYNC_PRODUCTS", report.toString());
+        }
+        return report;
+    }
+
+    /**
+     * Выгружает каталог товаров в файл и записывает событие в журнал аудита.
+     * Данные из БД записываются в файл по мере получения, при необходимости со сжатием gzip,
+     * поэтому расход памяти не зависит от размера каталога.
+     *
+     * @param username имя пользователя, выполняющего выгрузку
+     * @param file путь к файлу (перезаписывается, если существует)
+     * @param format формат выгрузки
+     * @param gzip сжимать ли данные
+     * @return количество выгруженных товаров
+     * @throws UncheckedIOException если не удалось записать файл
+     */
+    public long exportCatalog(String username, Path file, ExportFormat format, boolean gzip) {
+        long rows;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = gzip
+                     ? new GZIPOutputStream(Channels.newOutputStream(channel), EXPORT_BUFFER_SIZE)
+                     : new BufferedOutputStream(Channels.newOutputStream(channel), EXPORT_BUFFER_SIZE)) {
+            rows = productService.exportCatalog(out, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+        auditService.record(username, "EXPORT_PRODUCTS", file.getFileName() + ": " + format + ", rows=" + rows);
+        return rows;
+    }
+
     /**
      * Обновляет существующий товар и записывает событие в журнал аудита при успешном обновлении.
      *
@@ -66,12 +192,12 @@ public class ProductController {
      * @param name новое название товара (может быть null - поле не обновляется)
      * @param category новая категория товара (может быть null - поле не обновляется)
      * @param brand новый бренд товара (может быть null - поле не обновляется)
-     * @param price новая цена товара (может быть null - поле не обновляется)
+     * @param price новая цена товара в копейках (может быть null - поле не обновляется)
      * @param description новое описание товара (может быть null - поле не обновляется)
      * @return true если товар успешно обновлен, false если товар не найден
      * @throws IllegalArgumentException если id отрицательный или price отрицательный
      */
-    public Product updateProduct(String username, long id, String name, String category, String brand, Double price, String description) {
+    public Product updateProduct(String username, long id, String name, String category, String brand, Long price, String description) {
         if (id < 0) {
             throw new IllegalArgumentException("Product ID cannot be negative");
         }
@@ -120,6 +246,89 @@ public class ProductController {
         return productService.getProductById(id);
     }
 
+    /**
+     * Находит несколько товаров по идентификаторам одним обращением к сервису.
+     *
+     * @param ids идентификаторы товаров
+     * @return найденные товары по идентификатору (отсутствующие в результат не входят)
+     * @throws IllegalArgumentException если какой-либо id отрицательный
+     */
+    public Map<Long, Product> getProductsByIds(long[] ids) {
+        validateIds(ids);
+        return productService.getProductsByIds(ids);
+    }
+
+    /**
+     * Удаляет несколько товаров и записывает в журнал аудита одно событие на весь набор.
+     *
+     * @param username имя пользователя, удаляющего товары
+     * @param ids идентификаторы товаров для удаления
+     * @return идентификаторы фактически удаленных товаров
+     * @throws IllegalArgumentException если какой-либо id отрицательный
+     */
+    public Set<Long> deleteProducts(String username, long[] ids) {
+        validateIds(ids);
+        Set<Long> deleted = productService.deleteProducts(ids);
+        if (!deleted.isEmpty()) {
+            auditService.record(username, "BULK_DELETE_PRODUCT", "ids=" + deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Обновляет цены нескольких товаров и записывает в журнал аудита одно событие на весь набор.
+     *
+     * @param username имя пользователя, обновляющего цены
+     * @param prices новые цены в копейках по идентификаторам товаров
+     * @return обновленные товары по идентификатору
+     * @throws IllegalArgumentException если какой-либо id или цена отрицательные
+     */
+    public Map<Long, Product> updatePrices(String username, Map<Long, Long> prices) {
+        for (Map.Entry<Long, Long> entry : prices.entrySet()) {
+            if (entry.getKey() < 0) {
+                throw new IllegalArgumentException("Product ID cannot be negative");
+            }
+            if (entry.getValue() == null || entry.getValue() < 0) {
+                throw new IllegalArgumentException("Price cannot be negative");
+            }
+        }
+
+        Map<Long, Product> updated = productService.updatePrices(prices);
+        if (!updated.isEmpty()) {
+            auditService.record(username, "BULK_UPDATE_PRICE", "ids=" + updated.keySet());
+        }
+        return updated;
+    }
+
+    /**
+     * Применяет много частичных изменений товаров и записывает в журнал аудита одно событие на весь набор.
+     *
+     * @param username имя пользователя, изменяющего товары
+     * @param patches частичные изменения товаров
+     * @return количество обновленных товаров
+     * @throws NullPointerException если patches или любой из его элементов равен null
+     * @throws IllegalArgumentException если какой-либо id или цена отрицательные
+     */
+    public int updateProducts(String username, List<ProductPatch> patches) {
+        if (patches == null || patches.contains(null)) {
+            throw new NullPointerException("Patches cannot be null");
+        }
+        for (ProductPatch patch : patches) {
+            if (patch.getId() < 0) {
+                throw new IllegalArgumentException("Product ID cannot be negative");
+            }
+            if (patch.getPrice() != null && patch.getPrice() < 0) {
+                throw new IllegalArgumentException("Price cannot be negative");
+            }
+        }
+
+        int updated = productService.updateProducts(patches);
+        if (updated > 0) {
+            auditService.record(username, "BULK_UPDATE_PRODUCT", "updated " + updated + " of " + patches.size() + " products");
+        }
+        return updated;
+    }
+
     /**
      * Выполняет поиск товаров по заданным критериям и записывает событие в журнал аудита.
      *
@@ -127,28 +336,163 @@ public class ProductController {
      * @param nameSubstr подстрока для поиска в названии товара (может быть null)
      * @param category категория для фильтрации (может быть null)
      * @param brand бренд для фильтрации (может быть null)
-     * @param priceMin минимальная цена для фильтрации (может быть null)
-     * @param priceMax максимальная цена для фильтрации (может быть null)
+     * @param priceMin минимальная цена в копейках для фильтрации (может быть null)
+     * @param priceMax максимальная цена в копейках для фильтрации (может быть null)
      * @return список товаров, удовлетворяющих критериям поиска (может быть пустым, но не null)
      * @throws IllegalArgumentException если priceMin или priceMax отрицательные,
      *         или если priceMin > priceMax
      */
-    public List<Product> searchProducts(String username, String nameSubstr, String category, String brand, Double priceMin, Double priceMax) {
-        if (priceMin != null && priceMin < 0) {
-            throw new IllegalArgumentException("Minimum price cannot be negative");
+    public List<Product> searchProducts(String username, String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
+        validatePriceRange(priceMin, priceMax);
+
+        List<Product> results = productService.searchProducts(nameSubstr, category, brand, priceMin, priceMax);
+        auditService.record(username, "SEARCH", "found " + results.size() + " products");
+        return results;
+    }
+
+    /**
+     * Выполняет поиск товаров и одновременно с ним получает общее количество товаров
+     * и фасетные счетчики, записывая событие поиска в журнал аудита.
+     * Три независимых запроса выполняются параллельно в {@link RepositoryExecutor},
+     * поэтому время ответа определяется самым медленным из них, а не их суммой.
+     *
+     * @param username имя пользователя, выполняющего поиск
+     * @param nameSubstr подстрока для поиска в названии товара (может быть null)
+     * @param category категория для фильтрации (может быть null)
+     * @param brand бренд для фильтрации (может быть null)
+     * @param priceMin минимальная цена в копейках для фильтрации (может быть null)
+     * @param priceMax максимальная цена в копейках для фильтрации (может быть null)
+     * @return найденные товары, общее количество товаров и фасетные счетчики
+     * @throws IllegalArgumentException если priceMin или priceMax отрицательные,
+     *         или если priceMin > priceMax
+     */
+    public ProductSearchResult searchWithSummary(String username, String nameSubstr, String category, String brand,
+                                                 Long priceMin, Long priceMax) {
+        validatePriceRange(priceMin, priceMax);
+
+        CompletableFuture<List<Product>> products = RepositoryExecutor.supplyAsync(
+                () -> productService.searchProducts(nameSubstr, category, brand, priceMin, priceMax));
+        CompletableFuture<Integer> totalCount = RepositoryExecutor.supplyAsync(productService::getTotalProductsCount);
+        CompletableFuture<ProductFacets> facets = RepositoryExecutor.supplyAsync(
+                () -> productService.getSearchFacets(nameSubstr, category, brand, priceMin, priceMax));
+
+        ProductSearchResult result;
+        try {
+            result = new ProductSearchResult(products.join(), totalCount.join(), facets.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
-        if (priceMax != null && priceMax < 0) {
-            throw new IllegalArgumentException("Maximum price cannot be negative");
+        auditService.record(username, "SEARCH", "found " + result.getProducts().size() + " products");
+        return result;
+    }
+
+    /**
+     * Выполняет несколько независимых поисков за одно обращение к базе данных
+     * и записывает одно событие в журнал аудита.
+     *
+     * @param username имя пользователя, выполняющего поиск
+     * @param criteriaList список критериев поиска
+     * @return результаты поиска для каждого критерия в том же порядке
+     * @throws NullPointerException если criteriaList равен null
+     * @throws IllegalArgumentException если ценовой диапазон какого-либо критерия некорректен
+     */
+    public List<List<Product>> searchBatch(String username, List<ProductSearchCriteria> criteriaList) {
+        if (criteriaList == null) {
+            throw new NullPointerException("Criteria list cannot be null");
         }
-        if (priceMin != null && priceMax != null && priceMin > priceMax) {
-            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        for (ProductSearchCriteria criteria : criteriaList) {
+            validatePriceRange(criteria.getMinPrice(), criteria.getMaxPrice());
         }
 
-        List<Product> results = productService.searchProducts(nameSubstr, category, brand, priceMin, priceMax);
-        auditService.record(username, "SEARCH", "found " + results.size() + " products");
+        List<List<Product>> results = productService.searchBatch(criteriaList);
+        int found = results.stream().mapToInt(List::size).sum();
+        auditService.record(username, "SEARCH_BATCH", criteriaList.size() + " queries, found " + found + " products");
+        return results;
+    }
+
+    /**
+     * Выполняет поиск товаров по названию и бренду с учетом опечаток и записывает событие в журнал аудита.
+     *
+     * @param username имя пользователя, выполняющего поиск
+     * @param query поисковый запрос
+     * @param maxEdits допустимое число правок на слово
+     * @param limit максимальное количество результатов
+     * @return найденные товары, упорядоченные по близости к запросу
+     * @throws NullPointerException если query равен null
+     * @throws IllegalArgumentException если maxEdits отрицательный или limit не положительный
+     */
+    public List<Product> fuzzySearch(String username, String query, int maxEdits, int limit) {
+        if (query == null) {
+            throw new NullPointerException("Query cannot be null");
+        }
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Max edits cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        List<Product> results = productService.fuzzySearch(query, maxEdits, limit);
+        auditService.record(username, "FUZZY_SEARCH", "found " + results.size() + " products");
         return results;
     }
 
+    /**
+     * Возвращает подсказки автодополнения по названиям и брендам товаров.
+     *
+     * @param prefix введенный префикс
+     * @param limit максимальное количество подсказок
+     * @return подсказки от встречающихся в большем числе товаров к меньшему (может быть пустым, но не null)
+     * @throws NullPointerException если prefix равен null
+     * @throws IllegalArgumentException если limit не положительный
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null) {
+            throw new NullPointerException("Prefix cannot be null");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return productService.suggest(prefix, limit);
+    }
+
+    /**
+     * Возвращает фасетные счетчики (категории, бренды, ценовые диапазоны) для критериев поиска.
+     *
+     * @param nameSubstr подстрока для поиска в названии товара (может быть null)
+     * @param category категория для фильтрации (может быть null)
+     * @param brand бренд для фильтрации (может быть null)
+     * @param priceMin минимальная цена в копейках для фильтрации (может быть null)
+     * @param priceMax максимальная цена в копейках для фильтрации (может быть null)
+     * @return фасетные счетчики для товаров, удовлетворяющих критериям поиска
+     * @throws IllegalArgumentException если priceMin или priceMax отрицательные,
+     *         или если priceMin > priceMax
+     */
+    public ProductFacets getSearchFacets(String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
+        validatePriceRange(priceMin, priceMax);
+        return productService.getSearchFacets(nameSubstr, category, brand, priceMin, priceMax);
+    }
+
+    /**
+     * Возвращает план, которым был бы выполнен поиск по заданным критериям, не выполняя сам поиск.
+     *
+     * @param nameSubstr подстрока для поиска в названии товара (может быть null)
+     * @param category категория для фильтрации (может быть null)
+     * @param brand бренд для фильтрации (может быть null)
+     * @param priceMin минимальная цена в копейках для фильтрации (может быть null)
+     * @param priceMax максимальная цена в копейках для фильтрации (может быть null)
+     * @return выбранный способ выполнения поиска с оценками стоимости и числа строк
+     * @throws IllegalArgumentException если priceMin или priceMax отрицательные,
+     *         или если priceMin > priceMax
+     */
+    public SearchPlan explainSearch(String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
+        validatePriceRange(priceMin, priceMax);
+        return productService.explainSearch(nameSubstr, category, brand, priceMin, priceMax);
+    }
+
     /**
      * Возвращает все товары в системе.
      *
@@ -166,4 +510,43 @@ public class ProductController {
     public int getTotalProductsCount() {
         return productService.getTotalProductsCount();
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает быструю оценку количества товаров по статистике базы данных.
+     *
+     * @return оценка количества товаров
+     */
+    public long getApproximateProductsCount() {
+        return productService.getApproximateProductsCount();
+    }
+
+    /**
+     * Проверяет корректность ценового диапазона поиска.
+     *
+     * @throws IllegalArgumentException если границы отрицательные или priceMin > priceMax
+     */
+    private void validatePriceRange(Long priceMin, Long priceMax) {
+        if (priceMin != null && priceMin < 0) {
+            throw new IllegalArgumentException("Minimum price cannot be negative");
+        }
+        if (priceMax != null && priceMax < 0) {
+            throw new IllegalArgumentException("Maximum price cannot be negative");
+        }
+        if (priceMin != null && priceMax != null && priceMin > priceMax) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+    }
+
+    /**
+     * Проверяет, что идентификаторы товаров неотрицательны.
+     *
+     * @throws IllegalArgumentException если какой-либо id отрицательный
+     */
+    private void validateIds(long[] ids) {
+        for (long id : ids) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Product ID cannot be negative");
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package index;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индекс для поиска с опечатками по словам названий и брендов.
+ * Уникальные слова хранятся в BK-дереве по расстоянию Левенштейна, что позволяет
+ * при поиске с малым допустимым числом правок проверять лишь небольшую часть словаря.
+ * Для каждого слова ведется список ID товаров, в которых оно встречается.
+ * Изменения выполняются одним писателем (под блокировкой {@link ProductIndex}),
+ * чтение возможно параллельно с изменениями.
+ */
+class FuzzyNameIndex {
+    /** ID товаров по слову */
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+
+    /** Корень BK-дерева */
+    private volatile Node root;
+
+    /**
+     * Добавляет слова текста для товара.
+     *
+     * @param id ID товара
+     * @param text название или бренд
+     */
+    void add(long id, String text) {
+        for (String token : Tokens.tokenize(text)) {
+            NavigableSet<Long> ids = postings.get(token);
+            if (ids == null) {
+                insertTerm(token);
+                ids = new ConcurrentSkipListSet<>();
+                postings.put(token, ids);
+            }
+            ids.add(id);
+        }
+    }
+
+    /**
+     * Удаляет слова текста для товара.
+     * Слово остается в дереве; при поиске слова без товаров пропускаются.
+     *
+     * @param id ID товара
+     * @param text название или бренд
+     */
+    void remove(long id, String text) {
+        for (String token : Tokens.tokenize(text)) {
+            NavigableSet<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Удаляет все слова из индекса.
+     */
+    void clear() {
+        postings.clear();
+        root = null;
+    }
+
+    /**
+     * Находит товары, у которых каждому слову запроса соответствует слово
+     * на расстоянии не более maxEdits правок.
+     *
+     * @param query поисковый запрос
+     * @param maxEdits допустимое число правок на слово
+     * @return суммарное расстояние по словам запроса для каждого найденного ID товара
+     */
+    Map<Long, Integer> search(String query, int maxEdits) {
+        List<String> queryTokens = Tokens.tokenize(query);
+        Map<Long, Integer> scores = null;
+
+        for (String queryToken : queryTokens) {
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            Node node = root;
+            if (node == null) {
+                return Map.of();
+            }
+
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty()) {
+                Node current = stack.pop();
+                int distance = levenshtein(queryToken, current.term);
+                NavigableSet<Long> ids = postings.get(current.term);
+                if (distance <= maxEdits && ids != null) {
+                    for (Long id : ids) {
+                        tokenScores.merge(id, distance, Math::min);
+                    }
+                }
+                Node[] children = current.children;
+                int from = Math.max(1, distance - maxEdits);
+                int to = Math.min(children.length - 1, distance + maxEdits);
+                for (int d = from; d <= to; d++) {
+                    if (children[d] != null) {
+                        stack.push(children[d]);
+                    }
+                }
+            }
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Integer> merged = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    Integer tokenScore = tokenScores.get(entry.getKey());
+                    if (tokenScore != null) {
+                        merged.put(entry.getKey(), entry.getValue() + tokenScore);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? Map.of() : scores;
+    }
+
+    private void insertTerm(String term) {
+        if (root == null) {
+            root = new Node(term);
+            return;
+        }
+        Node current = root;
+        while (true) {
+            int distance = levenshtein(term, current.term);
+            if (distance == 0) {
+                return;
+            }
+            Node child = distance < current.children.length ? current.children[distance] : null;
+            if (child == null) {
+                current.attach(distance, new Node(term));
+                return;
+            }
+            current = child;
+        }
+    }
+
+    /**
+     * Вычисляет расстояние Левенштейна двумя строками матрицы.
+     */
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Узел BK-дерева. Потомки хранятся в массиве по расстоянию до слова узла;
+     * массив заменяется целиком при добавлении, чтобы читатели видели согласованное состояние.
+     */
+    private static final class Node {
+        private final String term;
+        private volatile Node[] children = new Node[0];
+
+        private Node(String term) {
+            this.term = term;
+        }
+
+        private void attach(int distance, Node child) {
+            Node[] copy = Arrays.copyOf(children, Math.max(children.length, distance + 1));
+            copy[distance] = child;
+            children = copy;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Индекс автодополнения по нормализованным названиям и брендам товаров.
+ * Строки хранятся в упорядоченном словаре, поэтому диапазон строк с префиксом находится
+ * за логарифмическое время. Для каждой строки ведется число товаров, в которых она встречается:
+ * по нему ранжируются подсказки, а строка удаляется из словаря, когда счетчик становится нулевым.
+ */
+class PrefixIndex {
+    /** Подсказки по нормализованной строке */
+    private final ConcurrentSkipListMap<String, Completion> completions = new ConcurrentSkipListMap<>();
+
+    /** Порядок подсказок: по убыванию числа товаров, затем по алфавиту */
+    private static final Comparator<Map.Entry<String, Integer>> RANKING =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    /**
+     * Регистрирует строку (название или бренд товара).
+     *
+     * @param text исходная строка
+     */
+    void add(String text) {
+        String key = Tokens.normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        completions.computeIfAbsent(key, k -> new Completion(text.trim())).references++;
+    }
+
+    /**
+     * Снимает регистрацию строки.
+     *
+     * @param text исходная строка
+     */
+    void remove(String text) {
+        String key = Tokens.normalize(text);
+        Completion completion = completions.get(key);
+        if (completion != null && --completion.references <= 0) {
+            completions.remove(key);
+        }
+    }
+
+    /**
+     * Удаляет все строки из индекса.
+     */
+    void clear() {
+        completions.clear();
+    }
+
+    /**
+     * Возвращает limit самых частых подсказок, начинающихся с указанного префикса.
+     * Диапазон префикса обходится один раз, лучшие подсказки отбираются в куче размера limit.
+     *
+     * @param prefix префикс (без учета регистра)
+     * @param limit максимальное количество подсказок (положительное)
+     * @return подсказки в исходном написании: сначала встречающиеся в большем числе товаров,
+     *         при равенстве - в алфавитном порядке
+     */
+    List<String> suggest(String prefix, int limit) {
+        String key = Tokens.normalize(prefix);
+        PriorityQueue<Map.Entry<String, Integer>> best = new PriorityQueue<>(RANKING.reversed());
+        for (Map.Entry<String, Completion> entry : completions.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            best.add(Map.entry(entry.getValue().text, entry.getValue().references));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<String> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, Integer> entry : ranked) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    /**
+     * Подсказка и число ссылающихся на нее товаров.
+     * Счетчик изменяется только под блокировкой {@link ProductIndex}.
+     */
+    private static final class Completion {
+        private final String text;
+        private volatile int references;
+
+        private Completion(String text) {
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package index;
+
+import model.Product;
+import model.ProductSearchCriteria;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Копия каталога товаров в памяти для поиска без обращения к базе данных.
+ * Товары хранятся в массиве, упорядоченном по ID, а цены продублированы в отдельном
+ * примитивном массиве, чтобы ценовые фильтры проверялись без обращения к объектам товаров.
+ * Большие каталоги разбиваются на непрерывные блоки, которые проверяются параллельно в ForkJoinPool.
+ * Изменения применяются инкрементально; упорядоченный снимок перестраивается лениво при следующем поиске.
+ * Дополнительно индекс ведет списки ID по категориям и брендам и гистограмму цен,
+ * которые используются для пересечения фильтров и оценки селективности в {@link SearchPlanner},
+ * а также словарь слов названий и брендов для поиска с опечатками и словарь автодополнения.
+ */
+public class ProductIndex {
+    /** Размер блока, который проверяется одной задачей без дальнейшего деления */
+    static final int CHUNK_SIZE = 4096;
+
+    /** Размер каталога, начиная с которого поиск выполняется параллельно */
+    static final int PARALLEL_THRESHOLD = 16_384;
+
+    /** Количество корзин логарифмической гистограммы цен */
+    static final int PRICE_HISTOGRAM_BUCKETS = 64;
+
+    /** Товары по ID; источник истины для построения снимков */
+    private final ConcurrentSkipListMap<Long, Product> products = new ConcurrentSkipListMap<>();
+
+    /** ID товаров по категории (ключ в нижнем регистре) */
+    private final Map<String, NavigableSet<Long>> categoryPostings = new ConcurrentHashMap<>();
+
+    /** ID товаров по бренду (ключ в нижнем регистре) */
+    private final Map<String, NavigableSet<Long>> brandPostings = new ConcurrentHashMap<>();
+
+    /** Гистограмма цен: корзина i содержит цены в диапазоне [2^(i-1), 2^i), корзина 0 - цены меньше 1 */
+    private final AtomicLongArray priceHistogram = new AtomicLongArray(PRICE_HISTOGRAM_BUCKETS);
+
+    /** Словарь слов названий и брендов для поиска с опечатками */
+    private final FuzzyNameIndex fuzzyNameIndex = new FuzzyNameIndex();
+
+    /** Словарь автодополнения по названиям и брендам */
+    private final PrefixIndex prefixIndex = new PrefixIndex();
+
+    /** Пул для параллельного поиска */
+    private final ForkJoinPool pool;
+
+    /** Текущий снимок каталога или null, если он устарел после изменений */
+    private volatile Snapshot snapshot;
+
+    /** Признак того, что каталог был загружен */
+    private volatile boolean loaded;
+
+    /**
+     * Создает индекс, использующий общий ForkJoinPool.
+     */
+    public ProductIndex() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Создает индекс с указанным пулом для параллельного поиска.
+     *
+     * @param pool пул потоков для параллельного поиска
+     */
+    public ProductIndex(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Полностью заменяет содержимое индекса.
+     *
+     * @param all все товары каталога
+     */
+    public synchronized void load(Collection<Product> all) {
+        clear();
+        for (Product product : all) {
+            put(product);
+        }
+        snapshot = null;
+        loaded = true;
+    }
+
+    /**
+     * Очищает индекс и помечает его незагруженным, чтобы каталог был заново загружен при следующем обращении.
+     */
+    public synchronized void invalidate() {
+        clear();
+        snapshot = null;
+        loaded = false;
+    }
+
+    private void clear() {
+        products.clear();
+        categoryPostings.clear();
+        brandPostings.clear();
+        fuzzyNameIndex.clear();
+        prefixIndex.clear();
+        for (int i = 0; i < PRICE_HISTOGRAM_BUCKETS; i++) {
+            priceHistogram.set(i, 0);
+        }
+    }
+
+    /**
+     * Проверяет, был ли каталог загружен в индекс.
+     *
+     * @return true если индекс загружен
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Добавляет или заменяет товар в индексе.
+     *
+     * @param product товар
+     */
+    public synchronized void put(Product product) {
+        Product previous = products.put(product.getId(), product);
+        if (previous != null) {
+            unregister(previous);
+        }
+        register(product);
+        snapshot = null;
+    }
+
+    /**
+     * Удаляет товар из индекса.
+     *
+     * @param id ID товара
+     * @return удаленный товар или пустой Optional, если товар отсутствовал
+     */
+    public synchronized Optional<Product> remove(long id) {
+        Product removed = products.remove(id);
+        if (removed != null) {
+            unregister(removed);
+            snapshot = null;
+        }
+        return Optional.ofNullable(removed);
+    }
+
+    /**
+     * Находит товар по ID.
+     *
+     * @param id ID товара
+     * @return товар или пустой Optional
+     */
+    public Optional<Product> get(long id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    /**
+     * Возвращает количество товаров в индексе.
+     *
+     * @return количество товаров
+     */
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Возвращает количество товаров в категории.
+     *
+     * @param category категория (без учета регистра)
+     * @return количество товаров
+     */
+    public int countByCategory(String category) {
+        NavigableSet<Long> ids = categoryPostings.get(normalize(category));
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * Возвращает количество товаров бренда.
+     *
+     * @param brand бренд (без учета регистра)
+     * @return количество товаров
+     */
+    public int countByBrand(String brand) {
+        NavigableSet<Long> ids = brandPostings.get(normalize(brand));
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * Оценивает количество товаров с ценой в диапазоне по гистограмме цен.
+     * Внутри корзины цены считаются распределенными равномерно.
+     *
+     * @param minPrice минимальная цена в копейках (может быть null)
+     * @param maxPrice максимальная цена в копейках (может быть null)
+     * @return оценка количества товаров
+     */
+    public double estimatePriceRange(Long minPrice, Long maxPrice) {
+        double min = minPrice == null ? 0 : minPrice;
+        double max = maxPrice == null ? Double.MAX_VALUE : maxPrice;
+        double estimate = 0;
+        for (int bucket = 0; bucket < PRICE_HISTOGRAM_BUCKETS; bucket++) {
+            long count = priceHistogram.get(bucket);
+            if (count == 0) {
+                continue;
+            }
+            double low = bucket == 0 ? 0 : Math.scalb(1.0, bucket - 1);
+            double high = Math.scalb(1.0, bucket);
+            double overlap = Math.min(high, max) - Math.max(low, min);
+            if (overlap > 0) {
+                estimate += count * Math.min(1.0, overlap / (high - low));
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Выполняет поиск пересечением списков ID по категории и бренду.
+     * Перебирается наименьший из списков, остальные условия проверяются для каждого товара.
+     *
+     * @param criteria критерии поиска, содержащие категорию или бренд
+     * @return товары, удовлетворяющие критериям, в порядке возрастания ID
+     * @throws IllegalArgumentException если в критериях не задана ни категория, ни бренд
+     */
+    public List<Product> searchIntersection(ProductSearchCriteria criteria) {
+        NavigableSet<Long> smallest = null;
+        if (criteria.getCategory() != null) {
+            smallest = categoryPostings.getOrDefault(normalize(criteria.getCategory()), new ConcurrentSkipListSet<>());
+        }
+        if (criteria.getBrand() != null) {
+            NavigableSet<Long> brandIds = brandPostings.getOrDefault(normalize(criteria.getBrand()), new ConcurrentSkipListSet<>());
+            if (smallest == null || brandIds.size() < smallest.size()) {
+                smallest = brandIds;
+            }
+        }
+        if (smallest == null) {
+            throw new IllegalArgumentException("Index intersection requires a category or brand filter");
+        }
+
+        List<Product> result = new ArrayList<>();
+        for (Long id : smallest) {
+            Product product = products.get(id);
+            if (product != null && criteria.matches(product)) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Выполняет поиск с опечатками по словам названий и брендов.
+     * Каждое слово запроса должно совпасть с каким-либо словом товара с точностью до maxEdits правок.
+     * Результаты упорядочены по суммарному числу правок, затем по ID.
+     *
+     * @param query поисковый запрос
+     * @param maxEdits допустимое число правок на слово
+     * @param limit максимальное количество результатов
+     * @return найденные товары
+     */
+    public List<Product> fuzzySearch(String query, int maxEdits, int limit) {
+        return fuzzyNameIndex.search(query, maxEdits).entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> products.get(entry.getKey()))
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Возвращает подсказки автодополнения по названиям и брендам товаров.
+     *
+     * @param prefix введенный префикс (без учета регистра)
+     * @param limit максимальное количество подсказок
+     * @return подсказки от встречающихся в большем числе товаров к меньшему, при равенстве - по алфавиту
+     * @throws NullPointerException если prefix равен null
+     * @throws IllegalArgumentException если limit не положительный
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null) {
+            throw new NullPointerException("Prefix cannot be null");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return prefixIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Выполняет поиск товаров по критериям.
+     * Небольшие каталоги проверяются последовательно, большие - параллельно по блокам.
+     *
+     * @param criteria критерии поиска
+     * @return товары, удовлетворяющие критериям, в порядке возрастания ID
+     */
+    public List<Product> search(ProductSearchCriteria criteria) {
+        Snapshot current = snapshot();
+        if (current.items.length < PARALLEL_THRESHOLD) {
+            List<Product> result = new ArrayList<>();
+            scan(current, criteria, 0, current.items.length, result);
+            return result;
+        }
+        return pool.invoke(new SearchTask(current, criteria, 0, current.items.length));
+    }
+
+    /**
+     * Возвращает актуальный снимок, перестраивая его после изменений.
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new Snapshot(products.values().toArray(new Product[0]));
+            }
+            return snapshot;
+        }
+    }
+
+    private void register(Product product) {
+        categoryPostings.computeIfAbsent(normalize(product.getCategory()), key -> new ConcurrentSkipListSet<>()).add(product.getId());
+        brandPostings.computeIfAbsent(normalize(product.getBrand()), key -> new ConcurrentSkipListSet<>()).add(product.getId());
+        priceHistogram.incrementAndGet(priceBucket(product.getPrice()));
+        fuzzyNameIndex.add(product.getId(), product.getName());
+        fuzzyNameIndex.add(product.getId(), product.getBrand());
+        prefixIndex.add(product.getName());
+        prefixIndex.add(product.getBrand());
+    }
+
+    private void unregister(Product product) {
+        removePosting(categoryPostings, normalize(product.getCategory()), product.getId());
+        removePosting(brandPostings, normalize(product.getBrand()), product.getId());
+        priceHistogram.decrementAndGet(priceBucket(product.getPrice()));
+        fuzzyNameIndex.remove(product.getId(), product.getName());
+        fuzzyNameIndex.remove(product.getId(), product.getBrand());
+        prefixIndex.remove(product.getName());
+        prefixIndex.remove(product.getBrand());
+    }
+
+    private static void removePosting(Map<String, NavigableSet<Long>> postings, String key, long id) {
+        NavigableSet<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static int priceBucket(long price) {
+        return Math.min(PRICE_HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(price));
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static void scan(Snapshot snapshot, ProductSearchCriteria criteria, int from, int to, List<Product> result) {
+        long[] prices = snapshot.prices;
+        Product[] items = snapshot.items;
+        for (int i = from; i < to; i++) {
+            if (criteria.matchesPrice(prices[i]) && criteria.matchesAttributes(items[i])) {
+                result.add(items[i]);
+            }
+        }
+    }
+
+    /**
+     * Неизменяемый упорядоченный по ID снимок каталога.
+     */
+    private static final class Snapshot {
+        private final Product[] items;
+        private final long[] prices;
+
+        private Snapshot(Product[] items) {
+            this.items = items;
+            this.prices = new long[items.length];
+            for (int i = 0; i < items.length; i++) {
+                prices[i] = items[i].getPrice();
+            }
+        }
+    }
+
+    /**
+     * Задача параллельного поиска по диапазону снимка.
+     * Левая половина результатов всегда предшествует правой, поэтому порядок по ID сохраняется.
+     */
+    private static final class SearchTask extends RecursiveTask<List<Product>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Snapshot snapshot;
+        private final ProductSearchCriteria criteria;
+        private final int from;
+        private final int to;
+
+        private SearchTask(Snapshot snapshot, ProductSearchCriteria criteria, int from, int to) {
+            this.snapshot = snapshot;
+            this.criteria = criteria;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Product> compute() {
+            if (to - from <= CHUNK_SIZE) {
+                List<Product> result = new ArrayList<>();
+                scan(snapshot, criteria, from, to, result);
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask left = new SearchTask(snapshot, criteria, from, mid);
+            left.fork();
+            List<Product> right = new SearchTask(snapshot, criteria, mid, to).compute();
+            List<Product> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+    }
+}
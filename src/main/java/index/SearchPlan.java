@@ -0,0 +1,43 @@
+package index;
+
+/**
+ * Решение планировщика поиска: выбранный способ выполнения и его оценки.
+ */
+public class SearchPlan {
+
+    /**
+     * Способ выполнения поиска.
+     */
+    public enum Route {
+        /** SQL-запрос к базе данных */
+        DATABASE,
+        /** Перебор наименьшего списка ID по категории или бренду в памяти */
+        INDEX_INTERSECTION,
+        /** Полный (при необходимости параллельный) просмотр каталога в памяти */
+        FULL_SCAN
+    }
+
+    /** Выбранный способ выполнения */
+    private final Route route;
+
+    /** Оценка стоимости выбранного способа в условных единицах */
+    private final double estimatedCost;
+
+    /** Оценка количества найденных товаров */
+    private final long estimatedRows;
+
+    public SearchPlan(Route route, double estimatedCost, long estimatedRows) {
+        this.route = route;
+        this.estimatedCost = estimatedCost;
+        this.estimatedRows = estimatedRows;
+    }
+
+    public Route getRoute() { return route; }
+    public double getEstimatedCost() { return estimatedCost; }
+    public long getEstimatedRows() { return estimatedRows; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (cost=%.1f, rows=%d)", route, estimatedCost, estimatedRows);
+    }
+}
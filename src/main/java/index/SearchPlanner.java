@@ -0,0 +1,118 @@
+package index;
+
+import model.ProductSearchCriteria;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Планировщик поиска товаров на основе стоимости.
+ * Оценивает селективность фильтров по статистике индекса в памяти (размеры списков ID
+ * по категориям и брендам, гистограмма цен) и выбирает самый дешевый способ выполнения:
+ * запрос к БД, пересечение списков ID или полный просмотр каталога в памяти.
+ * Выбранный план возвращается вызывающему (см. ProductService#explainSearch) и пишется в лог
+ * на уровне FINE для подбора коэффициентов.
+ */
+public class SearchPlanner {
+    private static final Logger LOGGER = Logger.getLogger(SearchPlanner.class.getName());
+
+    /** Фиксированная стоимость обращения к БД: получение соединения, сетевой обмен, разбор запроса */
+    static final double DB_ROUND_TRIP_COST = 5_000;
+
+    /** Стоимость просмотра одной строки на стороне БД */
+    static final double DB_SCAN_ROW_COST = 0.2;
+
+    /** Стоимость передачи и преобразования одной найденной строки из БД */
+    static final double DB_RESULT_ROW_COST = 20;
+
+    /** Стоимость проверки одного товара в памяти */
+    static final double MEMORY_ROW_COST = 1;
+
+    /** Дополнительная стоимость проверки подстроки названия для одного товара */
+    static final double NAME_MATCH_COST = 3;
+
+    /** Стоимость обращения к товару по ID при переборе списка */
+    static final double LOOKUP_COST = 2;
+
+    /** Предполагаемая селективность фильтра по подстроке названия */
+    static final double NAME_SELECTIVITY = 0.1;
+
+    private final ProductIndex productIndex;
+    private final int parallelism;
+
+    /**
+     * Создает планировщик для указанного индекса.
+     *
+     * @param productIndex индекс товаров в памяти, источник статистики
+     */
+    public SearchPlanner(ProductIndex productIndex) {
+        this.productIndex = productIndex;
+        this.parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Выбирает способ выполнения поиска.
+     *
+     * @param criteria критерии поиска
+     * @return план выполнения с оценками стоимости и количества строк
+     * @throws IllegalStateException если индекс не загружен - без статистики планировать нечего
+     */
+    public SearchPlan plan(ProductSearchCriteria criteria) {
+        if (!productIndex.isLoaded()) {
+            throw new IllegalStateException("Search planning requires a loaded product index");
+        }
+
+        double total = productIndex.size();
+        double selectivity = 1.0;
+        double smallestPosting = Double.MAX_VALUE;
+
+        if (criteria.getCategory() != null) {
+            int count = productIndex.countByCategory(criteria.getCategory());
+            selectivity *= fraction(count, total);
+            smallestPosting = Math.min(smallestPosting, count);
+        }
+        if (criteria.getBrand() != null) {
+            int count = productIndex.countByBrand(criteria.getBrand());
+            selectivity *= fraction(count, total);
+            smallestPosting = Math.min(smallestPosting, count);
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            selectivity *= fraction(productIndex.estimatePriceRange(criteria.getMinPrice(), criteria.getMaxPrice()), total);
+        }
+        if (criteria.getNameSubstring() != null) {
+            selectivity *= NAME_SELECTIVITY;
+        }
+
+        double estimatedRows = total * selectivity;
+        double rowCost = MEMORY_ROW_COST + (criteria.getNameSubstring() != null ? NAME_MATCH_COST : 0);
+
+        double databaseCost = DB_ROUND_TRIP_COST + total * DB_SCAN_ROW_COST + estimatedRows * DB_RESULT_ROW_COST;
+        double scanWorkers = total >= ProductIndex.PARALLEL_THRESHOLD ? parallelism : 1;
+        double scanCost = total * rowCost / scanWorkers;
+
+        SearchPlan plan = databaseCost < scanCost
+                ? new SearchPlan(SearchPlan.Route.DATABASE, databaseCost, Math.round(estimatedRows))
+                : new SearchPlan(SearchPlan.Route.FULL_SCAN, scanCost, Math.round(estimatedRows));
+
+        if (smallestPosting != Double.MAX_VALUE) {
+            double intersectionCost = smallestPosting * (LOOKUP_COST + rowCost);
+            if (intersectionCost < plan.getEstimatedCost()) {
+                plan = new SearchPlan(SearchPlan.Route.INDEX_INTERSECTION, intersectionCost, Math.round(estimatedRows));
+            }
+        }
+        return log(criteria, plan);
+    }
+
+    private static double fraction(double count, double total) {
+        return total == 0 ? 0 : count / total;
+    }
+
+    private SearchPlan log(ProductSearchCriteria criteria, SearchPlan plan) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("search plan %s for n=%s|c=%s|b=%s|min=%s|max=%s",
+                    plan, criteria.getNameSubstring(), criteria.getCategory(), criteria.getBrand(),
+                    criteria.getMinPrice(), criteria.getMaxPrice()));
+        }
+        return plan;
+    }
+}
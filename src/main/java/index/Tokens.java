@@ -0,0 +1,46 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Нормализация и разбиение текста на слова для индексов в памяти.
+ */
+final class Tokens {
+
+    private Tokens() {
+    }
+
+    /**
+     * Приводит строку к нижнему регистру и убирает крайние пробелы.
+     *
+     * @param text исходная строка
+     * @return нормализованная строка
+     */
+    static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Разбивает строку на слова из букв и цифр в нижнем регистре.
+     *
+     * @param text исходная строка
+     * @return список слов (может быть пустым)
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,51 @@
+package model;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Позиция в журнале аудита для постраничного чтения по ключу (timestamp, id).
+ * Следующая страница начинается строго после записи с этими значениями в порядке убывания,
+ * поэтому ее чтение не зависит от номера страницы.
+ */
+public class AuditCursor {
+    /** Временная метка последней прочитанной записи (с точностью БД) */
+    private final Timestamp timestamp;
+
+    /** ID последней прочитанной записи */
+    private final long id;
+
+    /**
+     * Создает позицию.
+     *
+     * @param timestamp временная метка последней прочитанной записи
+     * @param id ID последней прочитанной записи
+     * @throws NullPointerException если timestamp равен null
+     */
+    public AuditCursor(Timestamp timestamp, long id) {
+        if (timestamp == null) {
+            throw new NullPointerException("Cursor timestamp cannot be null");
+        }
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * Создает позицию после указанной записи.
+     *
+     * @param entry последняя прочитанная запись
+     * @return позиция после записи
+     */
+    public static AuditCursor after(AuditEntry entry) {
+        Date timestamp = entry.getTimestamp();
+        return new AuditCursor(timestamp instanceof Timestamp ts ? ts : new Timestamp(timestamp.getTime()), entry.getId());
+    }
+
+    public Timestamp getTimestamp() { return timestamp; }
+    public long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return timestamp + "#" + id;
+    }
+}
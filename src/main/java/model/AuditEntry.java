@@ -55,6 +55,23 @@ public class AuditEntry implements Serializable {
         this.details = details;
     }
 
+    /**
+     * Создает запись аудита с известными ID и временной меткой (например, прочитанную из БД).
+     *
+     * @param id идентификатор записи
+     * @param timestamp временная метка выполнения действия
+     * @param username имя пользователя, выполнившего действие
+     * @param action тип выполненного действия
+     * @param details дополнительные детали действия
+     */
+    public AuditEntry(Long id, Date timestamp, String username, String action, String details) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.username = username;
+        this.action = action;
+        this.details = details;
+    }
+
     public AuditEntry() {
 
     }
@@ -0,0 +1,35 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Страница журнала аудита и позиция для запроса следующей страницы.
+ */
+public class AuditPage {
+    /** Записи страницы от новых к старым */
+    private final List<AuditEntry> entries;
+
+    /** Позиция следующей страницы (null - страница последняя) */
+    private final AuditCursor nextCursor;
+
+    /**
+     * Создает страницу журнала аудита.
+     *
+     * @param entries записи страницы
+     * @param nextCursor позиция следующей страницы (null если страница последняя)
+     */
+    public AuditPage(List<AuditEntry> entries, AuditCursor nextCursor) {
+        this.entries = List.copyOf(entries);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Проверяет, есть ли записи после этой страницы.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public List<AuditEntry> getEntries() { return entries; }
+    public AuditCursor getNextCursor() { return nextCursor; }
+}
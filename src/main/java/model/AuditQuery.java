@@ -0,0 +1,76 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * Запрос к журналу аудита: необязательные фильтры по пользователю, действию и периоду
+ * и позиция начала страницы. Записи возвращаются от новых к старым.
+ */
+public class AuditQuery {
+    /** Наибольший размер страницы */
+    public static final int MAX_LIMIT = 1000;
+
+    /** Имя пользователя (null - любой) */
+    private final String username;
+
+    /** Тип действия (null - любой) */
+    private final String action;
+
+    /** Начало периода включительно (null - без ограничения) */
+    private final Date from;
+
+    /** Конец периода не включительно (null - без ограничения) */
+    private final Date to;
+
+    /** Позиция, после которой начинается страница (null - первая страница) */
+    private final AuditCursor after;
+
+    /** Размер страницы */
+    private final int limit;
+
+    /**
+     * Создает запрос первой страницы.
+     *
+     * @param username имя пользователя (может быть null)
+     * @param action тип действия (может быть null)
+     * @param from начало периода включительно (может быть null)
+     * @param to конец периода не включительно (может быть null)
+     * @param limit размер страницы
+     * @throws IllegalArgumentException если limit вне диапазона 1..MAX_LIMIT или from не раньше to
+     */
+    public AuditQuery(String username, String action, Date from, Date to, int limit) {
+        this(username, action, from, to, null, limit);
+    }
+
+    private AuditQuery(String username, String action, Date from, Date to, AuditCursor after, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (from != null && to != null && !from.before(to)) {
+            throw new IllegalArgumentException("Period start must be before period end");
+        }
+        this.username = username == null || username.isEmpty() ? null : username;
+        this.action = action == null || action.isEmpty() ? null : action;
+        this.from = from;
+        this.to = to;
+        this.after = after;
+        this.limit = limit;
+    }
+
+    /**
+     * Возвращает запрос страницы, начинающейся после указанной позиции, с теми же фильтрами.
+     *
+     * @param cursor позиция из предыдущей страницы
+     * @return запрос следующей страницы
+     */
+    public AuditQuery after(AuditCursor cursor) {
+        return new AuditQuery(username, action, from, to, cursor, limit);
+    }
+
+    public String getUsername() { return username; }
+    public String getAction() { return action; }
+    public Date getFrom() { return from; }
+    public Date getTo() { return to; }
+    public AuditCursor getAfter() { return after; }
+    public int getLimit() { return limit; }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import util.Prices;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Товар из фида поставщика, идентифицируемый внешним артикулом (SKU).
+ * Хэш содержимого позволяет при синхронизации отличить измененные товары от неизмененных
+ * без сравнения отдельных полей.
+ */
+public class CatalogItem {
+    /** Внешний артикул товара */
+    private final String externalSku;
+
+    /** Название товара */
+    private final String name;
+
+    /** Категория товара */
+    private final String category;
+
+    /** Бренд товара */
+    private final String brand;
+
+    /** Цена товара в копейках */
+    private final long price;
+
+    /** Описание товара */
+    private final String description;
+
+    /**
+     * Создает товар фида.
+     *
+     * @param externalSku внешний артикул товара
+     * @param name название товара
+     * @param category категория товара
+     * @param brand бренд товара
+     * @param price цена товара в копейках
+     * @param description описание товара
+     * @throws IllegalArgumentException если price отрицательный
+     * @throws NullPointerException если любой из строковых параметров равен null
+     */
+    public CatalogItem(String externalSku, String name, String category, String brand, long price, String description) {
+        if (externalSku == null || name == null || category == null || brand == null || description == null) {
+            throw new NullPointerException("Catalog item fields cannot be null");
+        }
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        this.externalSku = externalSku;
+        this.name = name;
+        this.category = category;
+        this.brand = brand;
+        this.price = price;
+        this.description = description;
+    }
+
+    /**
+     * Вычисляет хэш содержимого товара (SHA-256 в шестнадцатеричном виде).
+     * Цена записывается с двумя знаками после точки, как она хранится в БД.
+     *
+     * @return хэш из 64 шестнадцатеричных символов
+     */
+    public String contentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        String content = String.join("\u0000", name, category, brand,
+                Prices.format(price), description);
+        byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public String getExternalSku() { return externalSku; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public String getBrand() { return brand; }
+    public long getPrice() { return price; }
+    public String getDescription() { return description; }
+}
@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * Результат импорта каталога товаров.
+ * Содержит количество загруженных строк, созданных и обновленных товаров и время загрузки.
+ */
+public class ImportReport {
+    /** Количество строк, загруженных из файла во временную таблицу */
+    private final long stagedRows;
+
+    /** Количество созданных товаров */
+    private final long insertedRows;
+
+    /** Количество обновленных товаров */
+    private final long updatedRows;
+
+    /** Время загрузки и слияния в миллисекундах */
+    private final long elapsedMillis;
+
+    /**
+     * Создает результат импорта.
+     *
+     * @param stagedRows количество загруженных строк
+     * @param insertedRows количество созданных товаров
+     * @param updatedRows количество обновленных товаров
+     * @param elapsedMillis время загрузки и слияния в миллисекундах
+     */
+    public ImportReport(long stagedRows, long insertedRows, long updatedRows, long elapsedMillis) {
+        this.stagedRows = stagedRows;
+        this.insertedRows = insertedRows;
+        this.updatedRows = updatedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getStagedRows() { return stagedRows; }
+    public long getInsertedRows() { return insertedRows; }
+    public long getUpdatedRows() { return updatedRows; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * Возвращает скорость загрузки.
+     *
+     * @return количество загруженных строк в секунду
+     */
+    public double getRowsPerSecond() {
+        return stagedRows * 1000.0 / Math.max(1, elapsedMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rows=%d, inserted=%d, updated=%d, time=%d ms, %.0f rows/s",
+                stagedRows, insertedRows, updatedRows, elapsedMillis, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * Данные нового товара для пакетного создания.
+ * В отличие от {@link Product} не имеет ID и временных меток - они назначаются базой данных.
+ */
+public class NewProduct {
+    /** Название товара */
+    private final String name;
+
+    /** Категория товара */
+    private final String category;
+
+    /** Бренд товара */
+    private final String brand;
+
+    /** Цена товара в копейках */
+    private final long price;
+
+    /** Описание товара */
+    private final String description;
+
+    /**
+     * Создает данные нового товара.
+     *
+     * @param name название товара
+     * @param category категория товара
+     * @param brand бренд товара
+     * @param price цена товара в копейках
+     * @param description описание товара
+     * @throws IllegalArgumentException если price отрицательный
+     * @throws NullPointerException если name, category, brand или description равны null
+     */
+    public NewProduct(String name, String category, String brand, long price, String description) {
+        if (name == null || category == null || brand == null || description == null) {
+            throw new NullPointerException("Product fields cannot be null");
+        }
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        this.name = name;
+        this.category = category;
+        this.brand = brand;
+        this.price = price;
+        this.description = description;
+    }
+
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public String getBrand() { return brand; }
+    public long getPrice() { return price; }
+    public String getDescription() { return description; }
+}
@@ -1,5 +1,7 @@
 package model;
 
+import util.Prices;
+
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Date;
@@ -25,8 +27,8 @@ public class Product implements Serializable {
     /** Бренд товара */
     private String brand;
 
-    /** Цена товара */
-    private double price;
+    /** Цена товара в копейках */
+    private long price;
 
     /** Описание товара */
     private String description;
@@ -48,12 +50,31 @@ public class Product implements Serializable {
      * @param name название товара
      * @param category категория товара
      * @param brand бренд товара
-     * @param price цена товара
+     * @param price цена товара в копейках
+     * @param description описание товара
+     * @throws IllegalArgumentException если price отрицательный
+     * @throws NullPointerException если name, category, brand или description равны null
+     */
+    public Product(long id, String name, String category, String brand, long price, String description) {
+        this(id, name, category, brand, price, description, null, null);
+    }
+
+    /**
+     * Создает товар с известными временными метками (например, прочитанный из БД).
+     *
+     * @param id уникальный идентификатор товара
+     * @param name название товара
+     * @param category категория товара
+     * @param brand бренд товара
+     * @param price цена товара в копейках
      * @param description описание товара
+     * @param createdAt дата создания (null - текущее время)
+     * @param updatedAt дата последнего обновления (null - текущее время)
      * @throws IllegalArgumentException если price отрицательный
      * @throws NullPointerException если name, category, brand или description равны null
      */
-    public Product(long id, String name, String category, String brand, double price, String description) {
+    public Product(long id, String name, String category, String brand, long price, String description,
+                   Date createdAt, Date updatedAt) {
         if (name == null || category == null || brand == null || description == null) {
             throw new NullPointerException("Product fields cannot be null");
         }
@@ -67,15 +88,15 @@ public class Product implements Serializable {
         this.brand = brand;
         this.price = price;
         this.description = description;
-        this.createdAt = new Date();
-        this.updatedAt = new Date();
+        this.createdAt = createdAt != null ? createdAt : new Date();
+        this.updatedAt = updatedAt != null ? updatedAt : new Date();
     }
 
     public long getId() { return id; }
     public String getName() { return name; }
     public String getCategory() { return category; }
     public String getBrand() { return brand; }
-    public double getPrice() { return price; }
+    public long getPrice() { return price; }
     public String getDescription() { return description; }
     public Date getCreatedAt() { return createdAt; }
     public Date getUpdatedAt() { return updatedAt; }
@@ -84,7 +105,7 @@ public class Product implements Serializable {
     public void setName(String name) { this.name = name; touch(); }
     public void setCategory(String category) { this.category = category; touch(); }
     public void setBrand(String brand) { this.brand = brand; touch(); }
-    public void setPrice(double price) { this.price = price; touch(); }
+    public void setPrice(long price) { this.price = price; touch(); }
     public void setDescription(String description) { this.description = description; touch(); }
     public void setUser(User user) { this.user = user; touch(); }
 
@@ -99,7 +120,7 @@ public class Product implements Serializable {
 
     @Override
     public String toString() {
-        return String.format("ID:%d | %s | %s | %s | %.2f\n  %s", id, name, category, brand, price, description);
+        return String.format("ID:%d | %s | %s | %s | %s\n  %s", id, name, category, brand, Prices.format(price), description);
     }
 }
 
@@ -0,0 +1,106 @@
+package model;
+
+import util.Prices;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Фасетные счетчики результатов поиска товаров.
+ * Содержит количество найденных товаров в разрезе категорий, брендов и ценовых диапазонов.
+ * Экземпляры неизменяемы и могут безопасно храниться в кэше.
+ */
+public class ProductFacets {
+    /**
+     * Границы ценовых диапазонов в копейках (по возрастанию).
+     * Диапазон i включает цены от PRICE_BUCKET_BOUNDS[i - 1] (включительно)
+     * до PRICE_BUCKET_BOUNDS[i] (не включительно); крайние диапазоны открыты.
+     */
+    private static final long[] PRICE_BUCKET_BOUNDS = {100_00, 500_00, 1000_00};
+
+    /** Количество товаров по категориям */
+    private final Map<String, Long> categoryCounts;
+
+    /** Количество товаров по брендам */
+    private final Map<String, Long> brandCounts;
+
+    /** Количество товаров по ценовым диапазонам */
+    private final long[] priceBucketCounts;
+
+    /**
+     * Создает набор фасетных счетчиков.
+     *
+     * @param categoryCounts количество товаров по категориям
+     * @param brandCounts количество товаров по брендам
+     * @param priceBucketCounts количество товаров по ценовым диапазонам
+     * @throws IllegalArgumentException если размер priceBucketCounts не соответствует числу диапазонов
+     */
+    public ProductFacets(Map<String, Long> categoryCounts, Map<String, Long> brandCounts, long[] priceBucketCounts) {
+        if (priceBucketCounts.length != bucketCount()) {
+            throw new IllegalArgumentException("Expected " + bucketCount() + " price buckets");
+        }
+        this.categoryCounts = Collections.unmodifiableMap(new TreeMap<>(categoryCounts));
+        this.brandCounts = Collections.unmodifiableMap(new TreeMap<>(brandCounts));
+        this.priceBucketCounts = priceBucketCounts.clone();
+    }
+
+    /**
+     * Возвращает копию границ ценовых диапазонов в копейках (по возрастанию).
+     *
+     * @return границы диапазонов
+     */
+    public static long[] priceBucketBounds() {
+        return PRICE_BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * Возвращает количество ценовых диапазонов.
+     *
+     * @return количество диапазонов
+     */
+    public static int bucketCount() {
+        return PRICE_BUCKET_BOUNDS.length + 1;
+    }
+
+    /**
+     * Возвращает индекс ценового диапазона для указанной цены.
+     *
+     * @param price цена товара в копейках
+     * @return индекс диапазона от 0 до bucketCount() - 1
+     */
+    public static int bucketOf(long price) {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKET_BOUNDS.length && price >= PRICE_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Возвращает текстовое описание ценового диапазона, например "100-500".
+     *
+     * @param bucket индекс диапазона
+     * @return описание диапазона
+     */
+    public static String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "<" + PRICE_BUCKET_BOUNDS[0] / Prices.SCALE;
+        }
+        if (bucket == PRICE_BUCKET_BOUNDS.length) {
+            return ">=" + PRICE_BUCKET_BOUNDS[bucket - 1] / Prices.SCALE;
+        }
+        return PRICE_BUCKET_BOUNDS[bucket - 1] / Prices.SCALE + "-" + PRICE_BUCKET_BOUNDS[bucket] / Prices.SCALE;
+    }
+
+    public Map<String, Long> getCategoryCounts() { return categoryCounts; }
+    public Map<String, Long> getBrandCounts() { return brandCounts; }
+    public long[] getPriceBucketCounts() { return priceBucketCounts.clone(); }
+
+    @Override
+    public String toString() {
+        return "categories=" + categoryCounts + ", brands=" + brandCounts
+                + ", prices=" + Arrays.toString(priceBucketCounts);
+    }
+}
@@ -0,0 +1,89 @@
+package model;
+
+/**
+ * Частичное изменение товара: ID и новые значения полей.
+ * Поля со значением null не изменяются.
+ */
+public class ProductPatch {
+    /** ID изменяемого товара */
+    private final long id;
+
+    /** Новое название (null - не изменяется) */
+    private final String name;
+
+    /** Новая категория (null - не изменяется) */
+    private final String category;
+
+    /** Новый бренд (null - не изменяется) */
+    private final String brand;
+
+    /** Новая цена в копейках (null - не изменяется) */
+    private final Long price;
+
+    /** Новое описание (null - не изменяется) */
+    private final String description;
+
+    /**
+     * Создает частичное изменение товара.
+     *
+     * @param id ID товара
+     * @param name новое название (может быть null)
+     * @param category новая категория (может быть null)
+     * @param brand новый бренд (может быть null)
+     * @param price новая цена в копейках (может быть null)
+     * @param description новое описание (может быть null)
+     */
+    public ProductPatch(long id, String name, String category, String brand, Long price, String description) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.brand = brand;
+        this.price = price;
+        this.description = description;
+    }
+
+    /**
+     * Создает изменение только цены товара.
+     *
+     * @param id ID товара
+     * @param price новая цена в копейках
+     * @return изменение цены
+     */
+    public static ProductPatch price(long id, long price) {
+        return new ProductPatch(id, null, null, null, price, null);
+    }
+
+    /**
+     * Проверяет, что изменение не затрагивает ни одного поля.
+     */
+    public boolean isEmpty() {
+        return name == null && category == null && brand == null && price == null && description == null;
+    }
+
+    /**
+     * Сливает это изменение с последующим изменением того же товара: поля последующего изменения
+     * заменяют поля этого, незатронутые им поля сохраняются.
+     *
+     * @param later изменение, применяемое после этого
+     * @return объединенное изменение
+     * @throws IllegalArgumentException если изменения относятся к разным товарам
+     */
+    public ProductPatch then(ProductPatch later) {
+        if (later.id != id) {
+            throw new IllegalArgumentException("Cannot merge patches of products " + id + " and " + later.id);
+        }
+        return new ProductPatch(id,
+                later.name != null ? later.name : name,
+                later.category != null ? later.category : category,
+                later.brand != null ? later.brand : brand,
+                later.price != null ? later.price : price,
+                later.description != null ? later.description : description);
+    }
+
+    public long getId() { return id; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public String getBrand() { return brand; }
+    public Long getPrice() { return price; }
+    public String getDescription() { return description; }
+}
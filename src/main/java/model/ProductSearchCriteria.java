@@ -0,0 +1,99 @@
+package model;
+
+import java.util.Locale;
+
+/**
+ * Критерии поиска товаров.
+ * Все поля необязательны: null или пустая строка означает отсутствие фильтра.
+ * Семантика совпадает с SQL-поиском репозитория: подстрока названия и категория/бренд
+ * сравниваются без учета регистра, границы цены включительны.
+ */
+public class ProductSearchCriteria {
+    /** Подстрока для поиска в названии */
+    private final String nameSubstring;
+
+    /** Категория для фильтрации */
+    private final String category;
+
+    /** Бренд для фильтрации */
+    private final String brand;
+
+    /** Минимальная цена в копейках */
+    private final Long minPrice;
+
+    /** Максимальная цена в копейках */
+    private final Long maxPrice;
+
+    /** Границы цены без упаковки для проверок в цикле: отсутствующая граница заменяется крайним значением */
+    private final long lowerPrice;
+    private final long upperPrice;
+
+    /** Подстрока названия в нижнем регистре, вычисляется один раз для всех проверок */
+    private final String normalizedName;
+
+    /**
+     * Создает критерии поиска.
+     *
+     * @param nameSubstring подстрока для поиска в названии (может быть null)
+     * @param category категория для фильтрации (может быть null)
+     * @param brand бренд для фильтрации (может быть null)
+     * @param minPrice минимальная цена в копейках (может быть null)
+     * @param maxPrice максимальная цена в копейках (может быть null)
+     */
+    public ProductSearchCriteria(String nameSubstring, String category, String brand, Long minPrice, Long maxPrice) {
+        this.nameSubstring = emptyToNull(nameSubstring);
+        this.category = emptyToNull(category);
+        this.brand = emptyToNull(brand);
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.lowerPrice = minPrice == null ? Long.MIN_VALUE : minPrice;
+        this.upperPrice = maxPrice == null ? Long.MAX_VALUE : maxPrice;
+        this.normalizedName = this.nameSubstring == null ? null : this.nameSubstring.toLowerCase(Locale.ROOT);
+    }
+
+    public String getNameSubstring() { return nameSubstring; }
+    public String getCategory() { return category; }
+    public String getBrand() { return brand; }
+    public Long getMinPrice() { return minPrice; }
+    public Long getMaxPrice() { return maxPrice; }
+
+    /**
+     * Проверяет, попадает ли цена в заданный диапазон.
+     *
+     * @param price цена товара в копейках
+     * @return true если цена удовлетворяет ограничениям minPrice/maxPrice
+     */
+    public boolean matchesPrice(long price) {
+        return price >= lowerPrice && price <= upperPrice;
+    }
+
+    /**
+     * Проверяет текстовые фильтры (название, категория, бренд).
+     *
+     * @param product товар для проверки
+     * @return true если товар удовлетворяет текстовым фильтрам
+     */
+    public boolean matchesAttributes(Product product) {
+        if (category != null && !category.equalsIgnoreCase(product.getCategory())) {
+            return false;
+        }
+        if (brand != null && !brand.equalsIgnoreCase(product.getBrand())) {
+            return false;
+        }
+        return normalizedName == null || product.getName().toLowerCase(Locale.ROOT).contains(normalizedName);
+    }
+
+    /**
+     * Проверяет товар на соответствие всем критериям.
+     *
+     * @param product товар для проверки
+     * @return true если товар удовлетворяет критериям
+     */
+    public boolean matches(Product product) {
+        return matchesPrice(product.getPrice()) && matchesAttributes(product);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,35 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Результат поиска товаров вместе со сводной информацией для страницы результатов:
+ * общим количеством товаров в каталоге и фасетными счетчиками найденных товаров.
+ */
+public class ProductSearchResult {
+    /** Найденные товары */
+    private final List<Product> products;
+
+    /** Общее количество товаров в каталоге */
+    private final int totalCount;
+
+    /** Фасетные счетчики найденных товаров */
+    private final ProductFacets facets;
+
+    /**
+     * Создает результат поиска.
+     *
+     * @param products найденные товары
+     * @param totalCount общее количество товаров в каталоге
+     * @param facets фасетные счетчики найденных товаров
+     */
+    public ProductSearchResult(List<Product> products, int totalCount, ProductFacets facets) {
+        this.products = List.copyOf(products);
+        this.totalCount = totalCount;
+        this.facets = facets;
+    }
+
+    public List<Product> getProducts() { return products; }
+    public int getTotalCount() { return totalCount; }
+    public ProductFacets getFacets() { return facets; }
+}
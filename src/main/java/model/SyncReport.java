@@ -0,0 +1,49 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Результат синхронизации каталога с фидом поставщика.
+ * Содержит созданные и измененные товары и количество товаров, оставшихся без изменений.
+ */
+public class SyncReport {
+    /** Созданные товары */
+    private final List<Product> inserted;
+
+    /** Измененные товары */
+    private final List<Product> updated;
+
+    /** Количество товаров без изменений */
+    private final int unchangedCount;
+
+    /**
+     * Создает результат синхронизации.
+     *
+     * @param inserted созданные товары
+     * @param updated измененные товары
+     * @param unchangedCount количество товаров без изменений
+     */
+    public SyncReport(List<Product> inserted, List<Product> updated, int unchangedCount) {
+        this.inserted = List.copyOf(inserted);
+        this.updated = List.copyOf(updated);
+        this.unchangedCount = unchangedCount;
+    }
+
+    public List<Product> getInserted() { return inserted; }
+    public List<Product> getUpdated() { return updated; }
+    public int getInsertedCount() { return inserted.size(); }
+    public int getUpdatedCount() { return updated.size(); }
+    public int getUnchangedCount() { return unchangedCount; }
+
+    /**
+     * Проверяет, изменила ли синхронизация какие-либо товары.
+     */
+    public boolean hasChanges() {
+        return !inserted.isEmpty() || !updated.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("inserted=%d, updated=%d, unchanged=%d", getInsertedCount(), getUpdatedCount(), unchangedCount);
+    }
+}
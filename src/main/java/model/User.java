@@ -49,6 +49,24 @@ public class User implements Serializable {
         this.createdAt = new Date();
     }
 
+    /**
+     * Создает пользователя с известными ID и ролью (например, прочитанного из БД).
+     *
+     * @param id идентификатор пользователя
+     * @param username имя пользователя
+     * @param passwordHash хеш пароля пользователя
+     * @param userRole роль пользователя
+     * @throws NullPointerException если username, passwordHash или userRole равны null
+     */
+    public User(Long id, String username, String passwordHash, UserRole userRole) {
+        this(username, passwordHash);
+        if (userRole == null) {
+            throw new NullPointerException("User role cannot be null");
+        }
+        this.id = id;
+        this.userRole = userRole;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -0,0 +1,10 @@
+package model.enums;
+
+/**
+ * Поведение очереди записей аудита при переполнении:
+ * BLOCK - вызывающий поток ждет освобождения места, DROP - запись отбрасывается и учитывается в счетчике
+ */
+public enum AuditOverflowPolicy {
+    BLOCK,
+    DROP,
+}
@@ -0,0 +1,10 @@
+package model.enums;
+
+/**
+ * Форматы выгрузки каталога командой COPY:
+ * CSV с заголовком или двоичный формат PostgreSQL
+ */
+public enum ExportFormat {
+    CSV,
+    BINARY,
+}
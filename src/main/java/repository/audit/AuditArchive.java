@@ -0,0 +1,410 @@
+package repository.audit;
+
+import exception.AuditRepositoryException;
+import model.AuditEntry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Архив записей аудита в локальных файлах, разделенных по дням.
+ * Каждый день - каталог ГГГГ-ММ-ДД с одним или несколькими файлами part-NNNN.arc.gz (новый файл на каждый перенос).
+ * Файл сжат gzip и состоит из блоков до {@link #BLOCK_ROWS} строк, внутри блока данные хранятся по столбцам:
+ * id и время - разностями с предыдущим значением, имя пользователя и действие - словарем блока и номерами,
+ * детали - длинами и затем подряд байтами UTF-8. Поэтому фильтр по пользователю или действию проверяется
+ * по словарю, а детали неподходящих строк пропускаются без создания строк.
+ * Файл появляется под окончательным именем только после сброса на диск, незавершенные файлы (.tmp) не читаются.
+ */
+public class AuditArchive {
+    public static final int BLOCK_ROWS = 4096;
+
+    private static final int MAGIC = 0x41554441;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_PREFIX = "part-";
+    private static final String PART_SUFFIX = ".arc.gz";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    /**
+     * @param directory каталог архива (создается при необходимости)
+     * @throws AuditRepositoryException если каталог не удалось создать
+     */
+    public AuditArchive(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to create audit archive directory " + directory, e);
+        }
+    }
+
+    /**
+     * Открывает запись нового файла архива за день.
+     *
+     * @param day день записей
+     * @return открытый файл архива; записи видны читателям только после {@link Writer#commit()}
+     * @throws AuditRepositoryException если файл не удалось создать
+     */
+    public Writer openWriter(LocalDate day) {
+        try {
+            Path dayDirectory = Files.createDirectories(directory.resolve(day.toString()));
+            Path target = dayDirectory.resolve(String.format("%s%04d%s", PART_PREFIX, listParts(dayDirectory).size(), PART_SUFFIX));
+            return new Writer(target);
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to create audit archive file for " + day, e);
+        }
+    }
+
+    /**
+     * Возвращает дни, за которые в архиве есть записи.
+     *
+     * @return дни по возрастанию
+     */
+    public List<LocalDate> getDays() {
+        List<LocalDate> days = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isDirectory).forEach(path -> {
+                try {
+                    days.add(LocalDate.parse(path.getFileName().toString()));
+                } catch (DateTimeParseException ignored) {
+                    // посторонний каталог
+                }
+            });
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to list audit archive " + directory, e);
+        }
+        days.sort(null);
+        return days;
+    }
+
+    /**
+     * Читает записи архива за дни диапазона, передавая подходящие получателю по одной.
+     * В памяти одновременно находится не больше одного блока файла.
+     *
+     * @param from первый день (включительно)
+     * @param to последний день (включительно)
+     * @param username имя пользователя (null - без фильтра)
+     * @param action действие (null - без фильтра)
+     * @param consumer получатель записей
+     * @return количество переданных записей
+     * @throws AuditRepositoryException если файл архива не удалось прочитать или он поврежден
+     */
+    public long read(LocalDate from, LocalDate to, String username, String action, Consumer<AuditEntry> consumer) {
+        long count = 0;
+        for (LocalDate day : getDays()) {
+            if (day.isBefore(from) || day.isAfter(to)) {
+                continue;
+            }
+            Path dayDirectory = directory.resolve(day.toString());
+            try {
+                for (Path part : listParts(dayDirectory)) {
+                    count += readPart(part, username, action, consumer);
+                }
+            } catch (IOException e) {
+                throw new AuditRepositoryException("Failed to read audit archive for " + day, e);
+            }
+        }
+        return count;
+    }
+
+    private static long readPart(Path part, String username, String action, Consumer<AuditEntry> consumer) throws IOException {
+        long count = 0;
+        try (InputStream file = Files.newInputStream(part);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file, BUFFER_SIZE), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Unsupported audit archive file " + part);
+            }
+
+            int rows;
+            while ((rows = readVarInt(in)) > 0) {
+                long[] ids = readDeltas(in, rows);
+                long[] timestamps = readDeltas(in, rows);
+                String[] usernameDictionary = readDictionary(in);
+                int[] usernames = readIndexes(in, rows);
+                String[] actionDictionary = readDictionary(in);
+                int[] actions = readIndexes(in, rows);
+
+                int usernameCode = find(usernameDictionary, username);
+                int actionCode = find(actionDictionary, action);
+                int[] lengths = readIndexes(in, rows);
+                for (int row = 0; row < rows; row++) {
+                    boolean matches = (username == null || usernames[row] == usernameCode)
+                            && (action == null || actions[row] == actionCode);
+                    if (!matches) {
+                        in.skipNBytes(lengths[row]);
+                        continue;
+                    }
+                    String details = readString(in, lengths[row]);
+                    consumer.accept(new AuditEntry(ids[row], new Date(timestamps[row]),
+                            usernameDictionary[usernames[row]], actionDictionary[actions[row]], details));
+                    count++;
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated audit archive file " + part, e);
+        }
+        return count;
+    }
+
+    private static List<Path> listParts(Path dayDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(dayDirectory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PART_PREFIX) && name.endsWith(PART_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    /**
+     * Файл архива, заполняемый записями одного переноса.
+     * Записи буферизуются блоками; {@link #commit()} дописывает последний блок, сбрасывает файл
+     * на диск и переименовывает его в окончательное имя. Закрытие без commit удаляет файл.
+     */
+    public static final class Writer implements Consumer<AuditEntry>, AutoCloseable {
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final GZIPOutputStream gzip;
+        private final DataOutputStream out;
+        private final List<AuditEntry> block = new ArrayList<>(BLOCK_ROWS);
+
+        private long count;
+        private boolean committed;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + TEMPORARY_SUFFIX);
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            this.out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+
+        /**
+         * Добавляет запись в файл.
+         *
+         * @throws AuditRepositoryException если блок не удалось записать
+         */
+        @Override
+        public void accept(AuditEntry entry) {
+            block.add(entry);
+            count++;
+            if (block.size() == BLOCK_ROWS) {
+                writeBlock();
+            }
+        }
+
+        /**
+         * Завершает файл и делает его видимым читателям. Пустой файл не сохраняется.
+         *
+         * @throws AuditRepositoryException если файл не удалось записать
+         */
+        public void commit() {
+            if (count == 0) {
+                return;
+            }
+            writeBlock();
+            try {
+                writeVarInt(out, 0);
+                out.flush();
+                gzip.finish();
+                channel.force(true);
+                out.close();
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+            } catch (IOException e) {
+                throw new AuditRepositoryException("Failed to write audit archive file " + target, e);
+            }
+        }
+
+        /**
+         * Возвращает количество добавленных записей.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                try {
+                    out.close();
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            } catch (IOException e) {
+                throw new AuditRepositoryException("Failed to close audit archive file " + target, e);
+            }
+        }
+
+        private void writeBlock() {
+            if (block.isEmpty()) {
+                return;
+            }
+            int rows = block.size();
+            long[] ids = new long[rows];
+            long[] timestamps = new long[rows];
+            for (int row = 0; row < rows; row++) {
+                AuditEntry entry = block.get(row);
+                ids[row] = entry.getId() == null ? 0 : entry.getId();
+                timestamps[row] = entry.getTimestamp().getTime();
+            }
+            try {
+                writeVarInt(out, rows);
+                writeDeltas(out, ids);
+                writeDeltas(out, timestamps);
+                writeDictionaryColumn(out, block.stream().map(AuditEntry::getUsername).toList());
+                writeDictionaryColumn(out, block.stream().map(AuditEntry::getAction).toList());
+
+                byte[][] details = new byte[rows][];
+                for (int row = 0; row < rows; row++) {
+                    details[row] = block.get(row).getDetails().getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(out, details[row].length);
+                }
+                for (byte[] value : details) {
+                    out.write(value);
+                }
+            } catch (IOException e) {
+                throw new AuditRepositoryException("Failed to write audit archive file " + target, e);
+            }
+            block.clear();
+        }
+    }
+
+    private static void writeDeltas(DataOutputStream out, long[] values) throws IOException {
+        long previous = 0;
+        for (long value : values) {
+            long delta = value - previous;
+            // zigzag: небольшие отрицательные разности тоже занимают мало байт
+            writeVarLong(out, (delta << 1) ^ (delta >> 63));
+            previous = value;
+        }
+    }
+
+    private static long[] readDeltas(DataInputStream in, int rows) throws IOException {
+        long[] values = new long[rows];
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            long zigzag = readVarLong(in);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            values[row] = previous;
+        }
+        return values;
+    }
+
+    private static void writeDictionaryColumn(DataOutputStream out, List<String> values) throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] indexes = new int[values.size()];
+        for (int row = 0; row < indexes.length; row++) {
+            indexes[row] = codes.computeIfAbsent(values.get(row), value -> {
+                dictionary.add(value);
+                return dictionary.size() - 1;
+            });
+        }
+        writeVarInt(out, dictionary.size());
+        for (String value : dictionary) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        for (int index : indexes) {
+            writeVarInt(out, index);
+        }
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] dictionary = new String[readVarInt(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(in, readVarInt(in));
+        }
+        return dictionary;
+    }
+
+    private static String readString(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readIndexes(DataInputStream in, int rows) throws IOException {
+        int[] indexes = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            indexes[row] = readVarInt(in);
+        }
+        return indexes;
+    }
+
+    /**
+     * Номер значения в словаре блока или -1, если значения в блоке нет (или фильтр не задан).
+     */
+    private static int find(String[] dictionary, String value) {
+        if (value != null) {
+            for (int i = 0; i < dictionary.length; i++) {
+                if (dictionary[i].equals(value)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length number in audit archive");
+    }
+}
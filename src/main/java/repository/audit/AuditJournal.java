@@ -0,0 +1,386 @@
+package repository.audit;
+
+import exception.AuditRepositoryException;
+import model.AuditEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Локальный журнал записей аудита: буфер записи на диске перед отправкой в БД.
+ * Журнал состоит из сегментов фиксированного размера, отображенных в память; записи только добавляются.
+ * Формат записи: длина данных (int), CRC32 данных (int), данные - время (long) и три строки UTF-8 с длиной (int).
+ * Нулевая длина обозначает конец записанной части сегмента.
+ * Добавление возвращается после сброса страниц на диск; одновременные вызовы объединяются в один сброс.
+ * Позиция последней отправленной в БД записи хранится в файле checkpoint; сегменты до нее удаляются.
+ * При открытии журнал отбрасывает хвост последнего сегмента после первой записи с неверной CRC (оборванная запись).
+ */
+public class AuditJournal implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    /** Упорядочивает добавление записей и смену сегмента */
+    private final Object appendLock = new Object();
+
+    /** Объединяет одновременные сбросы на диск: ждущие потоки используют сброс первого */
+    private final Object syncLock = new Object();
+
+    private long segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /** Конец записанной части текущего сегмента; публикуется после записи данных */
+    private volatile int writeOffset;
+
+    /** Номер последней добавленной записи */
+    private long appendedSequence;
+
+    /** Номер последней записи, сброшенной на диск */
+    private volatile long durableSequence;
+
+    /**
+     * Открывает журнал в каталоге, восстанавливая конец последнего сегмента.
+     *
+     * @param directory каталог журнала (создается при необходимости)
+     * @param segmentSize размер сегмента в байтах
+     * @throws AuditRepositoryException если журнал не удалось открыть
+     */
+    public AuditJournal(Path directory, int segmentSize) {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            TreeSet<Long> segments = listSegments();
+            openSegment(segments.isEmpty() ? 0 : segments.last());
+            recover();
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to open audit journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Добавляет записи в журнал и возвращается после их сброса на диск.
+     *
+     * @param entries записи аудита
+     * @throws AuditRepositoryException если запись не удалась или запись больше сегмента
+     */
+    public void append(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long sequence;
+        synchronized (appendLock) {
+            try {
+                for (AuditEntry entry : entries) {
+                    byte[] payload = encode(entry);
+                    int recordSize = HEADER_SIZE + payload.length;
+                    if (recordSize > segmentSize) {
+                        throw new AuditRepositoryException("Audit entry of " + recordSize + " bytes exceeds journal segment size");
+                    }
+                    int offset = writeOffset;
+                    if (offset + recordSize > segmentSize) {
+                        buffer.force();
+                        openSegment(segmentIndex + 1);
+                        offset = 0;
+                    }
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    buffer.put(offset + HEADER_SIZE, payload);
+                    buffer.putInt(offset + 4, (int) crc.getValue());
+                    buffer.putInt(offset, payload.length);
+                    writeOffset = offset + recordSize;
+                }
+            } catch (IOException e) {
+                throw new AuditRepositoryException("Failed to append to audit journal", e);
+            }
+            sequence = appendedSequence += entries.size();
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Читает записи, следующие за позицией.
+     *
+     * @param from позиция начала чтения
+     * @param maxEntries наибольшее количество записей
+     * @return прочитанные записи и позиция после них
+     */
+    public Batch read(Position from, int maxEntries) {
+        List<AuditEntry> entries = new ArrayList<>();
+        long segment = from.getSegment();
+        int offset = from.getOffset();
+
+        try {
+            while (entries.size() < maxEntries) {
+                ByteBuffer view;
+                int end;
+                boolean current;
+                synchronized (appendLock) {
+                    current = segment == segmentIndex;
+                    view = current ? buffer.duplicate() : null;
+                    end = current ? writeOffset : segmentSize;
+                }
+                if (!current) {
+                    if (segment > segmentIndex || !Files.exists(segmentPath(segment))) {
+                        break;
+                    }
+                    try (FileChannel sealed = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                        view = sealed.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+                    }
+                }
+
+                offset = readSegment(view, offset, end, maxEntries - entries.size(), entries);
+                if (current || entries.size() >= maxEntries) {
+                    break;
+                }
+                // закрытый сегмент прочитан до конца - продолжаем со следующего
+                segment++;
+                offset = 0;
+            }
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to read audit journal", e);
+        }
+        return new Batch(entries, new Position(segment, offset));
+    }
+
+    /**
+     * Возвращает позицию последней отправленной записи (начало журнала, если отправок не было).
+     */
+    public Position readCheckpoint() {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        try {
+            if (!Files.exists(file)) {
+                TreeSet<Long> segments = listSegments();
+                return new Position(segments.isEmpty() ? 0 : segments.first(), 0);
+            }
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+            return new Position(data.getLong(), data.getInt());
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to read audit journal checkpoint", e);
+        }
+    }
+
+    /**
+     * Сохраняет позицию последней отправленной записи и удаляет полностью отправленные сегменты.
+     *
+     * @param position позиция после последней отправленной записи
+     */
+    public void checkpoint(Position position) {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer data = ByteBuffer.allocate(12).putLong(position.getSegment()).putInt(position.getOffset()).flip();
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(data);
+                out.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            for (long segment : listSegments()) {
+                if (segment < position.getSegment()) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+        } catch (IOException e) {
+            throw new AuditRepositoryException("Failed to write audit journal checkpoint", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new AuditRepositoryException("Failed to close audit journal", e);
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает на диск записи до sequence включительно.
+     * Поток, вошедший первым, сбрасывает все добавленные к этому моменту записи; остальные,
+     * чьи записи вошли в этот сброс, возвращаются без обращения к диску.
+     */
+    private void sync(long sequence) {
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long target;
+            MappedByteBuffer current;
+            synchronized (appendLock) {
+                target = appendedSequence;
+                current = buffer;
+            }
+            current.force();
+            durableSequence = target;
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentIndex = index;
+        writeOffset = 0;
+    }
+
+    /**
+     * Находит конец корректно записанной части текущего сегмента и обнуляет остаток.
+     */
+    private void recover() {
+        List<AuditEntry> ignored = new ArrayList<>();
+        int end = readSegment(buffer.duplicate(), 0, segmentSize, Integer.MAX_VALUE, ignored);
+        byte[] zeros = new byte[4096];
+        for (int position = end; position < segmentSize; position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, segmentSize - position));
+        }
+        buffer.force();
+        writeOffset = end;
+    }
+
+    /**
+     * Читает записи сегмента начиная с offset до end или до первой некорректной записи.
+     *
+     * @return смещение после последней прочитанной записи
+     */
+    private static int readSegment(ByteBuffer view, int offset, int end, int maxEntries, List<AuditEntry> entries) {
+        int read = 0;
+        while (read < maxEntries && offset + HEADER_SIZE <= end) {
+            int length = view.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > end) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            view.get(offset + HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != view.getInt(offset + 4)) {
+                break;
+            }
+            entries.add(decode(payload));
+            offset += HEADER_SIZE + length;
+            read++;
+        }
+        return offset;
+    }
+
+    private static byte[] encode(AuditEntry entry) {
+        byte[] username = entry.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] action = entry.getAction().getBytes(StandardCharsets.UTF_8);
+        byte[] details = entry.getDetails().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(8 + 12 + username.length + action.length + details.length);
+        payload.putLong(entry.getTimestamp().getTime());
+        payload.putInt(username.length).put(username);
+        payload.putInt(action.length).put(action);
+        payload.putInt(details.length).put(details);
+        return payload.array();
+    }
+
+    private static AuditEntry decode(byte[] data) {
+        ByteBuffer payload = ByteBuffer.wrap(data);
+        Date timestamp = new Date(payload.getLong());
+        return new AuditEntry(null, timestamp, readString(payload), readString(payload), readString(payload));
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private TreeSet<Long> listSegments() throws IOException {
+        TreeSet<Long> segments = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segments.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        return segments;
+    }
+
+    /**
+     * Позиция в журнале: номер сегмента и смещение в нем.
+     */
+    public static final class Position {
+        private final long segment;
+        private final int offset;
+
+        public Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        public long getSegment() { return segment; }
+        public int getOffset() { return offset; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Position)) return false;
+            Position other = (Position) o;
+            return segment == other.segment && offset == other.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(segment, offset);
+        }
+
+        @Override
+        public String toString() {
+            return segment + ":" + offset;
+        }
+    }
+
+    /**
+     * Прочитанные записи и позиция, с которой продолжается чтение.
+     */
+    public static final class Batch {
+        private final List<AuditEntry> entries;
+        private final Position next;
+
+        private Batch(List<AuditEntry> entries, Position next) {
+            this.entries = entries;
+            this.next = next;
+        }
+
+        public List<AuditEntry> getEntries() { return entries; }
+        public Position getNext() { return next; }
+    }
+}
@@ -1,8 +1,14 @@
 package repository.audit;
 
 import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
+import util.RepositoryExecutor;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Репозиторий для управления записями аудита в системе.
@@ -22,6 +28,14 @@ public interface AuditRepository {
      */
     void record(String username, String action, String details);
 
+    /**
+     * Записывает пакет записей аудита одной транзакцией JDBC-пакетами.
+     * Временные метки берутся из записей, а не назначаются в момент вставки.
+     *
+     * @param entries записи аудита
+     */
+    void recordBatch(List<AuditEntry> entries);
+
     /**
      * Возвращает список всех записей аудита из системы.
      * Записи обычно возвращаются в хронологическом порядке от самых новых к самым старым.
@@ -29,4 +43,71 @@ public interface AuditRepository {
      * @return список объектов AuditEntry, представляющих записи аудита
      */
     List<AuditEntry> getEntries();
+
+    /**
+     * Возвращает последние записи аудита от самых новых к более старым.
+     * Читается не больше limit строк по индексу на временной метке.
+     *
+     * @param limit наибольшее количество записей
+     * @return список последних записей аудита
+     */
+    List<AuditEntry> getRecentEntries(int limit);
+
+    /**
+     * Возвращает страницу записей аудита, удовлетворяющих фильтрам запроса, от новых к старым.
+     * Страница читается по составному индексу после позиции запроса, поэтому время чтения
+     * не зависит от того, сколько страниц было прочитано до нее.
+     *
+     * @param query фильтры, позиция и размер страницы
+     * @return страница записей и позиция следующей страницы
+     */
+    AuditPage query(AuditQuery query);
+
+    /**
+     * Передает все записи секции месяца получателю по порядку времени, затем отсоединяет и удаляет секцию.
+     * Строки читаются порциями, без загрузки секции в память; на время чтения секция закрыта для вставок.
+     * Удаление фиксируется только после успешного beforeDrop; исключение получателя или beforeDrop
+     * оставляет секцию на месте.
+     *
+     * @param month месяц секции
+     * @param consumer получатель записей секции
+     * @param beforeDrop действие, выполняемое перед удалением секции
+     * @return количество переданных записей
+     */
+    long archivePartition(YearMonth month, Consumer<AuditEntry> consumer, Runnable beforeDrop);
+
+    /**
+     * Возвращает месяцы, для которых существуют секции таблицы аудита.
+     *
+     * @return месяцы секций по возрастанию
+     */
+    List<YearMonth> getPartitions();
+
+    /**
+     * Создает секцию таблицы аудита для месяца, если ее еще нет.
+     *
+     * @param month месяц секции
+     */
+    void createPartition(YearMonth month);
+
+    /**
+     * Удаляет секцию таблицы аудита вместе со всеми записями месяца.
+     *
+     * @param month месяц секции
+     */
+    void dropPartition(YearMonth month);
+
+    /**
+     * Асинхронный вариант {@link #record(String, String, String)}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<Void> recordAsync(String username, String action, String details) {
+        return RepositoryExecutor.runAsync(() -> record(username, action, details));
+    }
+
+    /**
+     * Асинхронный вариант {@link #getEntries()}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<List<AuditEntry>> getEntriesAsync() {
+        return RepositoryExecutor.supplyAsync(this::getEntries);
+    }
 }
@@ -1,7 +1,12 @@
 package repository.audit;
 
 import exception.AuditRepositoryException;
+import model.AuditCursor;
 import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
+import repository.mapper.AuditEntryRowMapper;
+import repository.mapper.RowMapper;
 import util.ConnectionPoolManager;
 import util.SQLConstants;
 
@@ -9,21 +14,28 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 /**
  * Реализация репозитория аудита
  */
 public class AuditRepositoryImpl implements AuditRepository {
+    /** Суффикс имени месячной секции */
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
 
     public AuditRepositoryImpl() {
     }
 
     @Override
     public void record(String username, String action, String details) {
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getAppendConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.Audit.INSERT)) {
 
             stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
@@ -42,22 +54,48 @@ public class AuditRepositoryImpl implements AuditRepository {
         }
     }
 
+    @Override
+    public void recordBatch(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = ConnectionPoolManager.getAppendConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(SQLConstants.Audit.INSERT)) {
+                for (AuditEntry entry : entries) {
+                    stmt.setTimestamp(1, new Timestamp(entry.getTimestamp().getTime()));
+                    stmt.setString(2, entry.getUsername());
+                    stmt.setString(3, entry.getAction());
+                    stmt.setString(4, entry.getDetails());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                connection.commit();
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new AuditRepositoryException("Database error while recording " + entries.size() + " audit entries", e);
+        }
+    }
+
     @Override
     public List<AuditEntry> getEntries() {
         List<AuditEntry> entries = new ArrayList<>();
 
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.Audit.SELECT_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
+            RowMapper<AuditEntry> mapper = AuditEntryRowMapper.INSTANCE.forResultSet(rs);
             while (rs.next()) {
-                AuditEntry entry = new AuditEntry();
-                entry.setId(rs.getLong("id"));
-                entry.setTimestamp(rs.getTimestamp("timestamp"));
-                entry.setUsername(rs.getString("username"));
-                entry.setAction(rs.getString("action"));
-                entry.setDetails(rs.getString("details"));
-                entries.add(entry);
+                entries.add(mapper.mapRow(rs));
             }
 
         } catch (SQLException e) {
@@ -66,4 +104,190 @@ public class AuditRepositoryImpl implements AuditRepository {
 
         return entries;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<AuditEntry> getRecentEntries(int limit) {
+        List<AuditEntry> entries = new ArrayList<>(limit);
+
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Audit.SELECT_RECENT)) {
+
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<AuditEntry> mapper = AuditEntryRowMapper.INSTANCE.forResultSet(rs);
+                while (rs.next()) {
+                    entries.add(mapper.mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new AuditRepositoryException("Database error while retrieving recent audit entries", e);
+        }
+
+        return entries;
+    }
+
+    @Override
+    public AuditPage query(AuditQuery query) {
+        int mask = queryMask(query);
+        List<AuditEntry> entries = new ArrayList<>(query.getLimit() + 1);
+
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Audit.query(mask))) {
+
+            int index = 1;
+            if ((mask & SQLConstants.Audit.FILTER_USERNAME) != 0) {
+                stmt.setString(index++, query.getUsername());
+            }
+            if ((mask & SQLConstants.Audit.FILTER_ACTION) != 0) {
+                stmt.setString(index++, query.getAction());
+            }
+            if ((mask & SQLConstants.Audit.FILTER_FROM) != 0) {
+                stmt.setTimestamp(index++, new Timestamp(query.getFrom().getTime()));
+            }
+            if ((mask & SQLConstants.Audit.FILTER_TO) != 0) {
+                stmt.setTimestamp(index++, new Timestamp(query.getTo().getTime()));
+            }
+            if ((mask & SQLConstants.Audit.FILTER_AFTER) != 0) {
+                stmt.setTimestamp(index++, query.getAfter().getTimestamp());
+                stmt.setLong(index++, query.getAfter().getId());
+            }
+            // одна лишняя строка показывает, есть ли следующая страница
+            stmt.setInt(index, query.getLimit() + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<AuditEntry> mapper = AuditEntryRowMapper.INSTANCE.forResultSet(rs);
+                while (rs.next()) {
+                    entries.add(mapper.mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new AuditRepositoryException("Database error while querying audit entries", e);
+        }
+
+        if (entries.size() <= query.getLimit()) {
+            return new AuditPage(entries, null);
+        }
+        List<AuditEntry> page = entries.subList(0, query.getLimit());
+        return new AuditPage(page, AuditCursor.after(page.get(page.size() - 1)));
+    }
+
+    /**
+     * Вычисляет маску заданных фильтров запроса журнала (см. SQLConstants.Audit.FILTER_*).
+     */
+    static int queryMask(AuditQuery query) {
+        int mask = 0;
+        if (query.getUsername() != null) {
+            mask |= SQLConstants.Audit.FILTER_USERNAME;
+        }
+        if (query.getAction() != null) {
+            mask |= SQLConstants.Audit.FILTER_ACTION;
+        }
+        if (query.getFrom() != null) {
+            mask |= SQLConstants.Audit.FILTER_FROM;
+        }
+        if (query.getTo() != null) {
+            mask |= SQLConstants.Audit.FILTER_TO;
+        }
+        if (query.getAfter() != null) {
+            mask |= SQLConstants.Audit.FILTER_AFTER;
+        }
+        return mask;
+    }
+
+    @Override
+    public long archivePartition(YearMonth month, Consumer<AuditEntry> consumer, Runnable beforeDrop) {
+        String partition = partitionName(month);
+        try (Connection connection = ConnectionPoolManager.getAppendConnection()) {
+            // без автофиксации драйвер читает результат порциями по fetch size
+            connection.setAutoCommit(false);
+            try {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute(String.format(SQLConstants.Audit.LOCK_PARTITION, partition));
+                }
+
+                long archived = 0;
+                try (PreparedStatement stmt = connection.prepareStatement(String.format(SQLConstants.Audit.SELECT_PARTITION, partition))) {
+                    stmt.setFetchSize(SQLConstants.Audit.ARCHIVE_FETCH_SIZE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper<AuditEntry> mapper = AuditEntryRowMapper.INSTANCE.forResultSet(rs);
+                        while (rs.next()) {
+                            consumer.accept(mapper.mapRow(rs));
+                            archived++;
+                        }
+                    }
+                }
+                beforeDrop.run();
+
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute(String.format(SQLConstants.Audit.DETACH_PARTITION, partition));
+                    stmt.execute(String.format(SQLConstants.Audit.DROP_PARTITION, partition));
+                }
+                connection.commit();
+                return archived;
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new AuditRepositoryException("Database error while archiving audit partition " + month, e);
+        }
+    }
+
+    @Override
+    public List<YearMonth> getPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Audit.SELECT_PARTITIONS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                String name = rs.getString(1);
+                if (name.startsWith(SQLConstants.Audit.PARTITION_PREFIX)) {
+                    try {
+                        months.add(YearMonth.parse(name.substring(SQLConstants.Audit.PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+                    } catch (DateTimeParseException e) {
+                        // секция по умолчанию и секции с другими именами не относятся к месячным
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new AuditRepositoryException("Database error while listing audit partitions", e);
+        }
+
+        months.sort(null);
+        return months;
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        String sql = String.format(SQLConstants.Audit.CREATE_PARTITION,
+                partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1));
+        executeDdl(sql, "creating audit partition " + month);
+    }
+
+    @Override
+    public void dropPartition(YearMonth month) {
+        executeDdl(String.format(SQLConstants.Audit.DROP_PARTITION, partitionName(month)), "dropping audit partition " + month);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return SQLConstants.Audit.PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private void executeDdl(String sql, String operation) {
+        try (Connection connection = ConnectionPoolManager.getAppendConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new AuditRepositoryException("Database error while " + operation, e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package repository.audit;
+
+import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Репозиторий аудита, записывающий новые записи в локальный {@link AuditJournal} вместо БД.
+ * Запись считается сохраненной после сброса журнала на диск; в таблицу audit_entries
+ * ее переносит {@link service.audit.AuditJournalShipper}. Чтение выполняется из БД,
+ * поэтому последние записи становятся видны с задержкой отправки.
+ */
+public class JournaledAuditRepository implements AuditRepository {
+    private final AuditJournal journal;
+    private final AuditRepository delegate;
+
+    /**
+     * @param journal журнал, в который выполняется запись
+     * @param delegate репозиторий БД для чтения и управления секциями
+     */
+    public JournaledAuditRepository(AuditJournal journal, AuditRepository delegate) {
+        this.journal = journal;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void record(String username, String action, String details) {
+        journal.append(List.of(new AuditEntry(username, action, details)));
+    }
+
+    @Override
+    public void recordBatch(List<AuditEntry> entries) {
+        journal.append(entries);
+    }
+
+    @Override
+    public List<AuditEntry> getEntries() {
+        return delegate.getEntries();
+    }
+
+    @Override
+    public List<AuditEntry> getRecentEntries(int limit) {
+        return delegate.getRecentEntries(limit);
+    }
+
+    @Override
+    public AuditPage query(AuditQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public long archivePartition(YearMonth month, Consumer<AuditEntry> consumer, Runnable beforeDrop) {
+        return delegate.archivePartition(month, consumer, beforeDrop);
+    }
+
+    @Override
+    public List<YearMonth> getPartitions() {
+        return delegate.getPartitions();
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        delegate.createPartition(month);
+    }
+
+    @Override
+    public void dropPartition(YearMonth month) {
+        delegate.dropPartition(month);
+    }
+}
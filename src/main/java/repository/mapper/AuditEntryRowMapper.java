@@ -0,0 +1,34 @@
+package repository.mapper;
+
+import model.AuditEntry;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Преобразователь строк журнала аудита.
+ */
+public final class AuditEntryRowMapper extends IndexedRowMapper<AuditEntry> {
+    public static final AuditEntryRowMapper INSTANCE = new AuditEntryRowMapper();
+
+    private static final int ID = 0;
+    private static final int TIMESTAMP = 1;
+    private static final int USERNAME = 2;
+    private static final int ACTION = 3;
+    private static final int DETAILS = 4;
+
+    private AuditEntryRowMapper() {
+        super("id", "timestamp", "username", "action", "details");
+    }
+
+    @Override
+    protected AuditEntry map(ResultSet rs, int[] indices) throws SQLException {
+        return new AuditEntry(
+                rs.getLong(indices[ID]),
+                rs.getTimestamp(indices[TIMESTAMP]),
+                rs.getString(indices[USERNAME]),
+                rs.getString(indices[ACTION]),
+                rs.getString(indices[DETAILS])
+        );
+    }
+}
@@ -0,0 +1,68 @@
+package repository.mapper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Базовый класс преобразователей строк, читающих столбцы по номерам.
+ * Номера столбцов определяются один раз для результата запроса по его метаданным,
+ * после чего каждая строка читается без поиска столбцов по имени.
+ *
+ * @param <T> тип объекта
+ */
+public abstract class IndexedRowMapper<T> {
+    /** Имена читаемых столбцов в порядке, в котором их номера передаются в {@link #map} */
+    private final String[] columns;
+
+    /**
+     * @param columns имена читаемых столбцов
+     */
+    protected IndexedRowMapper(String... columns) {
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Определяет номера столбцов для результата запроса и возвращает преобразователь его строк.
+     *
+     * @param rs результат запроса
+     * @return преобразователь строк этого результата
+     * @throws SQLException если в результате нет одного из столбцов
+     */
+    public RowMapper<T> forResultSet(ResultSet rs) throws SQLException {
+        int[] indices = resolve(rs.getMetaData());
+        return row -> map(row, indices);
+    }
+
+    /**
+     * Создает объект из текущей строки.
+     *
+     * @param rs результат запроса, установленный на строку
+     * @param indices номера столбцов в порядке, переданном в конструктор
+     */
+    protected abstract T map(ResultSet rs, int[] indices) throws SQLException;
+
+    private int[] resolve(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+        }
+
+        int[] indices = new int[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            indices[c] = indexOf(labels, columns[c]);
+        }
+        return indices;
+    }
+
+    private static int indexOf(String[] labels, String column) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(column)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Column not found in result set: " + column);
+    }
+}
@@ -0,0 +1,40 @@
+package repository.mapper;
+
+import model.Product;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Преобразователь строк таблицы товаров.
+ */
+public final class ProductRowMapper extends IndexedRowMapper<Product> {
+    public static final ProductRowMapper INSTANCE = new ProductRowMapper();
+
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int CATEGORY = 2;
+    private static final int BRAND = 3;
+    private static final int PRICE = 4;
+    private static final int DESCRIPTION = 5;
+    private static final int CREATED_AT = 6;
+    private static final int UPDATED_AT = 7;
+
+    private ProductRowMapper() {
+        super("id", "name", "category", "brand", "price", "description", "created_at", "updated_at");
+    }
+
+    @Override
+    protected Product map(ResultSet rs, int[] indices) throws SQLException {
+        return new Product(
+                rs.getLong(indices[ID]),
+                rs.getString(indices[NAME]),
+                rs.getString(indices[CATEGORY]),
+                rs.getString(indices[BRAND]),
+                rs.getLong(indices[PRICE]),
+                rs.getString(indices[DESCRIPTION]),
+                rs.getTimestamp(indices[CREATED_AT]),
+                rs.getTimestamp(indices[UPDATED_AT])
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package repository.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Преобразует текущую строку результата запроса в объект.
+ *
+ * @param <T> тип объекта
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Создает объект из текущей строки.
+     *
+     * @param rs результат запроса, установленный на строку
+     * @return созданный объект
+     * @throws SQLException если не удалось прочитать значения
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
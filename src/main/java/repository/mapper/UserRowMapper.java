@@ -0,0 +1,30 @@
+package repository.mapper;
+
+import model.User;
+import model.enums.UserRole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Преобразователь строк таблицы пользователей.
+ * Неизвестная роль читается как USER.
+ */
+public final class UserRowMapper extends IndexedRowMapper<User> {
+    public static final UserRowMapper INSTANCE = new UserRowMapper();
+
+    private static final int ID = 0;
+    private static final int USERNAME = 1;
+    private static final int PASSWORD_HASH = 2;
+    private static final int USER_ROLE = 3;
+
+    private UserRowMapper() {
+        super("id", "username", "password_hash", "user_role");
+    }
+
+    @Override
+    protected User map(ResultSet rs, int[] indices) throws SQLException {
+        UserRole role = UserRole.ADMIN.name().equals(rs.getString(indices[USER_ROLE])) ? UserRole.ADMIN : UserRole.USER;
+        return new User(rs.getLong(indices[ID]), rs.getString(indices[USERNAME]), rs.getString(indices[PASSWORD_HASH]), role);
+    }
+}
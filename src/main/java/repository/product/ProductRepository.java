@@ -1,9 +1,23 @@
 package repository.product;
 
+import model.CatalogItem;
+import model.ImportReport;
+import model.NewProduct;
 import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.SyncReport;
+import model.enums.ExportFormat;
+import util.RepositoryExecutor;
 
+import java.io.OutputStream;
+import java.io.Reader;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Репозиторий для управления товарами в базе данных.
@@ -17,13 +31,62 @@ public interface ProductRepository {
      * @param name название товара
      * @param category категория товара
      * @param brand бренд товара
-     * @param price цена товара
+     * @param price цена товара в копейках
      * @param description описание товара
      * @param userId ID пользователя, создающего товар
      * @return созданный товар с присвоенным ID
      * @throws RuntimeException если не удалось создать товар
      */
-    Product create(String name, String category, String brand, double price, String description, Long userId);
+    Product create(String name, String category, String brand, long price, String description, Long userId);
+
+    /**
+     * Создает несколько товаров в одной транзакции: каждые {@link util.SQLConstants.Product#BATCH_SIZE} товаров
+     * вставляются одной многострочной командой INSERT ... RETURNING с параметрами-массивами.
+     *
+     * @param products данные новых товаров
+     * @param userId ID пользователя, создающего товары
+     * @return созданные товары с присвоенными ID в порядке входного списка
+     * @throws RuntimeException если не удалось создать товары (транзакция откатывается целиком)
+     */
+    List<Product> createAll(List<NewProduct> products, Long userId);
+
+    /**
+     * Импортирует каталог из CSV (заголовок и столбцы name, category, brand, price, description).
+     * Данные передаются в БД командой COPY во временную таблицу и сливаются с таблицей товаров
+     * одним запросом в одной транзакции: существующие товары (по паре название + бренд) обновляются,
+     * новые создаются.
+     *
+     * @param csv источник данных в формате CSV
+     * @param userId ID пользователя, от имени которого создаются новые товары
+     * @return количество загруженных, созданных и обновленных строк и время загрузки
+     * @throws RuntimeException если не удалось импортировать данные (транзакция откатывается целиком)
+     */
+    ImportReport importCsv(Reader csv, Long userId);
+
+    /**
+     * Синхронизирует товары по внешнему артикулу в одной транзакции.
+     * Строки отправляются пакетами запроса INSERT ... ON CONFLICT DO UPDATE, который изменяет
+     * существующий товар только при отличии хэша содержимого: неизмененные товары не записываются
+     * и их updated_at не меняется. При повторе артикула в наборе используется последняя строка.
+     *
+     * @param items товары фида
+     * @param userId ID пользователя, от имени которого создаются новые товары
+     * @return созданные и измененные товары и количество неизмененных
+     * @throws IllegalArgumentException если userId равен null
+     * @throws RuntimeException если не удалось синхронизировать (транзакция откатывается целиком)
+     */
+    SyncReport syncCatalog(List<CatalogItem> items, Long userId);
+
+    /**
+     * Выгружает каталог командой COPY ... TO STDOUT, передавая данные из БД в поток по мере получения,
+     * без создания объектов товаров.
+     *
+     * @param out поток для записи данных (не закрывается)
+     * @param format формат выгрузки
+     * @return количество выгруженных товаров
+     * @throws RuntimeException если не удалось выгрузить данные
+     */
+    long exportTo(OutputStream out, ExportFormat format);
 
     /**
      * Обновляет существующий товар.
@@ -32,11 +95,11 @@ public interface ProductRepository {
      * @param name новое название
      * @param category новая категория
      * @param brand новый бренд
-     * @param price новая цена
+     * @param price новая цена в копейках
      * @param description новое описание
      * @return Product
      */
-    Product update(long id, String name, String category, String brand, Double price, String description);
+    Product update(long id, String name, String category, String brand, Long price, String description);
 
     /**
      * Находит товар по ID.
@@ -61,6 +124,30 @@ public interface ProductRepository {
      */
     boolean delete(long id);
 
+    /**
+     * Находит товары по массиву ID одним запросом (id = ANY(?)).
+     *
+     * @param ids ID товаров
+     * @return найденные товары по ID (отсутствующие ID в результат не входят)
+     */
+    Map<Long, Product> findByIds(long[] ids);
+
+    /**
+     * Удаляет товары по массиву ID одним запросом.
+     *
+     * @param ids ID товаров для удаления
+     * @return ID фактически удаленных товаров
+     */
+    Set<Long> deleteByIds(long[] ids);
+
+    /**
+     * Обновляет цены нескольких товаров одним запросом.
+     *
+     * @param prices новые цены в копейках по ID товаров
+     * @return обновленные товары по ID (отсутствующие ID в результат не входят)
+     */
+    Map<Long, Product> updatePrices(Map<Long, Long> prices);
+
     /**
      * Частично обновляет товар (только указанные поля).
      *
@@ -68,11 +155,37 @@ public interface ProductRepository {
      * @param name новое название (может быть null)
      * @param category новая категория (может быть null)
      * @param brand новый бренд (может быть null)
-     * @param price новая цена (может быть null)
+     * @param price новая цена в копейках (может быть null)
      * @param description новое описание (может быть null)
      * @return true если товар был обновлен, false если не найден
      */
-    boolean updatePartial(long id, String name, String category, String brand, Double price, String description);
+    boolean updatePartial(long id, String name, String category, String brand, Long price, String description);
+
+    /**
+     * Частично обновляет товар (только указанные поля) и возвращает его новое состояние
+     * тем же запросом (UPDATE ... RETURNING).
+     *
+     * @param id ID товара для обновления
+     * @param name новое название (может быть null)
+     * @param category новая категория (может быть null)
+     * @param brand новый бренд (может быть null)
+     * @param price новая цена в копейках (может быть null)
+     * @param description новое описание (может быть null)
+     * @return обновленный товар или пустой Optional, если товар не найден
+     */
+    Optional<Product> updatePartialReturning(long id, String name, String category, String brand, Long price, String description);
+
+    /**
+     * Применяет много частичных изменений в одной транзакции.
+     * Изменения одного товара сливаются в порядке списка (более позднее значение поля побеждает),
+     * затем группируются по набору полей: для каждой группы используется один заранее
+     * подготовленный запрос, а изменения отправляются пакетами JDBC.
+     *
+     * @param patches частичные изменения (изменения без полей пропускаются)
+     * @return обновленные товары по ID в порядке первого изменения, прочитанные из БД (RETURNING)
+     * @throws RuntimeException если не удалось применить изменения (транзакция откатывается целиком)
+     */
+    Map<Long, Product> updatePartialBatch(List<ProductPatch> patches);
 
     /**
      * Выполняет поиск товаров с фильтрацией.
@@ -80,11 +193,33 @@ public interface ProductRepository {
      * @param nameSubstring подстрока для поиска в названии (может быть null)
      * @param category категория для фильтрации (может быть null)
      * @param brand бренд для фильтрации (может быть null)
-     * @param minPrice минимальная цена (может быть null)
-     * @param maxPrice максимальная цена (может быть null)
+     * @param minPrice минимальная цена в копейках (может быть null)
+     * @param maxPrice максимальная цена в копейках (может быть null)
      * @return список товаров, соответствующих критериям поиска
      */
-    List<Product> search(String nameSubstring, String category, String brand, Double minPrice, Double maxPrice);
+    List<Product> search(String nameSubstring, String category, String brand, Long minPrice, Long maxPrice);
+
+    /**
+     * Выполняет несколько независимых поисков одним запросом к базе данных.
+     * Подзапросы объединяются через UNION ALL и помечаются номером критерия.
+     *
+     * @param criteriaList список критериев поиска
+     * @return результаты поиска для каждого критерия в том же порядке, товары упорядочены по ID
+     */
+    List<List<Product>> searchBatch(List<ProductSearchCriteria> criteriaList);
+
+    /**
+     * Вычисляет фасетные счетчики (категории, бренды, ценовые диапазоны) для критериев поиска
+     * одним сгруппированным запросом.
+     *
+     * @param nameSubstring подстрока для поиска в названии (может быть null)
+     * @param category категория для фильтрации (может быть null)
+     * @param brand бренд для фильтрации (может быть null)
+     * @param minPrice минимальная цена в копейках (может быть null)
+     * @param maxPrice максимальная цена в копейках (может быть null)
+     * @return фасетные счетчики для товаров, соответствующих критериям поиска
+     */
+    ProductFacets facets(String nameSubstring, String category, String brand, Long minPrice, Long maxPrice);
 
     /**
      * Возвращает общее количество товаров в базе данных.
@@ -92,4 +227,66 @@ public interface ProductRepository {
      * @return количество товаров
      */
     int getCount();
+
+    /**
+     * Возвращает оценку количества товаров по статистике планировщика PostgreSQL (pg_class.reltuples).
+     * Не требует просмотра таблицы, но может отставать от фактического значения до следующего ANALYZE.
+     *
+     * @return оценка количества товаров или -1, если статистика еще не собрана
+     */
+    long getApproximateCount();
+
+    /**
+     * Считает все товары по категориям, брендам и ценовым диапазонам в транзакции REPEATABLE READ.
+     * onSnapshot вызывается в том же потоке сразу после того, как транзакция зафиксировала снимок данных,
+     * и до выполнения подсчета: записи, зафиксированные до вызова, входят в результат, после - не входят.
+     *
+     * @param onSnapshot действие в момент фиксации снимка
+     * @return счетчики всех товаров на момент снимка
+     */
+    ProductFacets countSnapshot(Runnable onSnapshot);
+
+    /**
+     * Асинхронный вариант {@link #findById(long)}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<Optional<Product>> findByIdAsync(long id) {
+        return RepositoryExecutor.supplyAsync(() -> findById(id));
+    }
+
+    /**
+     * Асинхронный вариант {@link #findByIds(long[])}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<Map<Long, Product>> findByIdsAsync(long[] ids) {
+        return RepositoryExecutor.supplyAsync(() -> findByIds(ids));
+    }
+
+    /**
+     * Асинхронный вариант {@link #findAll()}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<List<Product>> findAllAsync() {
+        return RepositoryExecutor.supplyAsync(this::findAll);
+    }
+
+    /**
+     * Асинхронный вариант {@link #search}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<List<Product>> searchAsync(String nameSubstring, String category, String brand,
+                                                         Long minPrice, Long maxPrice) {
+        return RepositoryExecutor.supplyAsync(() -> search(nameSubstring, category, brand, minPrice, maxPrice));
+    }
+
+    /**
+     * Асинхронный вариант {@link #facets}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<ProductFacets> facetsAsync(String nameSubstring, String category, String brand,
+                                                         Long minPrice, Long maxPrice) {
+        return RepositoryExecutor.supplyAsync(() -> facets(nameSubstring, category, brand, minPrice, maxPrice));
+    }
+
+    /**
+     * Асинхронный вариант {@link #getCount()}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<Integer> getCountAsync() {
+        return RepositoryExecutor.supplyAsync(this::getCount);
+    }
 }
@@ -2,14 +2,34 @@ package repository.product;
 
 import exception.EntityNotFoundException;
 import exception.ProductRepositoryException;
+import model.CatalogItem;
+import model.ImportReport;
+import model.NewProduct;
 import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.SyncReport;
+import model.enums.ExportFormat;
+import org.postgresql.PGConnection;
+import repository.mapper.ProductRowMapper;
+import repository.mapper.RowMapper;
 import util.ConnectionPoolManager;
 import util.SQLConstants;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Реализация репозитория товаров
@@ -25,59 +45,242 @@ public class ProductRepositoryImpl implements ProductRepository {
     }
 
     @Override
-    public Product create(String name, String category, String brand, double price, String description, Long userId) {
+    public Product create(String name, String category, String brand, long price, String description, Long userId) {
         try (Connection connection = ConnectionPoolManager.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.INSERT, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.INSERT_RETURNING)) {
 
             stmt.setString(1, name);
             stmt.setString(2, category);
             stmt.setString(3, brand);
-            stmt.setDouble(4, price);
+            stmt.setLong(4, price);
             stmt.setString(5, description);
             stmt.setLong(6, userId);
 
-            int affectedRows = stmt.executeUpdate();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ProductRepositoryException("Failed to create product, no rows returned");
+                }
+                return mapProduct(rs);
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while creating product", e);
+        }
+    }
 
-            if (affectedRows == 0) {
-                throw new ProductRepositoryException("Failed to create product, no rows affected");
+    @Override
+    public List<Product> createAll(List<NewProduct> products, Long userId) {
+        List<Product> created = new ArrayList<>(products.size());
+        if (products.isEmpty()) {
+            return created;
+        }
+
+        try (Connection connection = ConnectionPoolManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.INSERT_ALL_RETURNING)) {
+
+                for (int from = 0; from < products.size(); from += SQLConstants.Product.BATCH_SIZE) {
+                    List<NewProduct> chunk = products.subList(from, Math.min(products.size(), from + SQLConstants.Product.BATCH_SIZE));
+                    String[] names = new String[chunk.size()];
+                    String[] categories = new String[chunk.size()];
+                    String[] brands = new String[chunk.size()];
+                    Long[] prices = new Long[chunk.size()];
+                    String[] descriptions = new String[chunk.size()];
+                    for (int i = 0; i < chunk.size(); i++) {
+                        NewProduct product = chunk.get(i);
+                        names[i] = product.getName();
+                        categories[i] = product.getCategory();
+                        brands[i] = product.getBrand();
+                        prices[i] = product.getPrice();
+                        descriptions[i] = product.getDescription();
+                    }
+
+                    stmt.setLong(1, userId);
+                    stmt.setArray(2, connection.createArrayOf("varchar", names));
+                    stmt.setArray(3, connection.createArrayOf("varchar", categories));
+                    stmt.setArray(4, connection.createArrayOf("varchar", brands));
+                    stmt.setArray(5, connection.createArrayOf("bigint", prices));
+                    stmt.setArray(6, connection.createArrayOf("text", descriptions));
+
+                    List<Product> inserted = new ArrayList<>(chunk.size());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
+                        while (rs.next()) {
+                            inserted.add(mapper.mapRow(rs));
+                        }
+                    }
+                    // порядок строк RETURNING не гарантирован, а номера выданы в порядке пакета
+                    inserted.sort(Comparator.comparingLong(Product::getId));
+                    created.addAll(inserted);
+                }
+
+                if (created.size() != products.size()) {
+                    throw new ProductRepositoryException("Expected " + products.size() + " created products, got " + created.size());
+                }
+                connection.commit();
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
 
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    long newId = generatedKeys.getLong(1);
-                    return findById(newId).orElseThrow(() ->
-                            new EntityNotFoundException("Failed to retrieve created product with ID: " + newId));
-                } else {
-                    throw new ProductRepositoryException("Failed to retrieve generated product ID");
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while creating " + products.size() + " products", e);
+        }
+
+        return created;
+    }
+
+    @Override
+    public ImportReport importCsv(Reader csv, Long userId) {
+        long started = System.nanoTime();
+
+        try (Connection connection = ConnectionPoolManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(SQLConstants.Product.IMPORT_STAGING_CREATE);
+
+                long stagedRows = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(SQLConstants.Product.IMPORT_COPY, csv);
+                stmt.execute(SQLConstants.Product.IMPORT_STAGING_ANALYZE);
+
+                long insertedRows;
+                long updatedRows;
+                try (PreparedStatement merge = connection.prepareStatement(SQLConstants.Product.IMPORT_MERGE)) {
+                    merge.setLong(1, userId);
+                    try (ResultSet rs = merge.executeQuery()) {
+                        rs.next();
+                        insertedRows = rs.getLong("inserted_rows");
+                        updatedRows = rs.getLong("updated_rows");
+                    }
                 }
+                connection.commit();
+
+                long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+                return new ImportReport(stagedRows, insertedRows, updatedRows, elapsedMillis);
+
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
 
         } catch (SQLException e) {
-            throw new ProductRepositoryException("Database error while creating product", e);
+            throw new ProductRepositoryException("Database error while importing catalog", e);
+        } catch (IOException e) {
+            throw new ProductRepositoryException("Failed to read catalog data", e);
         }
     }
 
     @Override
-    public Product update(long id, String name, String category, String brand, Double price, String description) {
+    public SyncReport syncCatalog(List<CatalogItem> items, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required for catalog sync");
+        }
+        Map<String, CatalogItem> bySku = new LinkedHashMap<>();
+        for (CatalogItem item : items) {
+            bySku.put(item.getExternalSku(), item);
+        }
+        List<CatalogItem> unique = new ArrayList<>(bySku.values());
+        List<Product> inserted = new ArrayList<>();
+        List<Product> updated = new ArrayList<>();
+        if (unique.isEmpty()) {
+            return new SyncReport(inserted, updated, 0);
+        }
+
+        try (Connection connection = ConnectionPoolManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.SYNC_UPSERT)) {
+
+                for (int from = 0; from < unique.size(); from += SQLConstants.Product.BATCH_SIZE) {
+                    List<CatalogItem> chunk = unique.subList(from, Math.min(unique.size(), from + SQLConstants.Product.BATCH_SIZE));
+                    int size = chunk.size();
+                    String[] skus = new String[size];
+                    String[] names = new String[size];
+                    String[] categories = new String[size];
+                    String[] brands = new String[size];
+                    Long[] prices = new Long[size];
+                    String[] descriptions = new String[size];
+                    String[] hashes = new String[size];
+                    for (int i = 0; i < size; i++) {
+                        CatalogItem item = chunk.get(i);
+                        skus[i] = item.getExternalSku();
+                        names[i] = item.getName();
+                        categories[i] = item.getCategory();
+                        brands[i] = item.getBrand();
+                        prices[i] = item.getPrice();
+                        descriptions[i] = item.getDescription();
+                        hashes[i] = item.contentHash();
+                    }
+
+                    stmt.setLong(1, userId);
+                    stmt.setArray(2, connection.createArrayOf("varchar", skus));
+                    stmt.setArray(3, connection.createArrayOf("varchar", names));
+                    stmt.setArray(4, connection.createArrayOf("varchar", categories));
+                    stmt.setArray(5, connection.createArrayOf("varchar", brands));
+                    stmt.setArray(6, connection.createArrayOf("bigint", prices));
+                    stmt.setArray(7, connection.createArrayOf("text", descriptions));
+                    stmt.setArray(8, connection.createArrayOf("varchar", hashes));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
+                        int insertedColumn = rs.findColumn("inserted");
+                        while (rs.next()) {
+                            (rs.getBoolean(insertedColumn) ? inserted : updated).add(mapper.mapRow(rs));
+                        }
+                    }
+                }
+                connection.commit();
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while syncing " + unique.size() + " catalog items", e);
+        }
+
+        return new SyncReport(inserted, updated, unique.size() - inserted.size() - updated.size());
+    }
+
+    @Override
+    public long exportTo(OutputStream out, ExportFormat format) {
+        String sql = format == ExportFormat.BINARY ? SQLConstants.Product.EXPORT_BINARY : SQLConstants.Product.EXPORT_CSV;
+
+        try (Connection connection = ConnectionPoolManager.getReadConnection()) {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while exporting catalog", e);
+        } catch (IOException e) {
+            throw new ProductRepositoryException("Failed to write catalog data", e);
+        }
+    }
+
+    @Override
+    public Product update(long id, String name, String category, String brand, Long price, String description) {
         try (Connection connection = ConnectionPoolManager.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.UPDATE)) {
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.UPDATE_RETURNING)) {
 
             stmt.setString(1, name);
             stmt.setString(2, category);
             stmt.setString(3, brand);
-            stmt.setDouble(4, price);
+            stmt.setLong(4, price);
             stmt.setString(5, description);
             stmt.setLong(6, id);
 
-            int affectedRows = stmt.executeUpdate();
-
-            if (affectedRows == 0) {
-                throw new EntityNotFoundException("Product not found with ID: " + id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new EntityNotFoundException("Product not found with ID: " + id);
+                }
+                return mapProduct(rs);
             }
 
-            return findById(id)
-                    .orElseThrow(() -> new ProductRepositoryException("Failed to retrieve updated product with ID: " + id));
-
         } catch (SQLException e) {
             throw new ProductRepositoryException("Database error while updating product with ID: " + id, e);
         }
@@ -85,23 +288,14 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public Optional<Product> findById(long id) {
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.SELECT_BY_ID)) {
 
             stmt.setLong(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                Product product = new Product(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("category"),
-                        rs.getString("brand"),
-                        rs.getDouble("price"),
-                        rs.getString("description")
-                );
-                setProductTimestamps(product, rs);
-                return Optional.of(product);
+                return Optional.of(mapProduct(rs));
             }
             return Optional.empty();
 
@@ -114,21 +308,13 @@ public class ProductRepositoryImpl implements ProductRepository {
     public List<Product> findAll() {
         List<Product> products = new ArrayList<>();
 
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.SELECT_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
+            RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
             while (rs.next()) {
-                Product product = new Product(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("category"),
-                        rs.getString("brand"),
-                        rs.getDouble("price"),
-                        rs.getString("description")
-                );
-                setProductTimestamps(product, rs);
-                products.add(product);
+                products.add(mapper.mapRow(rs));
             }
 
         } catch (SQLException e) {
@@ -154,44 +340,105 @@ public class ProductRepositoryImpl implements ProductRepository {
     }
 
     @Override
-    public boolean updatePartial(long id, String name, String category, String brand, Double price, String description) {
-        StringBuilder sql = new StringBuilder("UPDATE " + SQLConstants.Product.TABLE + " SET ");
-        List<Object> params = new ArrayList<>();
+    public Map<Long, Product> findByIds(long[] ids) {
+        Map<Long, Product> products = new HashMap<>();
+        if (ids.length == 0) {
+            return products;
+        }
 
-        if (name != null) {
-            sql.append("name = ?, ");
-            params.add(name);
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.SELECT_BY_IDS)) {
+
+            stmt.setArray(1, connection.createArrayOf("bigint", boxed(ids)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
+                while (rs.next()) {
+                    Product product = mapper.mapRow(rs);
+                    products.put(product.getId(), product);
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while finding " + ids.length + " products by ID", e);
         }
-        if (category != null) {
-            sql.append("category = ?, ");
-            params.add(category);
+
+        return products;
+    }
+
+    @Override
+    public Set<Long> deleteByIds(long[] ids) {
+        Set<Long> deleted = new HashSet<>();
+        if (ids.length == 0) {
+            return deleted;
         }
-        if (brand != null) {
-            sql.append("brand = ?, ");
-            params.add(brand);
+
+        try (Connection connection = ConnectionPoolManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.DELETE_BY_IDS)) {
+
+            stmt.setArray(1, connection.createArrayOf("bigint", boxed(ids)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    deleted.add(rs.getLong(1));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while deleting " + ids.length + " products", e);
         }
-        if (price != null) {
-            sql.append("price = ?, ");
-            params.add(price);
+
+        return deleted;
+    }
+
+    @Override
+    public Map<Long, Product> updatePrices(Map<Long, Long> prices) {
+        Map<Long, Product> updated = new HashMap<>();
+        if (prices.isEmpty()) {
+            return updated;
         }
-        if (description != null) {
-            sql.append("description = ?, ");
-            params.add(description);
+
+        Long[] ids = new Long[prices.size()];
+        Long[] values = new Long[prices.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : prices.entrySet()) {
+            ids[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
         }
 
-        if (params.isEmpty()) {
-            throw new IllegalArgumentException("No fields to update for product with ID: " + id);
+        try (Connection connection = ConnectionPoolManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.UPDATE_PRICES)) {
+
+            stmt.setArray(1, connection.createArrayOf("bigint", ids));
+            stmt.setArray(2, connection.createArrayOf("bigint", values));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
+                while (rs.next()) {
+                    Product product = mapper.mapRow(rs);
+                    updated.put(product.getId(), product);
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while updating prices of " + prices.size() + " products", e);
         }
 
-        sql.append("updated_at = NOW() WHERE id = ?");
-        params.add(id);
+        return updated;
+    }
+
+    @Override
+    public boolean updatePartial(long id, String name, String category, String brand, Long price, String description) {
+        int mask = fieldMask(name, category, brand, price, description);
+        if (mask == 0) {
+            throw new IllegalArgumentException("No fields to update for product with ID: " + id);
+        }
 
         try (Connection connection = ConnectionPoolManager.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.updatePartial(mask))) {
 
-            for (int i = 0; i < params.size(); i++) {
-                stmt.setObject(i + 1, params.get(i));
-            }
+            bindPartialUpdate(stmt, id, name, category, brand, price, description);
 
             int affectedRows = stmt.executeUpdate();
             return affectedRows > 0;
@@ -202,53 +449,132 @@ public class ProductRepositoryImpl implements ProductRepository {
     }
 
     @Override
-    public List<Product> search(String nameSubstring, String category, String brand, Double minPrice, Double maxPrice) {
-        StringBuilder sql = new StringBuilder(SQLConstants.Product.BASE_SEARCH);
-        List<Object> params = new ArrayList<>();
+    public Optional<Product> updatePartialReturning(long id, String name, String category, String brand, Long price, String description) {
+        int mask = fieldMask(name, category, brand, price, description);
+        if (mask == 0) {
+            throw new IllegalArgumentException("No fields to update for product with ID: " + id);
+        }
 
-        if (nameSubstring != null && !nameSubstring.isEmpty()) {
-            sql.append(" AND LOWER(name) LIKE LOWER(?)");
-            params.add("%" + nameSubstring + "%");
+        try (Connection connection = ConnectionPoolManager.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.updatePartialReturning(mask))) {
+
+            bindPartialUpdate(stmt, id, name, category, brand, price, description);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.of(mapProduct(rs)) : Optional.empty();
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while partially updating product with ID: " + id, e);
         }
-        if (category != null && !category.isEmpty()) {
-            sql.append(" AND LOWER(category) = LOWER(?)");
-            params.add(category);
+    }
+
+    @Override
+    public Map<Long, Product> updatePartialBatch(List<ProductPatch> patches) {
+        Map<Long, ProductPatch> byId = new LinkedHashMap<>();
+        for (ProductPatch patch : patches) {
+            if (!patch.isEmpty()) {
+                byId.merge(patch.getId(), patch, ProductPatch::then);
+            }
         }
-        if (brand != null && !brand.isEmpty()) {
-            sql.append(" AND LOWER(brand) = LOWER(?)");
-            params.add(brand);
+        if (byId.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-        if (minPrice != null) {
-            sql.append(" AND price >= ?");
-            params.add(minPrice);
+
+        Map<Integer, List<ProductPatch>> byMask = new HashMap<>();
+        for (ProductPatch patch : byId.values()) {
+            int mask = fieldMask(patch.getName(), patch.getCategory(), patch.getBrand(), patch.getPrice(), patch.getDescription());
+            byMask.computeIfAbsent(mask, m -> new ArrayList<>()).add(patch);
         }
-        if (maxPrice != null) {
-            sql.append(" AND price <= ?");
-            params.add(maxPrice);
+
+        Map<Long, Product> returnedById = new HashMap<>();
+        try (Connection connection = ConnectionPoolManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<Integer, List<ProductPatch>> group : byMask.entrySet()) {
+                    try (PreparedStatement stmt = connection.prepareStatement(
+                            SQLConstants.Product.updatePartialReturning(group.getKey()), Statement.RETURN_GENERATED_KEYS)) {
+                        List<ProductPatch> groupPatches = group.getValue();
+                        for (int from = 0; from < groupPatches.size(); from += SQLConstants.Product.BATCH_SIZE) {
+                            int to = Math.min(groupPatches.size(), from + SQLConstants.Product.BATCH_SIZE);
+                            for (ProductPatch patch : groupPatches.subList(from, to)) {
+                                bindPartialUpdate(stmt, patch.getId(), patch.getName(), patch.getCategory(),
+                                        patch.getBrand(), patch.getPrice(), patch.getDescription());
+                                stmt.addBatch();
+                            }
+                            stmt.executeBatch();
+
+                            try (ResultSet returned = stmt.getGeneratedKeys()) {
+                                RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(returned);
+                                while (returned.next()) {
+                                    Product product = mapper.mapRow(returned);
+                                    returnedById.put(product.getId(), product);
+                                }
+                            }
+                        }
+                    }
+                }
+                connection.commit();
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while applying " + patches.size() + " partial updates", e);
         }
 
-        sql.append(" ORDER BY id");
+        Map<Long, Product> updated = new LinkedHashMap<>();
+        for (Long id : byId.keySet()) {
+            Product product = returnedById.get(id);
+            if (product != null) {
+                updated.put(id, product);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Привязывает значения непустых полей частичного обновления в порядке битов маски и ID товара последним.
+     */
+    private static void bindPartialUpdate(PreparedStatement stmt, long id, String name, String category, String brand,
+                                          Long price, String description) throws SQLException {
+        int index = 1;
+        if (name != null) {
+            stmt.setString(index++, name);
+        }
+        if (category != null) {
+            stmt.setString(index++, category);
+        }
+        if (brand != null) {
+            stmt.setString(index++, brand);
+        }
+        if (price != null) {
+            stmt.setLong(index++, price);
+        }
+        if (description != null) {
+            stmt.setString(index++, description);
+        }
+        stmt.setLong(index, id);
+    }
+
+    @Override
+    public List<Product> search(String nameSubstring, String category, String brand, Long minPrice, Long maxPrice) {
+        int mask = searchMask(nameSubstring, category, brand, minPrice, maxPrice);
         List<Product> products = new ArrayList<>();
 
-        try (Connection connection = ConnectionPoolManager.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.search(mask))) {
 
-            for (int i = 0; i < params.size(); i++) {
-                stmt.setObject(i + 1, params.get(i));
-            }
+            bindSearchFilters(stmt, 1, mask, nameSubstring, category, brand, minPrice, maxPrice);
 
             ResultSet rs = stmt.executeQuery();
+            RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
             while (rs.next()) {
-                Product product = new Product(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("category"),
-                        rs.getString("brand"),
-                        rs.getDouble("price"),
-                        rs.getString("description")
-                );
-                setProductTimestamps(product, rs);
-                products.add(product);
+                products.add(mapper.mapRow(rs));
             }
 
         } catch (SQLException e) {
@@ -258,9 +584,128 @@ public class ProductRepositoryImpl implements ProductRepository {
         return products;
     }
 
+    @Override
+    public List<List<Product>> searchBatch(List<ProductSearchCriteria> criteriaList) {
+        List<List<Product>> results = new ArrayList<>(criteriaList.size());
+        if (criteriaList.isEmpty()) {
+            return results;
+        }
+
+        int[] masks = new int[criteriaList.size()];
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < criteriaList.size(); i++) {
+            ProductSearchCriteria criteria = criteriaList.get(i);
+            masks[i] = searchMask(criteria.getNameSubstring(), criteria.getCategory(), criteria.getBrand(),
+                    criteria.getMinPrice(), criteria.getMaxPrice());
+            if (i > 0) {
+                sql.append(SQLConstants.Product.BATCH_SEARCH_UNION);
+            }
+            sql.append(String.format(SQLConstants.Product.BATCH_SEARCH_PART, i))
+                    .append(SQLConstants.Product.searchFilters(masks[i]));
+            results.add(new ArrayList<>());
+        }
+        sql.append(SQLConstants.Product.BATCH_SEARCH_ORDER);
+
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            for (int i = 0; i < criteriaList.size(); i++) {
+                ProductSearchCriteria criteria = criteriaList.get(i);
+                index = bindSearchFilters(stmt, index, masks[i], criteria.getNameSubstring(), criteria.getCategory(),
+                        criteria.getBrand(), criteria.getMinPrice(), criteria.getMaxPrice());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(rs);
+                int queryTag = rs.findColumn("query_tag");
+                while (rs.next()) {
+                    results.get(rs.getInt(queryTag)).add(mapper.mapRow(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while executing batch search", e);
+        }
+
+        return results;
+    }
+
+    @Override
+    public ProductFacets facets(String nameSubstring, String category, String brand, Long minPrice, Long maxPrice) {
+        int mask = searchMask(nameSubstring, category, brand, minPrice, maxPrice);
+
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.facets(mask))) {
+
+            bindSearchFilters(stmt, 1, mask, nameSubstring, category, brand, minPrice, maxPrice);
+            return readFacets(stmt);
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while computing search facets", e);
+        }
+    }
+
+    @Override
+    public ProductFacets countSnapshot(Runnable onSnapshot) {
+        try (Connection connection = ConnectionPoolManager.getReadConnection()) {
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setAutoCommit(false);
+            try {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute(SQLConstants.Product.TAKE_SNAPSHOT);
+                }
+                onSnapshot.run();
+
+                ProductFacets counts;
+                try (PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.facets(0))) {
+                    counts = readFacets(stmt);
+                }
+                connection.commit();
+                return counts;
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+                connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            }
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while counting products", e);
+        }
+    }
+
+    /**
+     * Выполняет запрос фасетов и собирает строки GROUPING SETS в счетчики.
+     */
+    private static ProductFacets readFacets(PreparedStatement stmt) throws SQLException {
+        Map<String, Long> categoryCounts = new HashMap<>();
+        Map<String, Long> brandCounts = new HashMap<>();
+        long[] priceBucketCounts = new long[ProductFacets.bucketCount()];
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String rowCategory = rs.getString("category");
+                String rowBrand = rs.getString("brand");
+                long count = rs.getLong("cnt");
+
+                if (rowCategory != null) {
+                    categoryCounts.put(rowCategory, count);
+                } else if (rowBrand != null) {
+                    brandCounts.put(rowBrand, count);
+                } else {
+                    priceBucketCounts[rs.getInt("price_bucket")] = count;
+                }
+            }
+        }
+        return new ProductFacets(categoryCounts, brandCounts, priceBucketCounts);
+    }
+
     @Override
     public int getCount() {
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.COUNT);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -274,31 +719,114 @@ public class ProductRepositoryImpl implements ProductRepository {
         }
     }
 
+    @Override
+    public long getApproximateCount() {
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement(SQLConstants.Product.APPROXIMATE_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                long estimate = rs.getLong(1);
+                return estimate < 0 ? -1 : estimate;
+            }
+            return -1;
+
+        } catch (SQLException e) {
+            throw new ProductRepositoryException("Database error while estimating product count", e);
+        }
+    }
+
     /**
-     * Устанавливает временные метки продукта через рефлексию
+     * Вычисляет маску заданных фильтров поиска (см. SQLConstants.Product.FILTER_*).
      */
-    private void setProductTimestamps(Product product, ResultSet rs) {
-        try {
-            java.lang.reflect.Field createdAtField = Product.class.getDeclaredField("createdAt");
-            java.lang.reflect.Field updatedAtField = Product.class.getDeclaredField("updatedAt");
+    static int searchMask(String nameSubstring, String category, String brand, Long minPrice, Long maxPrice) {
+        int mask = 0;
+        if (nameSubstring != null && !nameSubstring.isEmpty()) {
+            mask |= SQLConstants.Product.FILTER_NAME;
+        }
+        if (category != null && !category.isEmpty()) {
+            mask |= SQLConstants.Product.FILTER_CATEGORY;
+        }
+        if (brand != null && !brand.isEmpty()) {
+            mask |= SQLConstants.Product.FILTER_BRAND;
+        }
+        if (minPrice != null) {
+            mask |= SQLConstants.Product.FILTER_MIN_PRICE;
+        }
+        if (maxPrice != null) {
+            mask |= SQLConstants.Product.FILTER_MAX_PRICE;
+        }
+        return mask;
+    }
 
-            createdAtField.setAccessible(true);
-            updatedAtField.setAccessible(true);
+    /**
+     * Вычисляет маску заданных полей частичного обновления (см. SQLConstants.Product.FIELD_*).
+     */
+    static int fieldMask(String name, String category, String brand, Long price, String description) {
+        int mask = 0;
+        if (name != null) {
+            mask |= SQLConstants.Product.FIELD_NAME;
+        }
+        if (category != null) {
+            mask |= SQLConstants.Product.FIELD_CATEGORY;
+        }
+        if (brand != null) {
+            mask |= SQLConstants.Product.FIELD_BRAND;
+        }
+        if (price != null) {
+            mask |= SQLConstants.Product.FIELD_PRICE;
+        }
+        if (description != null) {
+            mask |= SQLConstants.Product.FIELD_DESCRIPTION;
+        }
+        return mask;
+    }
 
-            Timestamp createdAt = rs.getTimestamp("created_at");
-            Timestamp updatedAt = rs.getTimestamp("updated_at");
+    /**
+     * Экранирует служебные символы LIKE (обратную косую черту, % и _), чтобы подстрока названия искалась буквально,
+     * как при поиске по индексу в памяти.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 
-            if (!rs.wasNull()) {
-                createdAtField.set(product, createdAt);
-                updatedAtField.set(product, updatedAt);
-            }
+    /**
+     * Привязывает параметры фильтров поиска типизированными методами в порядке битов маски.
+     *
+     * @return индекс следующего свободного параметра
+     */
+    static int bindSearchFilters(PreparedStatement stmt, int index, int mask, String nameSubstring, String category,
+                                 String brand, Long minPrice, Long maxPrice) throws SQLException {
+        if ((mask & SQLConstants.Product.FILTER_NAME) != 0) {
+            stmt.setString(index++, "%" + escapeLike(nameSubstring) + "%");
+        }
+        if ((mask & SQLConstants.Product.FILTER_CATEGORY) != 0) {
+            stmt.setString(index++, category);
+        }
+        if ((mask & SQLConstants.Product.FILTER_BRAND) != 0) {
+            stmt.setString(index++, brand);
+        }
+        if ((mask & SQLConstants.Product.FILTER_MIN_PRICE) != 0) {
+            stmt.setLong(index++, minPrice);
+        }
+        if ((mask & SQLConstants.Product.FILTER_MAX_PRICE) != 0) {
+            stmt.setLong(index++, maxPrice);
+        }
+        return index;
+    }
 
-        } catch (NoSuchFieldException e) {
-            throw new ProductRepositoryException("Product class does not have timestamp fields", e);
-        } catch (IllegalAccessException e) {
-            throw new ProductRepositoryException("Cannot access timestamp fields in Product class", e);
-        } catch (SQLException e) {
-            throw new ProductRepositoryException("Error reading timestamps from ResultSet", e);
+    private static Long[] boxed(long[] values) {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
         }
+        return boxed;
+    }
+
+    /**
+     * Создает товар из текущей строки результата запроса, содержащего одну строку.
+     */
+    private static Product mapProduct(ResultSet rs) throws SQLException {
+        return ProductRowMapper.INSTANCE.forResultSet(rs).mapRow(rs);
     }
-}
\ No newline at end of file
+}
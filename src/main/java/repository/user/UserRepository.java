@@ -1,9 +1,11 @@
 package repository.user;
 
 import model.User;
+import util.RepositoryExecutor;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Репозиторий для управления пользователями в базе данных.
@@ -34,4 +36,18 @@ public interface UserRepository {
      * @return список всех пользователей (может быть пустым, но не null)
      */
     List<User> findAll();
-}
\ No newline at end of file
+
+    /**
+     * Асинхронный вариант {@link #findByUsername(String)}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<Optional<User>> findByUsernameAsync(String username) {
+        return RepositoryExecutor.supplyAsync(() -> findByUsername(username));
+    }
+
+    /**
+     * Асинхронный вариант {@link #findAll()}, выполняемый в {@link RepositoryExecutor}.
+     */
+    default CompletableFuture<List<User>> findAllAsync() {
+        return RepositoryExecutor.supplyAsync(this::findAll);
+    }
+}
@@ -2,6 +2,8 @@ package repository.user;
 
 import exception.UserRepositoryException;
 import model.User;
+import repository.mapper.RowMapper;
+import repository.mapper.UserRowMapper;
 import util.ConnectionPoolManager;
 import util.SQLConstants;
 
@@ -28,17 +30,14 @@ public class UserRepositoryImpl implements UserRepository {
             throw new IllegalArgumentException("Username cannot be null");
         }
 
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.User.SELECT_BY_USERNAME)) {
 
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                User user = new User(rs.getString("username"), rs.getString("password_hash"));
-                setUserId(user, rs.getLong("id"));
-                setUserRole(user, rs.getString("user_role"));
-                return Optional.of(user);
+                return Optional.of(UserRowMapper.INSTANCE.forResultSet(rs).mapRow(rs));
             }
             return Optional.empty();
 
@@ -68,7 +67,7 @@ public class UserRepositoryImpl implements UserRepository {
 
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    setUserId(user, generatedKeys.getLong(1));
+                    user.setId(generatedKeys.getLong(1));
                 } else {
                     throw new UserRepositoryException("Failed to retrieve generated user ID");
                 }
@@ -86,15 +85,13 @@ public class UserRepositoryImpl implements UserRepository {
     public List<User> findAll() {
         List<User> users = new ArrayList<>();
 
-        try (Connection connection = ConnectionPoolManager.getConnection();
+        try (Connection connection = ConnectionPoolManager.getReadConnection();
              PreparedStatement stmt = connection.prepareStatement(SQLConstants.User.SELECT_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
+            RowMapper<User> mapper = UserRowMapper.INSTANCE.forResultSet(rs);
             while (rs.next()) {
-                User user = new User(rs.getString("username"), rs.getString("password_hash"));
-                setUserId(user, rs.getLong("id"));
-                setUserRole(user, rs.getString("user_role"));
-                users.add(user);
+                users.add(mapper.mapRow(rs));
             }
 
         } catch (SQLException e) {
@@ -103,30 +100,4 @@ public class UserRepositoryImpl implements UserRepository {
 
         return users;
     }
-
-    private void setUserId(User user, Long id) {
-        try {
-            java.lang.reflect.Field idField = User.class.getDeclaredField("id");
-            idField.setAccessible(true);
-            idField.set(user, id);
-
-        } catch (NoSuchFieldException e) {
-            throw new UserRepositoryException("User class does not have 'id' field", e);
-        } catch (IllegalAccessException e) {
-            throw new UserRepositoryException("Cannot access 'id' field in User class", e);
-        }
-    }
-
-    private void setUserRole(User user, String role) {
-        try {
-            if ("ADMIN".equals(role)) {
-                user.makeUserAdmin();
-            }
-
-        } catch (SecurityException e) {
-            throw new UserRepositoryException("Security exception while setting user role: " + role, e);
-        } catch (Exception e) {
-            throw new UserRepositoryException("Unexpected error while setting user role: " + role, e);
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package service.audit;
+
+import model.AuditEntry;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Сервис архивации журнала аудита.
+ * Месячные секции таблицы audit_entries, все записи которых старше заданного возраста, переносятся
+ * в сжатые файлы архива по дням и удаляются целиком, поэтому таблица и ее индексы содержат только
+ * недавние записи, а перенос не оставляет мертвых строк. Архив читается потоково.
+ */
+public interface AuditArchiveService {
+
+    /**
+     * Переносит в архив секции за месяцы, целиком ставшие старше срока архивации.
+     *
+     * @return количество перенесенных записей
+     */
+    long runArchival();
+
+    /**
+     * Читает записи архива за дни диапазона, передавая их получателю по одной.
+     *
+     * @param from первый день (включительно)
+     * @param to последний день (включительно)
+     * @param username имя пользователя (null - без фильтра)
+     * @param action действие (null - без фильтра)
+     * @param consumer получатель записей
+     * @return количество прочитанных записей
+     * @throws IllegalArgumentException если from позже to
+     */
+    long readArchive(LocalDate from, LocalDate to, String username, String action, Consumer<AuditEntry> consumer);
+
+    /**
+     * Запускает периодическую архивацию в фоновом потоке; первая архивация выполняется сразу.
+     *
+     * @param period период архивации
+     * @param unit единица измерения периода
+     */
+    void startArchival(long period, TimeUnit unit);
+
+    /**
+     * Останавливает периодическую архивацию.
+     */
+    void shutdown();
+}
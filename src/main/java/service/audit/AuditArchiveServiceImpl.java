@@ -0,0 +1,118 @@
+package service.audit;
+
+import model.AuditEntry;
+import repository.audit.AuditArchive;
+import repository.audit.AuditRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Реализация сервиса архивации журнала аудита.
+ * Записи переносятся целыми месячными секциями: секция архивируется, когда все ее записи старше
+ * archiveAfterDays. Записи секции раскладываются по файлам дней (в часовом поясе часов сервиса),
+ * файл открывается только для дня, в котором есть записи. Секция удаляется в транзакции, которая
+ * фиксируется только после сброса всех файлов секции на диск. Сбой до сброса файлов оставляет секцию
+ * в БД и не оставляет файлов; сбой между сбросом и фиксацией может дать повторные файлы за дни секции.
+ * Записи секции по умолчанию (вне месячных диапазонов) не архивируются.
+ * Срок архивации должен быть меньше срока хранения секций, иначе секции удаляются раньше архивации.
+ */
+public class AuditArchiveServiceImpl implements AuditArchiveService {
+    public static final int DEFAULT_ARCHIVE_AFTER_DAYS = 90;
+
+    private final AuditRepository auditRepository;
+    private final AuditArchive archive;
+    private final int archiveAfterDays;
+    private final Clock clock;
+
+    /** Исключает одновременные переносы, не блокируя остановку планировщика на время переноса */
+    private final Object archivalLock = new Object();
+
+    private ScheduledExecutorService scheduler;
+
+    public AuditArchiveServiceImpl(AuditRepository auditRepository, AuditArchive archive, int archiveAfterDays) {
+        this(auditRepository, archive, archiveAfterDays, Clock.systemDefaultZone());
+    }
+
+    public AuditArchiveServiceImpl(AuditRepository auditRepository, AuditArchive archive, int archiveAfterDays, Clock clock) {
+        if (archiveAfterDays < 1) {
+            throw new IllegalArgumentException("Archive age must be at least one day");
+        }
+        this.auditRepository = auditRepository;
+        this.archive = archive;
+        this.archiveAfterDays = archiveAfterDays;
+        this.clock = clock;
+    }
+
+    @Override
+    public long runArchival() {
+        synchronized (archivalLock) {
+            LocalDate cutoff = LocalDate.now(clock).minusDays(archiveAfterDays);
+
+            long moved = 0;
+            for (YearMonth month : auditRepository.getPartitions()) {
+                if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                    break;
+                }
+                moved += archivePartition(month);
+            }
+            return moved;
+        }
+    }
+
+    private long archivePartition(YearMonth month) {
+        ZoneId zone = clock.getZone();
+        Map<LocalDate, AuditArchive.Writer> writers = new TreeMap<>();
+        try {
+            return auditRepository.archivePartition(month,
+                    entry -> writers.computeIfAbsent(LocalDate.ofInstant(entry.getTimestamp().toInstant(), zone),
+                            archive::openWriter).accept(entry),
+                    () -> writers.values().forEach(AuditArchive.Writer::commit));
+        } finally {
+            writers.values().forEach(AuditArchive.Writer::close);
+        }
+    }
+
+    @Override
+    public long readArchive(LocalDate from, LocalDate to, String username, String action, Consumer<AuditEntry> consumer) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Archive range start must not be after its end");
+        }
+        return archive.read(from, to, username, action, consumer);
+    }
+
+    @Override
+    public synchronized void startArchival(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Audit archival is already running");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-archival");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runArchival();
+            } catch (RuntimeException e) {
+                System.err.println("Audit archival failed: " + e.getMessage());
+            }
+        }, 0, period, unit);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package service.audit;
+
+import model.AuditEntry;
+import repository.audit.AuditJournal;
+import repository.audit.AuditRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновая отправка записей {@link AuditJournal} в таблицу audit_entries.
+ * Записи читаются от сохраненной позиции пакетами и вставляются одной транзакцией,
+ * после чего позиция журнала сдвигается. Если БД недоступна, попытки повторяются
+ * с растущей паузой, а записи остаются в журнале. Сбой между вставкой и сохранением
+ * позиции приводит к повторной отправке пакета (доставка "хотя бы один раз").
+ */
+public class AuditJournalShipper implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_POLL_MILLIS = 1_000;
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final AuditJournal journal;
+    private final AuditRepository auditRepository;
+    private final int batchSize;
+    private final long pollMillis;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    /**
+     * Создает отправку журнала; фоновый поток запускается методом {@link #start()}.
+     *
+     * @param journal журнал аудита
+     * @param auditRepository репозиторий БД, в который отправляются записи
+     * @param batchSize наибольший размер пакета вставки
+     * @param pollMillis пауза между проверками журнала в миллисекундах
+     * @throws IllegalArgumentException если batchSize или pollMillis не положительны
+     */
+    public AuditJournalShipper(AuditJournal journal, AuditRepository auditRepository, int batchSize, long pollMillis) {
+        if (batchSize <= 0 || pollMillis <= 0) {
+            throw new IllegalArgumentException("Batch size and poll interval must be positive");
+        }
+        this.journal = journal;
+        this.auditRepository = auditRepository;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+
+        this.thread = new Thread(this::run, "audit-journal-shipper");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Запускает фоновую отправку.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Отправляет в БД все записи журнала после сохраненной позиции.
+     *
+     * @return количество отправленных записей
+     * @throws exception.AuditRepositoryException если вставка не удалась (записи остаются в журнале)
+     */
+    public synchronized int shipPending() {
+        int shipped = 0;
+        AuditJournal.Position position = journal.readCheckpoint();
+        while (true) {
+            AuditJournal.Batch batch = journal.read(position, batchSize);
+            List<AuditEntry> entries = batch.getEntries();
+            if (!entries.isEmpty()) {
+                auditRepository.recordBatch(entries);
+                shipped += entries.size();
+            }
+            if (!batch.getNext().equals(position)) {
+                journal.checkpoint(batch.getNext());
+                position = batch.getNext();
+            }
+            if (entries.size() < batchSize) {
+                return shipped;
+            }
+        }
+    }
+
+    /**
+     * Останавливает фоновый поток и пытается отправить оставшиеся записи.
+     * Неотправленные записи остаются в журнале до следующего запуска.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            shipPending();
+        } catch (RuntimeException e) {
+            System.err.println("Audit journal shipping on shutdown failed: " + e.getMessage());
+        }
+    }
+
+    private void run() {
+        long delay = pollMillis;
+        while (running) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                shipPending();
+                delay = pollMillis;
+            } catch (RuntimeException e) {
+                delay = Math.min(delay * 2, MAX_BACKOFF_MILLIS);
+                System.err.println("Audit journal shipping failed, retrying in " + delay + " ms: " + e.getMessage());
+            }
+        }
+    }
+}
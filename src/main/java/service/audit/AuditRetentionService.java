@@ -0,0 +1,31 @@
+package service.audit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис обслуживания секций журнала аудита.
+ * Таблица аудита секционирована по месяцам: секции создаются заранее,
+ * а записи старше срока хранения удаляются целыми секциями (DROP TABLE вместо DELETE),
+ * что не оставляет мертвых строк и не требует VACUUM.
+ */
+public interface AuditRetentionService {
+
+    /**
+     * Создает недостающие секции от текущего месяца на заданное число месяцев вперед
+     * и удаляет секции, вышедшие за срок хранения.
+     */
+    void runMaintenance();
+
+    /**
+     * Запускает периодическое обслуживание секций в фоновом потоке.
+     *
+     * @param period период обслуживания
+     * @param unit единица измерения периода
+     */
+    void startMaintenance(long period, TimeUnit unit);
+
+    /**
+     * Останавливает периодическое обслуживание.
+     */
+    void shutdown();
+}
@@ -0,0 +1,88 @@
+package service.audit;
+
+import repository.audit.AuditRepository;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реализация сервиса обслуживания секций журнала аудита.
+ * Хранятся текущий месяц и retentionMonths предыдущих; более старые секции удаляются.
+ * Записи, попавшие в секцию по умолчанию (вне созданных диапазонов), не удаляются.
+ */
+public class AuditRetentionServiceImpl implements AuditRetentionService {
+    public static final int DEFAULT_RETENTION_MONTHS = 12;
+    public static final int DEFAULT_PARTITIONS_AHEAD = 3;
+
+    private final AuditRepository auditRepository;
+    private final int retentionMonths;
+    private final int partitionsAhead;
+    private final Clock clock;
+
+    private ScheduledExecutorService scheduler;
+
+    public AuditRetentionServiceImpl(AuditRepository auditRepository, int retentionMonths, int partitionsAhead) {
+        this(auditRepository, retentionMonths, partitionsAhead, Clock.systemDefaultZone());
+    }
+
+    public AuditRetentionServiceImpl(AuditRepository auditRepository, int retentionMonths, int partitionsAhead, Clock clock) {
+        if (retentionMonths < 0 || partitionsAhead < 0) {
+            throw new IllegalArgumentException("Retention and partitions ahead must not be negative");
+        }
+        this.auditRepository = auditRepository;
+        this.retentionMonths = retentionMonths;
+        this.partitionsAhead = partitionsAhead;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void runMaintenance() {
+        YearMonth current = YearMonth.now(clock);
+        List<YearMonth> existing = auditRepository.getPartitions();
+
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                auditRepository.createPartition(month);
+            }
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (YearMonth month : existing) {
+            if (month.isBefore(oldestKept)) {
+                auditRepository.dropPartition(month);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void startMaintenance(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Audit maintenance is already running");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runMaintenance();
+            } catch (RuntimeException e) {
+                System.err.println("Audit partition maintenance failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package service.audit;
 
 import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
 
 import java.util.List;
 
@@ -33,4 +35,21 @@ public interface AuditService {
      *
      * @param entry запись аудита для сохранения в файл
      */
-}
\ No newline at end of file
+
+    /**
+     * Возвращает последние записи аудита от самых новых к более старым.
+     *
+     * @param limit наибольшее количество записей
+     * @return список последних записей аудита
+     */
+    List<AuditEntry> getRecentEntries(int limit);
+
+    /**
+     * Возвращает страницу записей аудита по фильтрам запроса.
+     * Следующая страница запрашивается через {@code query.after(page.getNextCursor())}.
+     *
+     * @param query фильтры, позиция и размер страницы
+     * @return страница записей аудита
+     */
+    AuditPage query(AuditQuery query);
+}
@@ -1,6 +1,8 @@
 package service.audit;
 
 import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
 import repository.audit.AuditRepository;
 
 import java.util.List;
@@ -8,13 +10,24 @@ import java.util.List;
 /**
  * Реализация сервиса аудита
  * Использует AuditRepository для сохранения и извлечения записей аудита.
+ * Если задан {@link AuditWriter}, записи сохраняются в фоне пакетами и вызывающий поток не ждет БД.
+ * Чтения журнала ждут фоновую запись не дольше {@link #READ_FLUSH_TIMEOUT_MILLIS} и сами ничего не пишут:
+ * если БД не принимает записи, чтение вернет журнал без последних записей, а не зависнет или упадет.
  */
 public class AuditServiceImpl implements AuditService {
+    /** Наибольшее ожидание фоновой записи перед чтением журнала */
+    static final long READ_FLUSH_TIMEOUT_MILLIS = 200;
 
     private final AuditRepository auditRepository;
+    private final AuditWriter auditWriter;
 
     public AuditServiceImpl(AuditRepository auditRepository) {
+        this(auditRepository, null);
+    }
+
+    public AuditServiceImpl(AuditRepository auditRepository, AuditWriter auditWriter) {
         this.auditRepository = auditRepository;
+        this.auditWriter = auditWriter;
     }
 
     @Override
@@ -23,12 +36,34 @@ public class AuditServiceImpl implements AuditService {
             throw new NullPointerException("Username, action and details cannot be null");
         }
 
-        auditRepository.record(username, action, details);
+        if (auditWriter == null) {
+            auditRepository.record(username, action, details);
+        } else {
+            auditWriter.submit(new AuditEntry(username, action, details));
+        }
     }
 
     @Override
     public List<AuditEntry> getEntries() {
+        if (auditWriter != null) {
+            auditWriter.awaitFlushed(READ_FLUSH_TIMEOUT_MILLIS);
+        }
         return auditRepository.getEntries();
     }
 
-}
\ No newline at end of file
+    @Override
+    public List<AuditEntry> getRecentEntries(int limit) {
+        if (auditWriter != null) {
+            auditWriter.awaitFlushed(READ_FLUSH_TIMEOUT_MILLIS);
+        }
+        return auditRepository.getRecentEntries(limit);
+    }
+
+    @Override
+    public AuditPage query(AuditQuery query) {
+        if (auditWriter != null && query.getAfter() == null) {
+            auditWriter.awaitFlushed(READ_FLUSH_TIMEOUT_MILLIS);
+        }
+        return auditRepository.query(query);
+    }
+}
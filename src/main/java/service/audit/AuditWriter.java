@@ -0,0 +1,291 @@
+package service.audit;
+
+import model.AuditEntry;
+import model.enums.AuditOverflowPolicy;
+import repository.audit.AuditRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Фоновая запись журнала аудита.
+ * Записи помещаются в ограниченную кольцевую очередь и сохраняются фоновым потоком пакетами:
+ * как только накопилось batchSize записей или прошло flushMillis с предыдущей записи в БД.
+ * Вызывающий поток не ждет обращения к БД. При переполнении очереди действует {@link AuditOverflowPolicy}.
+ * Неудачная запись пакета повторяется с растущей задержкой; пакет, не записанный после
+ * {@link #MAX_ATTEMPTS} попыток, отбрасывается, а его записи пишутся в лог.
+ * После {@link #close()} новые записи сохраняются синхронно, чтобы не терять события завершения работы.
+ */
+public class AuditWriter implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_FLUSH_MILLIS = 1_000;
+
+    /** Количество попыток записи пакета до его отбрасывания */
+    public static final int MAX_ATTEMPTS = 3;
+
+    /** Задержка перед первым повтором; перед каждым следующим удваивается */
+    static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private static final Logger LOGGER = Logger.getLogger(AuditWriter.class.getName());
+
+    private final AuditRepository auditRepository;
+    private final BlockingQueue<AuditEntry> queue;
+    private final int batchSize;
+    private final long flushMillis;
+    private final AuditOverflowPolicy overflowPolicy;
+
+    /** Сигнал фоновому потоку о накоплении полного пакета */
+    private final Object signal = new Object();
+
+    /** Упорядочивает сохранение пакетов фоновым потоком и явными вызовами flush() */
+    private final Object flushLock = new Object();
+
+    /** Количество записей, принятых в очередь */
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    /** Количество записей очереди, обработанных (сохраненных или отброшенных после попыток); под progress */
+    private long processedCount;
+
+    /** Уведомление ожидающих {@link #awaitFlushed(long)} об обработанных пакетах */
+    private final Object progress = new Object();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    /** Запрошена запись очереди, не дожидаясь полного пакета или flushMillis */
+    private volatile boolean flushRequested;
+
+    public AuditWriter(AuditRepository auditRepository) {
+        this(auditRepository, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_MILLIS, AuditOverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Создает и запускает фоновую запись журнала аудита.
+     *
+     * @param auditRepository репозиторий аудита
+     * @param capacity емкость очереди
+     * @param batchSize размер пакета, при накоплении которого запись выполняется сразу
+     * @param flushMillis наибольшая задержка записи в миллисекундах
+     * @param overflowPolicy поведение при переполнении очереди
+     * @throws IllegalArgumentException если capacity, batchSize или flushMillis не положительны
+     */
+    public AuditWriter(AuditRepository auditRepository, int capacity, int batchSize, long flushMillis,
+                       AuditOverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || batchSize <= 0 || flushMillis <= 0) {
+            throw new IllegalArgumentException("Capacity, batch size and flush interval must be positive");
+        }
+        this.auditRepository = auditRepository;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.overflowPolicy = overflowPolicy;
+
+        this.thread = new Thread(this::run, "audit-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Ставит запись в очередь на сохранение.
+     *
+     * @param entry запись аудита
+     * @return false если запись отброшена из-за переполнения очереди
+     */
+    public boolean submit(AuditEntry entry) {
+        if (!running) {
+            auditRepository.recordBatch(List.of(entry));
+            return true;
+        }
+
+        if (overflowPolicy == AuditOverflowPolicy.DROP) {
+            if (!queue.offer(entry)) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+        } else {
+            try {
+                queue.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCount.incrementAndGet();
+                return false;
+            }
+        }
+
+        submittedCount.incrementAndGet();
+
+        if (!running) {
+            flush();
+        } else if (queue.size() >= batchSize) {
+            synchronized (signal) {
+                signal.notify();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сохраняет все записи, находящиеся в очереди, в вызывающем потоке.
+     * Пакет, который не удалось записать, повторяется до {@link #MAX_ATTEMPTS} раз с удваивающейся задержкой.
+     *
+     * @throws exception.AuditRepositoryException если пакет не удалось сохранить за все попытки
+     *         (записи пакета отбрасываются и пишутся в лог, оставшиеся записи остаются в очереди)
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<AuditEntry> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    recordWithRetry(batch);
+                } finally {
+                    markProcessed(batch.size());
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /**
+     * Просит фоновый поток записать очередь и ждет, пока будут обработаны все записи,
+     * принятые до вызова, но не дольше timeoutMillis. Сам ничего не пишет и не бросает исключений,
+     * поэтому подходит для чтений журнала: при сбое БД чтение вернет данные без последних записей.
+     *
+     * @param timeoutMillis наибольшее время ожидания в миллисекундах
+     * @return true если все записи, принятые до вызова, обработаны
+     */
+    public boolean awaitFlushed(long timeoutMillis) {
+        long target = submittedCount.get();
+        flushRequested = true;
+        synchronized (signal) {
+            signal.notify();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (progress) {
+            while (processedCount < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    progress.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void markProcessed(int count) {
+        synchronized (progress) {
+            processedCount += count;
+            progress.notifyAll();
+        }
+    }
+
+    private void recordWithRetry(List<AuditEntry> batch) {
+        long backoff = RETRY_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                auditRepository.recordBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !sleep(backoff)) {
+                    failedCount.addAndGet(batch.size());
+                    logDropped(batch, attempt, e);
+                    throw e;
+                }
+                backoff *= 2;
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void logDropped(List<AuditEntry> batch, int attempts, RuntimeException cause) {
+        StringBuilder message = new StringBuilder()
+                .append("Dropping ").append(batch.size()).append(" audit entries after ")
+                .append(attempts).append(" failed attempts:");
+        for (AuditEntry entry : batch) {
+            message.append(System.lineSeparator()).append(entry);
+        }
+        LOGGER.log(Level.SEVERE, message.toString(), cause);
+    }
+
+    /**
+     * Останавливает фоновый поток и сохраняет оставшиеся записи.
+     */
+    @Override
+    public void close() {
+        running = false;
+        synchronized (signal) {
+            signal.notify();
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Возвращает количество записей, отброшенных из-за переполнения очереди.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Возвращает количество записей, которые не удалось сохранить в БД.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Возвращает текущее количество записей в очереди.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        while (running) {
+            synchronized (signal) {
+                if (running && !flushRequested && queue.size() < batchSize) {
+                    try {
+                        signal.wait(flushMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            flushRequested = false;
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // пакет уже отброшен и записан в лог, следующий flush продолжит с оставшихся записей
+            }
+        }
+    }
+}
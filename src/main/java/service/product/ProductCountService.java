@@ -0,0 +1,97 @@
+package service.product;
+
+import model.Product;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Сервис счетчиков товаров.
+ * Хранит общее количество товаров и количество по категориям и брендам в памяти,
+ * обновляет их при операциях записи и периодически сверяет с базой данных,
+ * чтобы не выполнять SELECT COUNT(*) при каждом запросе.
+ */
+public interface ProductCountService {
+
+    /**
+     * Возвращает общее количество товаров.
+     *
+     * @return количество товаров
+     */
+    long getTotalCount();
+
+    /**
+     * Возвращает количество товаров в категории.
+     *
+     * @param category категория
+     * @return количество товаров (0 если категория неизвестна)
+     */
+    long getCountByCategory(String category);
+
+    /**
+     * Возвращает количество товаров бренда.
+     *
+     * @param brand бренд
+     * @return количество товаров (0 если бренд неизвестен)
+     */
+    long getCountByBrand(String brand);
+
+    /**
+     * Возвращает быструю оценку количества товаров по статистике PostgreSQL.
+     * Предназначено для очень больших таблиц; если статистика недоступна, возвращается точный счетчик.
+     *
+     * @return оценка количества товаров
+     */
+    long getApproximateCount();
+
+    /**
+     * Выполняет запись в БД вместе с сообщением о ней счетчикам так, что сверка может определить,
+     * вошла ли запись в ее снимок. Записи не ждут ни друг друга, ни сверку.
+     * Внутри записи не следует вызывать {@link #reconcile()} и методы чтения счетчиков:
+     * сверка не сможет получить точный результат, пока запись выполняется.
+     *
+     * @param write запись в БД, вызывающая on*-методы после фиксации
+     * @return результат записи
+     */
+    <T> T trackWrite(Supplier<T> write);
+
+    /**
+     * Учитывает созданный товар.
+     *
+     * @param product созданный товар
+     */
+    void onCreated(Product product);
+
+    /**
+     * Учитывает изменение товара.
+     *
+     * @param before товар до изменения (null если неизвестен - счетчики по категориям и брендам будут пересчитаны)
+     * @param after товар после изменения (не используется, если before равен null)
+     */
+    void onUpdated(Product before, Product after);
+
+    /**
+     * Учитывает удаление товара.
+     *
+     * @param product удаленный товар (null если неизвестен - счетчики по категориям и брендам будут пересчитаны)
+     */
+    void onDeleted(Product product);
+
+    /**
+     * Сверяет счетчики с базой данных.
+     */
+    void reconcile();
+
+    /**
+     * Запускает периодическую сверку счетчиков с базой данных в фоновом потоке.
+     *
+     * @param period период сверки
+     * @param unit единица измерения периода
+     */
+    void startReconciliation(long period, TimeUnit unit);
+
+    /**
+     * Останавливает периодическую сверку.
+     */
+    void shutdown();
+}
@@ -0,0 +1,319 @@
+package service.product;
+
+import model.Product;
+import model.ProductFacets;
+import repository.product.ProductRepository;
+import util.ConnectionPoolManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Реализация сервиса счетчиков товаров.
+ * Счетчики загружаются из БД при первом обращении одним сгруппированным запросом
+ * (тем же, что строит фасеты поиска), затем поддерживаются инкрементально.
+ * Если изменение не удалось учесть точно (неизвестно прежнее состояние товара),
+ * счетчики по категориям и брендам помечаются устаревшими и пересчитываются при следующем чтении.
+ * Периодическая сверка устраняет расхождения от изменений, выполненных в обход сервиса.
+ * Сверка не блокирует записи: подсчет идет в транзакции со снимком данных, а изменения, о которых
+ * записи сообщили во время подсчета, запоминаются и применяются повторно поверх результата сверки.
+ * Повторяются изменения только тех записей через {@link #trackWrite}, что начались после фиксации снимка.
+ * Если о себе сообщила или еще выполняется запись, начатая до снимка, неизвестно, вошла ли она в снимок;
+ * тогда сверка повторяется, а после {@link #MAX_RECONCILE_ATTEMPTS} попыток расхождение оставляется
+ * следующей периодической сверке.
+ * Сверка читает основной сервер, чтобы отстающая реплика не заменила точные счетчики устаревшими.
+ */
+public class ProductCountServiceImpl implements ProductCountService {
+    private static final Logger LOGGER = Logger.getLogger(ProductCountServiceImpl.class.getName());
+
+    static final int MAX_RECONCILE_ATTEMPTS = 3;
+
+    private final ProductRepository productRepository;
+
+    /** Не дает выполнять несколько сверок одновременно; берется до lock */
+    private final Object reconcileLock = new Object();
+
+    /** Защищает счетчики, флаги и состояние сверки ниже; удерживается только на короткие обновления */
+    private final Object lock = new Object();
+
+    /** Эпоха, в которой начата выполняемая потоком запись через trackWrite */
+    private final ThreadLocal<Long> writeEpoch = new ThreadLocal<>();
+
+    private long total;
+    private final Map<String, Long> byCategory = new HashMap<>();
+    private final Map<String, Long> byBrand = new HashMap<>();
+
+    /** Счетчики загружены из БД */
+    private boolean initialized;
+
+    /** Счетчики по категориям и брендам требуют пересчета */
+    private boolean breakdownStale;
+
+    /** Увеличивается при фиксации снимка каждой сверкой */
+    private long epoch;
+
+    /** Количество выполняющихся записей по эпохе их начала */
+    private final Map<Long, Integer> writesInFlight = new HashMap<>();
+
+    /** Изменения, которые нужно повторить после сверки; null, когда сверка не выполняется */
+    private List<Runnable> changesDuringReconcile;
+
+    /** Эпоха снимка выполняемой сверки; Long.MAX_VALUE, пока снимок не зафиксирован */
+    private long snapshotEpoch = Long.MAX_VALUE;
+
+    /** Во время сверки сообщено изменение, которое могло войти в снимок */
+    private boolean changesAmbiguous;
+
+    private ScheduledExecutorService scheduler;
+
+    public ProductCountServiceImpl(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public long getTotalCount() {
+        ensureCounts(false);
+        synchronized (lock) {
+            return total;
+        }
+    }
+
+    @Override
+    public long getCountByCategory(String category) {
+        ensureCounts(true);
+        synchronized (lock) {
+            return byCategory.getOrDefault(category, 0L);
+        }
+    }
+
+    @Override
+    public long getCountByBrand(String brand) {
+        ensureCounts(true);
+        synchronized (lock) {
+            return byBrand.getOrDefault(brand, 0L);
+        }
+    }
+
+    @Override
+    public <T> T trackWrite(Supplier<T> write) {
+        if (writeEpoch.get() != null) {
+            return write.get();
+        }
+        long started;
+        synchronized (lock) {
+            started = epoch;
+            writesInFlight.merge(started, 1, Integer::sum);
+        }
+        writeEpoch.set(started);
+        try {
+            return write.get();
+        } finally {
+            writeEpoch.remove();
+            synchronized (lock) {
+                writesInFlight.computeIfPresent(started, (key, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    @Override
+    public long getApproximateCount() {
+        long estimate = productRepository.getApproximateCount();
+        return estimate >= 0 ? estimate : getTotalCount();
+    }
+
+    @Override
+    public void onCreated(Product product) {
+        report(() -> {
+            total++;
+            increment(byCategory, product.getCategory(), 1);
+            increment(byBrand, product.getBrand(), 1);
+        });
+    }
+
+    @Override
+    public void onUpdated(Product before, Product after) {
+        report(() -> {
+            if (before == null) {
+                breakdownStale = true;
+                return;
+            }
+            increment(byCategory, before.getCategory(), -1);
+            increment(byBrand, before.getBrand(), -1);
+            increment(byCategory, after.getCategory(), 1);
+            increment(byBrand, after.getBrand(), 1);
+        });
+    }
+
+    @Override
+    public void onDeleted(Product product) {
+        report(() -> {
+            total--;
+            if (product == null) {
+                breakdownStale = true;
+                return;
+            }
+            increment(byCategory, product.getCategory(), -1);
+            increment(byBrand, product.getBrand(), -1);
+        });
+    }
+
+    /**
+     * Применяет изменение к загруженным счетчикам и, если идет сверка, запоминает его для повтора
+     * поверх ее результата либо отмечает, что оно могло войти в снимок.
+     */
+    private void report(Runnable change) {
+        Long started = writeEpoch.get();
+        synchronized (lock) {
+            if (initialized) {
+                change.run();
+            }
+            if (changesDuringReconcile != null) {
+                if (started != null && started >= snapshotEpoch) {
+                    changesDuringReconcile.add(change);
+                } else {
+                    changesAmbiguous = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            for (int attempt = 1; attempt <= MAX_RECONCILE_ATTEMPTS; attempt++) {
+                if (reconcileOnce()) {
+                    return;
+                }
+            }
+            LOGGER.fine("Product counts may be inexact until the next reconciliation: writes overlapped the snapshot");
+        }
+    }
+
+    /**
+     * Выполняет одну сверку.
+     *
+     * @return true, если результат точен: ни одна запись, начатая до снимка, не сообщила о себе
+     * во время сверки и не выполняется в момент замены счетчиков
+     */
+    private boolean reconcileOnce() {
+        synchronized (lock) {
+            changesDuringReconcile = new ArrayList<>();
+            snapshotEpoch = Long.MAX_VALUE;
+            changesAmbiguous = false;
+        }
+
+        ProductFacets counts;
+        try {
+            counts = ConnectionPoolManager.callOnPrimary(
+                    () -> productRepository.countSnapshot(this::markSnapshot));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                changesDuringReconcile = null;
+                snapshotEpoch = Long.MAX_VALUE;
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            boolean exact = !changesAmbiguous && !hasWritesStartedBefore(snapshotEpoch);
+            apply(counts);
+            for (Runnable change : changesDuringReconcile) {
+                change.run();
+            }
+            changesDuringReconcile = null;
+            snapshotEpoch = Long.MAX_VALUE;
+            return exact;
+        }
+    }
+
+    private void markSnapshot() {
+        synchronized (lock) {
+            snapshotEpoch = ++epoch;
+        }
+    }
+
+    private boolean hasWritesStartedBefore(long snapshot) {
+        for (long started : writesInFlight.keySet()) {
+            if (started < snapshot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(ProductFacets counts) {
+        long reconciledTotal = 0;
+        for (long bucketCount : counts.getPriceBucketCounts()) {
+            reconciledTotal += bucketCount;
+        }
+        byCategory.clear();
+        byCategory.putAll(counts.getCategoryCounts());
+        byBrand.clear();
+        byBrand.putAll(counts.getBrandCounts());
+        total = reconciledTotal;
+
+        breakdownStale = false;
+        initialized = true;
+    }
+
+    @Override
+    public synchronized void startReconciliation(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Reconciliation is already running");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-count-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Product count reconciliation failed", e);
+            }
+        }, period, period, unit);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void ensureCounts(boolean withBreakdown) {
+        if (isCurrent(withBreakdown)) {
+            return;
+        }
+        synchronized (reconcileLock) {
+            if (!isCurrent(withBreakdown)) {
+                reconcile();
+            }
+        }
+    }
+
+    private boolean isCurrent(boolean withBreakdown) {
+        synchronized (lock) {
+            return initialized && !(withBreakdown && breakdownStale);
+        }
+    }
+
+    private static void increment(Map<String, Long> counters, String key, long delta) {
+        long value = counters.getOrDefault(key, 0L) + delta;
+        if (value > 0) {
+            counters.put(key, value);
+        } else {
+            counters.remove(key);
+        }
+    }
+}
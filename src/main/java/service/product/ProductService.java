@@ -1,9 +1,22 @@
 package service.product;
 
+import index.SearchPlan;
+import model.CatalogItem;
+import model.ImportReport;
+import model.NewProduct;
 import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.SyncReport;
+import model.enums.ExportFormat;
 
+import java.io.OutputStream;
+import java.io.Reader;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Сервис для управления товарами в системе каталога.
@@ -16,11 +29,51 @@ public interface ProductService {
      * @param name название товара
      * @param category категория товара
      * @param brand бренд товара
-     * @param price цена товара
+     * @param price цена товара в копейках
      * @param description описание товара
      * @return созданный объект товара
      */
-    Product createProduct(String name, String category, String brand, double price, String description, Long userId);
+    Product createProduct(String name, String category, String brand, long price, String description, Long userId);
+
+    /**
+     * Создает несколько товаров одной пакетной операцией.
+     * Кэш поиска сбрасывается один раз на весь пакет.
+     *
+     * @param products данные новых товаров
+     * @param userId ID пользователя, создающего товары
+     * @return созданные товары в порядке входного списка
+     */
+    List<Product> createProducts(List<NewProduct> products, Long userId);
+
+    /**
+     * Импортирует каталог товаров из CSV.
+     * После импорта кэш поиска сбрасывается один раз, индекс в памяти помечается незагруженным
+     * и загружается заново при следующем обращении, счетчики сверяются с БД.
+     *
+     * @param csv источник данных в формате CSV
+     * @param userId ID пользователя, от имени которого создаются новые товары
+     * @return результат импорта
+     */
+    ImportReport importCatalog(Reader csv, Long userId);
+
+    /**
+     * Синхронизирует каталог с фидом поставщика по внешнему артикулу.
+     * Если ни один товар не изменился, кэш поиска не сбрасывается.
+     *
+     * @param items товары фида
+     * @param userId ID пользователя, от имени которого создаются новые товары
+     * @return количество созданных, измененных и неизмененных товаров
+     */
+    SyncReport syncCatalog(List<CatalogItem> items, Long userId);
+
+    /**
+     * Выгружает каталог товаров в поток без загрузки товаров в память.
+     *
+     * @param out поток для записи данных (не закрывается)
+     * @param format формат выгрузки
+     * @return количество выгруженных товаров
+     */
+    long exportCatalog(OutputStream out, ExportFormat format);
 
     /**
      * Обновляет существующий товар по идентификатору.
@@ -30,11 +83,11 @@ public interface ProductService {
      * @param name новое название товара
      * @param category новая категория товара
      * @param brand новый бренд товара
-     * @param price новая цена товара
+     * @param price новая цена товара в копейках
      * @param description новое описание товара
      * @return true если товар успешно обновлен, false если товар не найден
      */
-    Product updateProduct(long id, String name, String category, String brand, Double price, String description);
+    Product updateProduct(long id, String name, String category, String brand, Long price, String description);
 
     /**
      * Удаляет товар по идентификатору.
@@ -52,6 +105,40 @@ public interface ProductService {
      */
     Optional<Product> getProductById(long id);
 
+    /**
+     * Находит товары по ID. Товары, имеющиеся в индексе в памяти, берутся оттуда,
+     * остальные запрашиваются из БД одним запросом.
+     *
+     * @param ids ID товаров
+     * @return найденные товары по ID в порядке первого появления ID во входном массиве
+     */
+    Map<Long, Product> getProductsByIds(long[] ids);
+
+    /**
+     * Удаляет товары по ID одним запросом.
+     *
+     * @param ids ID товаров для удаления
+     * @return ID фактически удаленных товаров
+     */
+    Set<Long> deleteProducts(long[] ids);
+
+    /**
+     * Обновляет цены нескольких товаров одним запросом.
+     *
+     * @param prices новые цены в копейках по ID товаров
+     * @return обновленные товары по ID
+     */
+    Map<Long, Product> updatePrices(Map<Long, Long> prices);
+
+    /**
+     * Применяет много частичных изменений товаров пакетами в одной транзакции.
+     * Кэш поиска сбрасывается один раз на весь набор.
+     *
+     * @param patches частичные изменения товаров
+     * @return количество обновленных товаров
+     */
+    int updateProducts(List<ProductPatch> patches);
+
     /**
      * Выполняет поиск товаров по заданным критериям.
      * Все параметры могут быть null - в этом случае соответствующий критерий не применяется.
@@ -59,11 +146,72 @@ public interface ProductService {
      * @param nameSubstr подстрока для поиска в названии товара
      * @param category категория для фильтрации
      * @param brand бренд для фильтрации
-     * @param priceMin минимальная цена для фильтрации
-     * @param priceMax максимальная цена для фильтрации
+     * @param priceMin минимальная цена в копейках для фильтрации
+     * @param priceMax максимальная цена в копейках для фильтрации
      * @return список товаров, удовлетворяющих критериям поиска
      */
-    List<Product> searchProducts(String nameSubstr, String category, String brand, Double priceMin, Double priceMax);
+    List<Product> searchProducts(String nameSubstr, String category, String brand, Long priceMin, Long priceMax);
+
+    /**
+     * Выполняет несколько независимых поисков.
+     * Результаты, найденные в кэше, возвращаются сразу; остальные запросы выполняются вместе,
+     * за одно обращение к базе данных.
+     *
+     * @param criteriaList список критериев поиска
+     * @return результаты поиска для каждого критерия в том же порядке
+     */
+    List<List<Product>> searchBatch(List<ProductSearchCriteria> criteriaList);
+
+    /**
+     * Возвращает фасетные счетчики (категории, бренды, ценовые диапазоны) для критериев поиска.
+     * Результат кэшируется под тем же ключом, что и результаты поиска.
+     *
+     * @param nameSubstr подстрока для поиска в названии товара
+     * @param category категория для фильтрации
+     * @param brand бренд для фильтрации
+     * @param priceMin минимальная цена в копейках для фильтрации
+     * @param priceMax максимальная цена в копейках для фильтрации
+     * @return фасетные счетчики для товаров, удовлетворяющих критериям поиска
+     */
+    ProductFacets getSearchFacets(String nameSubstr, String category, String brand, Long priceMin, Long priceMax);
+
+    /**
+     * Возвращает план, которым был бы выполнен поиск по заданным критериям, не выполняя его:
+     * выбранный способ (БД, пересечение списков ID или просмотр в памяти) и оценки стоимости и числа строк.
+     * Без индекса в памяти поиск всегда выполняется в БД.
+     *
+     * @param nameSubstr подстрока для поиска в названии товара
+     * @param category категория для фильтрации
+     * @param brand бренд для фильтрации
+     * @param priceMin минимальная цена в копейках для фильтрации
+     * @param priceMax максимальная цена в копейках для фильтрации
+     * @return план выполнения поиска
+     */
+    SearchPlan explainSearch(String nameSubstr, String category, String brand, Long priceMin, Long priceMax);
+
+    /**
+     * Выполняет поиск товаров по названию и бренду с учетом опечаток.
+     * Каждое слово запроса должно совпасть со словом товара с точностью до maxEdits правок.
+     *
+     * @param query поисковый запрос
+     * @param maxEdits допустимое число правок на слово
+     * @param limit максимальное количество результатов
+     * @return найденные товары, упорядоченные по близости к запросу
+     * @throws IllegalStateException если индекс товаров в памяти не используется
+     */
+    List<Product> fuzzySearch(String query, int maxEdits, int limit);
+
+    /**
+     * Возвращает подсказки автодополнения по названиям и брендам товаров.
+     *
+     * @param prefix введенный префикс
+     * @param limit максимальное количество подсказок
+     * @return подсказки от встречающихся в большем числе товаров к меньшему, при равенстве - по алфавиту
+     * @throws NullPointerException если prefix равен null
+     * @throws IllegalArgumentException если limit не положительный
+     * @throws IllegalStateException если индекс товаров в памяти не используется
+     */
+    List<String> suggest(String prefix, int limit);
 
     /**
      * Создает ключ кэша на основе параметров поиска.
@@ -71,11 +219,11 @@ public interface ProductService {
      * @param nameSubstr подстрока для поиска в названии товара
      * @param category категория для фильтрации
      * @param brand бренд для фильтрации
-     * @param priceMin минимальная цена для фильтрации
-     * @param priceMax максимальная цена для фильтрации
+     * @param priceMin минимальная цена в копейках для фильтрации
+     * @param priceMax максимальная цена в копейках для фильтрации
      * @return строковый ключ для кэширования результатов поиска
      */
-    String createCacheKey(String nameSubstr, String category, String brand, Double priceMin, Double priceMax);
+    String createCacheKey(String nameSubstr, String category, String brand, Long priceMin, Long priceMax);
 
     /**
      * Возвращает общее количество товаров в системе.
@@ -84,6 +232,14 @@ public interface ProductService {
      */
     int getTotalProductsCount();
 
+    /**
+     * Возвращает быструю оценку количества товаров без просмотра таблицы.
+     * Предназначено для очень больших каталогов, где допустима неточность.
+     *
+     * @return оценка количества товаров
+     */
+    long getApproximateProductsCount();
+
     /**
      * Возвращает все товары в системе.
      *
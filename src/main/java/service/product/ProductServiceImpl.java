@@ -1,48 +1,193 @@
 package service.product;
 
 import cache.QueryCache;
+import index.ProductIndex;
+import index.SearchPlan;
+import index.SearchPlanner;
+import model.CatalogItem;
+import model.ImportReport;
+import model.NewProduct;
 import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.SyncReport;
+import model.enums.ExportFormat;
 import repository.product.ProductRepository;
 
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Реализация сервиса для управления товарами с поддержкой кэширования запросов.
  * Автоматически инвалидирует кэш при изменении данных товаров.
+ * Если задан индекс в памяти, операции записи обновляют его инкрементально, а способ выполнения
+ * каждого поиска (БД, пересечение списков ID или полный просмотр в памяти) выбирает {@link SearchPlanner}.
+ * Если задан сервис счетчиков, количество товаров берется из него, а операции записи его обновляют.
  */
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final QueryCache queryCache;
 
+    /** Копия каталога в памяти; null если поиск выполняется только в БД */
+    private final ProductIndex productIndex;
+
+    /** Планировщик поиска; null если индекс в памяти не используется */
+    private final SearchPlanner searchPlanner;
+
+    /** Счетчики товаров; null если количество считается запросом к БД */
+    private final ProductCountService productCountService;
+
     public ProductServiceImpl(ProductRepository productRepository, QueryCache queryCache) {
+        this(productRepository, queryCache, null);
+    }
+
+    public ProductServiceImpl(ProductRepository productRepository, QueryCache queryCache, ProductIndex productIndex) {
+        this(productRepository, queryCache, productIndex, null);
+    }
+
+    public ProductServiceImpl(ProductRepository productRepository, QueryCache queryCache, ProductIndex productIndex,
+                              ProductCountService productCountService) {
         this.productRepository = productRepository;
         this.queryCache = queryCache;
+        this.productIndex = productIndex;
+        this.searchPlanner = productIndex == null ? null : new SearchPlanner(productIndex);
+        this.productCountService = productCountService;
+    }
+
+    /**
+     * Выполняет запись, после которой обновляются счетчики товаров, так, чтобы сверка счетчиков
+     * не попала между записью в БД и обновлением счетчиков.
+     */
+    private <T> T countedWrite(Supplier<T> write) {
+        return productCountService == null ? write.get() : productCountService.trackWrite(write);
     }
 
     @Override
-    public Product createProduct(String name, String category, String brand, double price, String description, Long userId) {
-        Product product = productRepository.create(name, category, brand, price, description, userId);
-        queryCache.invalidateAll();
-        return product;
+    public Product createProduct(String name, String category, String brand, long price, String description, Long userId) {
+        return countedWrite(() -> {
+            Product product = productRepository.create(name, category, brand, price, description, userId);
+            queryCache.invalidateAll();
+            if (productIndex != null) {
+                productIndex.put(product);
+            }
+            if (productCountService != null) {
+                productCountService.onCreated(product);
+            }
+            return product;
+        });
     }
 
     @Override
-    public Product updateProduct(long id, String name, String category, String brand, Double price, String description) {
-        Product product = productRepository.update(id, name, category, brand, price, description);
-        if (product != null) {
+    public List<Product> createProducts(List<NewProduct> products, Long userId) {
+        return countedWrite(() -> {
+            if (products.isEmpty()) {
+                return List.of();
+            }
+            List<Product> created = productRepository.createAll(products, userId);
             queryCache.invalidateAll();
-        }
-        return product;
+            for (Product product : created) {
+                if (productIndex != null) {
+                    productIndex.put(product);
+                }
+                if (productCountService != null) {
+                    productCountService.onCreated(product);
+                }
+            }
+            return created;
+        });
     }
 
     @Override
-    public boolean deleteProduct(long id) {
-        boolean isDeleted = productRepository.delete(id);
-        if (isDeleted) {
+    public ImportReport importCatalog(Reader csv, Long userId) {
+        ImportReport report = countedWrite(() -> {
+            ImportReport imported = productRepository.importCsv(csv, userId);
             queryCache.invalidateAll();
+            if (productIndex != null) {
+                productIndex.invalidate();
+            }
+            return imported;
+        });
+        if (productCountService != null) {
+            productCountService.reconcile();
         }
-        return isDeleted;
+        return report;
+    }
+
+    @Override
+    public SyncReport syncCatalog(List<CatalogItem> items, Long userId) {
+        return countedWrite(() -> {
+            SyncReport report = productRepository.syncCatalog(items, userId);
+            if (!report.hasChanges()) {
+                return report;
+            }
+            queryCache.invalidateAll();
+            for (Product product : report.getInserted()) {
+                if (productIndex != null) {
+                    productIndex.put(product);
+                }
+                if (productCountService != null) {
+                    productCountService.onCreated(product);
+                }
+            }
+            for (Product product : report.getUpdated()) {
+                Product before = productIndex == null ? null : productIndex.get(product.getId()).orElse(null);
+                if (productIndex != null) {
+                    productIndex.put(product);
+                }
+                if (productCountService != null) {
+                    productCountService.onUpdated(before, product);
+                }
+            }
+            return report;
+        });
+    }
+
+    @Override
+    public long exportCatalog(OutputStream out, ExportFormat format) {
+        return productRepository.exportTo(out, format);
+    }
+
+    @Override
+    public Product updateProduct(long id, String name, String category, String brand, Long price, String description) {
+        return countedWrite(() -> {
+            Product before = productIndex == null ? null : productIndex.get(id).orElse(null);
+            Product product = productRepository.update(id, name, category, brand, price, description);
+            if (product != null) {
+                queryCache.invalidateAll();
+                if (productIndex != null) {
+                    productIndex.put(product);
+                }
+                if (productCountService != null) {
+                    productCountService.onUpdated(before, product);
+                }
+            }
+            return product;
+        });
+    }
+
+    @Override
+    public boolean deleteProduct(long id) {
+        return countedWrite(() -> {
+            boolean isDeleted = productRepository.delete(id);
+            if (isDeleted) {
+                queryCache.invalidateAll();
+                Product removed = productIndex == null ? null : productIndex.remove(id).orElse(null);
+                if (productCountService != null) {
+                    productCountService.onDeleted(removed);
+                }
+            }
+            return isDeleted;
+        });
     }
 
     @Override
@@ -51,7 +196,91 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<Product> searchProducts(String nameSubstr, String category, String brand, Double priceMin, Double priceMax) {
+    public Map<Long, Product> getProductsByIds(long[] ids) {
+        Map<Long, Product> result = new LinkedHashMap<>();
+        long[] misses = new long[ids.length];
+        int missCount = 0;
+        boolean indexed = productIndex != null && productIndex.isLoaded();
+
+        for (long id : ids) {
+            if (result.containsKey(id)) {
+                continue;
+            }
+            Product product = indexed ? productIndex.get(id).orElse(null) : null;
+            result.put(id, product);
+            if (product == null) {
+                misses[missCount++] = id;
+            }
+        }
+
+        if (missCount > 0) {
+            Map<Long, Product> fetched = productRepository.findByIds(Arrays.copyOf(misses, missCount));
+            for (int i = 0; i < missCount; i++) {
+                Product product = fetched.get(misses[i]);
+                if (product == null) {
+                    result.remove(misses[i]);
+                } else {
+                    result.put(misses[i], product);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Long> deleteProducts(long[] ids) {
+        return countedWrite(() -> {
+            Set<Long> deleted = productRepository.deleteByIds(ids);
+            if (!deleted.isEmpty()) {
+                queryCache.invalidateAll();
+                for (Long id : deleted) {
+                    Product removed = productIndex == null ? null : productIndex.remove(id).orElse(null);
+                    if (productCountService != null) {
+                        productCountService.onDeleted(removed);
+                    }
+                }
+            }
+            return deleted;
+        });
+    }
+
+    @Override
+    public Map<Long, Product> updatePrices(Map<Long, Long> prices) {
+        Map<Long, Product> updated = productRepository.updatePrices(prices);
+        if (!updated.isEmpty()) {
+            queryCache.invalidateAll();
+            if (productIndex != null) {
+                for (Product product : updated.values()) {
+                    productIndex.put(product);
+                }
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public int updateProducts(List<ProductPatch> patches) {
+        return countedWrite(() -> {
+            Map<Long, Product> updated = productRepository.updatePartialBatch(patches);
+            if (updated.isEmpty()) {
+                return 0;
+            }
+            queryCache.invalidateAll();
+            for (Product after : updated.values()) {
+                Product before = productIndex == null ? null : productIndex.get(after.getId()).orElse(null);
+                if (productIndex != null) {
+                    productIndex.put(after);
+                }
+                if (productCountService != null && (before != null || regroups(patches, after.getId()))) {
+                    productCountService.onUpdated(before, after);
+                }
+            }
+            return updated.size();
+        });
+    }
+
+    @Override
+    public List<Product> searchProducts(String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
         String cacheKey = createCacheKey(nameSubstr, category, brand, priceMin, priceMax);
 
         List<Product> cachedResult = queryCache.get(cacheKey);
@@ -59,24 +288,187 @@ public class ProductServiceImpl implements ProductService {
             return cachedResult;
         }
 
-        List<Product> result = productRepository.search(nameSubstr, category, brand, priceMin, priceMax);
+        List<Product> result = productIndex == null
+                ? productRepository.search(nameSubstr, category, brand, priceMin, priceMax)
+                : plannedSearch(new ProductSearchCriteria(nameSubstr, category, brand, priceMin, priceMax));
         queryCache.put(cacheKey, result);
         return result;
     }
 
+    @Override
+    public List<List<Product>> searchBatch(List<ProductSearchCriteria> criteriaList) {
+        List<List<Product>> results = new ArrayList<>(criteriaList.size());
+        Map<String, ProductSearchCriteria> databaseMisses = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>(criteriaList.size());
+
+        for (ProductSearchCriteria criteria : criteriaList) {
+            String cacheKey = createCacheKey(criteria.getNameSubstring(), criteria.getCategory(), criteria.getBrand(),
+                    criteria.getMinPrice(), criteria.getMaxPrice());
+            keys.add(cacheKey);
+
+            if (databaseMisses.containsKey(cacheKey)) {
+                results.add(null);
+                continue;
+            }
+            List<Product> cachedResult = queryCache.get(cacheKey);
+            if (cachedResult == null) {
+                if (productIndex != null) {
+                    SearchPlan plan = plan(criteria);
+                    if (plan.getRoute() != SearchPlan.Route.DATABASE) {
+                        cachedResult = executeInMemory(plan, criteria);
+                        queryCache.put(cacheKey, cachedResult);
+                    }
+                }
+                if (cachedResult == null) {
+                    databaseMisses.put(cacheKey, criteria);
+                }
+            }
+            results.add(cachedResult);
+        }
+
+        if (!databaseMisses.isEmpty()) {
+            List<List<Product>> fetched = productRepository.searchBatch(new ArrayList<>(databaseMisses.values()));
+            Map<String, List<Product>> fetchedByKey = new HashMap<>();
+            int i = 0;
+            for (String cacheKey : databaseMisses.keySet()) {
+                List<Product> result = fetched.get(i++);
+                queryCache.put(cacheKey, result);
+                fetchedByKey.put(cacheKey, result);
+            }
+            for (int j = 0; j < results.size(); j++) {
+                if (results.get(j) == null) {
+                    results.set(j, fetchedByKey.get(keys.get(j)));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public ProductFacets getSearchFacets(String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
+        String cacheKey = createCacheKey(nameSubstr, category, brand, priceMin, priceMax);
+
+        ProductFacets cachedFacets = queryCache.getFacets(cacheKey);
+        if (cachedFacets != null) {
+            return cachedFacets;
+        }
+
+        ProductFacets facets = productRepository.facets(nameSubstr, category, brand, priceMin, priceMax);
+        queryCache.putFacets(cacheKey, facets);
+        return facets;
+    }
+
+    @Override
+    public SearchPlan explainSearch(String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
+        if (productIndex == null) {
+            return new SearchPlan(SearchPlan.Route.DATABASE, 0, -1);
+        }
+        return plan(new ProductSearchCriteria(nameSubstr, category, brand, priceMin, priceMax));
+    }
+
+    @Override
+    public List<Product> fuzzySearch(String query, int maxEdits, int limit) {
+        if (productIndex == null) {
+            throw new IllegalStateException("Fuzzy search requires an in-memory product index");
+        }
+        return loadedIndex().fuzzySearch(query, maxEdits, limit);
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        if (productIndex == null) {
+            throw new IllegalStateException("Suggestions require an in-memory product index");
+        }
+        if (prefix == null) {
+            throw new NullPointerException("Prefix cannot be null");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return loadedIndex().suggest(prefix, limit);
+    }
+
     @Override
     public int getTotalProductsCount() {
+        if (productCountService != null) {
+            return (int) productCountService.getTotalCount();
+        }
         return productRepository.getCount();
     }
 
+    @Override
+    public long getApproximateProductsCount() {
+        if (productCountService != null) {
+            return productCountService.getApproximateCount();
+        }
+        long estimate = productRepository.getApproximateCount();
+        return estimate >= 0 ? estimate : productRepository.getCount();
+    }
+
     @Override
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
     @Override
-    public String createCacheKey(String nameSubstr, String category, String brand, Double priceMin, Double priceMax) {
+    public String createCacheKey(String nameSubstr, String category, String brand, Long priceMin, Long priceMax) {
         return String.format("n=%s|c=%s|b=%s|min=%s|max=%s",
                 nameSubstr, category, brand, priceMin, priceMax);
     }
+
+    /**
+     * Выполняет поиск способом, выбранным планировщиком.
+     */
+    private List<Product> plannedSearch(ProductSearchCriteria criteria) {
+        SearchPlan plan = plan(criteria);
+        if (plan.getRoute() == SearchPlan.Route.DATABASE) {
+            return productRepository.search(criteria.getNameSubstring(), criteria.getCategory(), criteria.getBrand(),
+                    criteria.getMinPrice(), criteria.getMaxPrice());
+        }
+        return executeInMemory(plan, criteria);
+    }
+
+    /**
+     * Проверяет, меняет ли какое-либо из изменений категорию или бренд товара.
+     */
+    private static boolean regroups(List<ProductPatch> patches, long id) {
+        for (ProductPatch patch : patches) {
+            if (patch.getId() == id && (patch.getCategory() != null || patch.getBrand() != null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Составляет план поиска по статистике индекса, при необходимости сначала загружая индекс.
+     */
+    private SearchPlan plan(ProductSearchCriteria criteria) {
+        loadedIndex();
+        return searchPlanner.plan(criteria);
+    }
+
+    /**
+     * Выполняет поиск по индексу в памяти способом из плана.
+     */
+    private List<Product> executeInMemory(SearchPlan plan, ProductSearchCriteria criteria) {
+        if (plan.getRoute() == SearchPlan.Route.INDEX_INTERSECTION) {
+            return productIndex.searchIntersection(criteria);
+        }
+        return productIndex.search(criteria);
+    }
+
+    /**
+     * Возвращает индекс в памяти, при первом обращении загружая в него каталог из БД.
+     */
+    private ProductIndex loadedIndex() {
+        if (!productIndex.isLoaded()) {
+            synchronized (productIndex) {
+                if (!productIndex.isLoaded()) {
+                    productIndex.load(productRepository.findAll());
+                }
+            }
+        }
+        return productIndex;
+    }
 }
@@ -3,7 +3,11 @@ package ui;
 import controller.*;
 import model.AuditEntry;
 import model.Product;
+import model.ProductFacets;
+import model.ProductSearchResult;
 import model.User;
+import util.Prices;
+
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -147,6 +151,7 @@ public class ConsoleUI {
         9) Сменить пользователя (Выйти)
         0) Выйти из приложения
         u) Показать пользователей
+        a) Подсказки по названию
         
         Выберите:\s""";
         System.out.print(menu);
@@ -164,6 +169,7 @@ public class ConsoleUI {
             case "9": logout(); break;
             case "0": logout(); return;
             case "u": showUsers(); break;
+            case "a": handleSuggest(); break;
             default: System.out.println("Неверный выбор");
         }
     }
@@ -175,7 +181,7 @@ public class ConsoleUI {
         System.out.print("Название: "); String name = scanner.nextLine().trim();
         System.out.print("Категория: "); String category = scanner.nextLine().trim();
         System.out.print("Бренд: "); String brand = scanner.nextLine().trim();
-        System.out.print("Цена: "); double price = safeReadDouble();
+        System.out.print("Цена: "); long price = safeReadPrice();
         System.out.print("Описание: "); String description = scanner.nextLine().trim();
 
         Product product = productController.createProduct(currentUser.getUsername(), name, category, brand, price, description, currentUser.getId());
@@ -205,7 +211,7 @@ public class ConsoleUI {
         System.out.print("Новый бренд (Enter чтобы оставить): ");
         String brand = readOptionalString();
         System.out.print("Новая цена (Enter чтобы оставить): ");
-        Double price = readOptionalDouble();
+        Long price = readOptionalPrice();
         System.out.print("Новое описание (Enter чтобы оставить): ");
         String description = readOptionalString();
 
@@ -243,15 +249,58 @@ public class ConsoleUI {
         System.out.print("Название содержит: "); String name = readOptionalString();
         System.out.print("Категория: "); String category = readOptionalString();
         System.out.print("Бренд: "); String brand = readOptionalString();
-        System.out.print("Цена min: "); Double minPrice = readOptionalDouble();
-        System.out.print("Цена max: "); Double maxPrice = readOptionalDouble();
+        System.out.print("Цена min: "); Long minPrice = readOptionalPrice();
+        System.out.print("Цена max: "); Long maxPrice = readOptionalPrice();
 
         long startTime = System.currentTimeMillis();
-        List<Product> results = productController.searchProducts(currentUser.getUsername(), name, category, brand, minPrice, maxPrice);
+        ProductSearchResult searchResult = productController.searchWithSummary(currentUser.getUsername(), name, category, brand, minPrice, maxPrice);
         long endTime = System.currentTimeMillis();
+        List<Product> results = searchResult.getProducts();
 
-        System.out.println("Найдено: " + results.size() + " (время: " + (endTime - startTime) + " ms)");
+        System.out.println("Найдено: " + results.size() + " из " + searchResult.getTotalCount()
+                + " (время: " + (endTime - startTime) + " ms)");
         results.forEach(System.out::println);
+
+        if (results.isEmpty() && name != null) {
+            List<Product> suggestions = productController.fuzzySearch(currentUser.getUsername(), name, 2, 5);
+            if (!suggestions.isEmpty()) {
+                System.out.println("Возможно, вы искали:");
+                suggestions.forEach(System.out::println);
+            }
+        }
+
+        printFacets(searchResult.getFacets());
+    }
+
+    /**
+     * Выводит фасетные счетчики результатов поиска.
+     *
+     * @param facets фасетные счетчики
+     */
+    private void printFacets(ProductFacets facets) {
+        System.out.println("По категориям: " + facets.getCategoryCounts());
+        System.out.println("По брендам: " + facets.getBrandCounts());
+        long[] bucketCounts = facets.getPriceBucketCounts();
+        StringBuilder prices = new StringBuilder("По ценам:");
+        for (int i = 0; i < bucketCounts.length; i++) {
+            prices.append(' ').append(ProductFacets.bucketLabel(i)).append('=').append(bucketCounts[i]);
+        }
+        System.out.println(prices);
+    }
+
+    /**
+     * Выводит подсказки автодополнения для введенного начала названия или бренда.
+     */
+    private void handleSuggest() {
+        System.out.print("Начало названия или бренда: ");
+        String prefix = scanner.nextLine().trim();
+
+        List<String> suggestions = productController.suggest(prefix, 10);
+        if (suggestions.isEmpty()) {
+            System.out.println("Подсказок нет");
+        } else {
+            suggestions.forEach(suggestion -> System.out.println("  " + suggestion));
+        }
     }
 
     /**
@@ -333,15 +382,15 @@ public class ConsoleUI {
     }
 
     /**
-     * Читает опциональное число с плавающей точкой из консоли.
+     * Читает опциональную цену из консоли.
      * Пустой ввод интерпретируется как null.
      *
-     * @return введенное число или null если ввод пустой
-     * @throws NumberFormatException если введено некорректное число
+     * @return введенная цена в копейках или null если ввод пустой
+     * @throws NumberFormatException если введена некорректная цена
      */
-    private Double readOptionalDouble() {
+    private Long readOptionalPrice() {
         String input = scanner.nextLine().trim();
-        return input.isEmpty() ? null : Double.parseDouble(input);
+        return input.isEmpty() ? null : Prices.parse(input);
     }
 
     /**
@@ -361,17 +410,17 @@ public class ConsoleUI {
     }
 
     /**
-     * Безопасно читает число с плавающей точкой из консоли с обработкой ошибок.
-     * Повторяет запрос до получения корректного числа.
+     * Безопасно читает цену из консоли с обработкой ошибок.
+     * Повторяет запрос до получения корректной цены.
      *
-     * @return введенное число с плавающей точкой
+     * @return введенная цена в копейках
      */
-    private double safeReadDouble() {
+    private long safeReadPrice() {
         while (true) {
             try {
-                return Double.parseDouble(scanner.nextLine().trim());
+                return Prices.parse(scanner.nextLine());
             } catch (Exception e) {
-                System.out.print("Ошибка ввода. Введите число (например 12.5): ");
+                System.out.print("Ошибка ввода. Введите цену (например 12.50): ");
             }
         }
     }
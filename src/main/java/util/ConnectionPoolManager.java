@@ -6,23 +6,65 @@ import config.Config;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
- * Менеджер пула соединений с базой данных
+ * Менеджер пулов соединений с базой данных.
+ * Записи выполняются через пул основного сервера. Если в конфигурации указаны реплики,
+ * для каждой создается отдельный пул, и чтения распределяются между ними по кругу.
+ * После записи чтения того же сеанса (потока) в течение заданного окна идут на основной сервер,
+ * чтобы пользователь видел свои изменения, даже если реплика еще не получила их.
  */
 public class ConnectionPoolManager {
+    /** Размер пула по умолчанию, если он не задан в конфигурации */
+    public static final int DEFAULT_POOL_SIZE = 10;
+
+    /** Окно чтения своих записей по умолчанию в миллисекундах */
+    public static final long DEFAULT_READ_YOUR_WRITES_MILLIS = 2000;
+
     private static HikariDataSource dataSource;
+    private static List<HikariDataSource> readDataSources = List.of();
+    private static final AtomicInteger NEXT_REPLICA = new AtomicInteger();
+
+    private static int maximumPoolSize = DEFAULT_POOL_SIZE;
+    private static long readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_READ_YOUR_WRITES_MILLIS);
+
+    /** Время последней записи в текущем сеансе (System.nanoTime) */
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    /** Все чтения текущего потока идут на основной сервер (см. {@link #callOnPrimary}) */
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
 
     private ConnectionPoolManager() {
     }
 
     public static void initialize(Config config) {
+        maximumPoolSize = config.getDbPoolSize();
+        readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(config.getReadYourWritesMillis());
+        dataSource = createDataSource(config.getDbUrl(), config, maximumPoolSize, "primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> replicaUrls = config.getReplicaUrls();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = createDataSource(replicaUrls.get(i), config, maximumPoolSize, "replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        readDataSources = List.copyOf(replicas);
+    }
+
+    private static HikariDataSource createDataSource(String jdbcUrl, Config config, int poolSize, String poolName) {
         HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(config.getDbUrl());
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setJdbcUrl(jdbcUrl);
         hikariConfig.setUsername(config.getDbUsername());
         hikariConfig.setPassword(config.getDbPassword());
 
-        hikariConfig.setMaximumPoolSize(10);
+        hikariConfig.setMaximumPoolSize(poolSize);
         hikariConfig.setMinimumIdle(2);
         hikariConfig.setConnectionTimeout(30000);
         hikariConfig.setIdleTimeout(600000);
@@ -32,14 +74,30 @@ public class ConnectionPoolManager {
         hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
         hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
         hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        hikariConfig.addDataSourceProperty("reWriteBatchedInserts", "true");
 
-        dataSource = new HikariDataSource(hikariConfig);
+        return new HikariDataSource(hikariConfig);
     }
 
     /**
-     * Получить connection из пула
+     * Получить connection основного сервера для записи.
+     * Отмечает запись в текущем сеансе: последующие чтения этого сеанса
+     * в течение окна чтения своих записей пойдут на основной сервер.
      */
     public static Connection getConnection() throws SQLException {
+        if (dataSource == null) {
+            throw new IllegalStateException("Connection pool is not initialized. Call initialize() first.");
+        }
+        markWrite();
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Получить connection основного сервера для дописывания данных, которые сеанс не перечитывает
+     * (журнал аудита). В отличие от {@link #getConnection()} не включает чтение своих записей,
+     * чтобы запись аудита после каждого поиска не переводила чтения сеанса на основной сервер.
+     */
+    public static Connection getAppendConnection() throws SQLException {
         if (dataSource == null) {
             throw new IllegalStateException("Connection pool is not initialized. Call initialize() first.");
         }
@@ -47,9 +105,109 @@ public class ConnectionPoolManager {
     }
 
     /**
-     * Закрыть пул соединений
+     * Получить connection для чтения.
+     * Возвращает соединение с репликой, если реплики настроены и в текущем сеансе
+     * не было недавних записей, иначе соединение с основным сервером.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (dataSource == null) {
+            throw new IllegalStateException("Connection pool is not initialized. Call initialize() first.");
+        }
+        List<HikariDataSource> replicas = readDataSources;
+        if (replicas.isEmpty() || PRIMARY_READS.get() != null || isReadingOwnWrites()) {
+            return dataSource.getConnection();
+        }
+        int replica = Math.floorMod(NEXT_REPLICA.getAndIncrement(), replicas.size());
+        return replicas.get(replica).getConnection();
+    }
+
+    /**
+     * Отмечает запись в текущем сеансе.
+     */
+    public static void markWrite() {
+        LAST_WRITE.set(System.nanoTime());
+    }
+
+    /**
+     * Сбрасывает отметку записи текущего сеанса (например, при выходе пользователя).
+     */
+    public static void clearWriteMark() {
+        LAST_WRITE.remove();
+    }
+
+    /**
+     * Проверяет, должны ли чтения текущего сеанса идти на основной сервер,
+     * так как после последней записи не истекло окно чтения своих записей.
+     */
+    public static boolean isReadingOwnWrites() {
+        Long mark = LAST_WRITE.get();
+        return mark != null && System.nanoTime() - mark < readYourWritesNanos;
+    }
+
+    /**
+     * Выполняет вызов в другом потоке от имени сеанса с указанной отметкой последней записи,
+     * восстанавливая после вызова прежнюю отметку потока.
+     * Отметки записей, сделанных внутри вызова, в исходный сеанс не возвращаются.
+     *
+     * @param writeMark отметка последней записи сеанса (null - записей не было)
+     * @param call вызов
+     * @return результат вызова
+     */
+    public static <T> T callInSession(Long writeMark, Supplier<T> call) {
+        Long previous = LAST_WRITE.get();
+        LAST_WRITE.set(writeMark);
+        try {
+            return call.get();
+        } finally {
+            LAST_WRITE.set(previous);
+        }
+    }
+
+    /**
+     * Выполняет вызов, направляя все его чтения на основной сервер.
+     * Для чтений, результат которых заменяет точные данные приложения (сверка счетчиков),
+     * где отставание реплики недопустимо.
+     *
+     * @param call вызов
+     * @return результат вызова
+     */
+    public static <T> T callOnPrimary(Supplier<T> call) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    /**
+     * Возвращает отметку последней записи текущего сеанса для передачи в другой поток.
+     *
+     * @return время последней записи (System.nanoTime) или null, если записей не было
+     */
+    public static Long sessionWriteMark() {
+        return LAST_WRITE.get();
+    }
+
+    /**
+     * Возвращает размер пула основного сервера.
+     */
+    public static int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * Закрыть пулы соединений
      */
     public static void close() {
+        for (HikariDataSource replica : readDataSources) {
+            if (!replica.isClosed()) {
+                replica.close();
+            }
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             System.out.println("Connection pool closed successfully");
@@ -57,13 +215,21 @@ public class ConnectionPoolManager {
     }
 
     /**
-     * Получить статистику пула
+     * Получить статистику пулов
      */
     public static void printPoolStats() {
         if (dataSource != null) {
-            System.out.println("Active connections: " + dataSource.getHikariPoolMXBean().getActiveConnections());
-            System.out.println("Idle connections: " + dataSource.getHikariPoolMXBean().getIdleConnections());
-            System.out.println("Total connections: " + dataSource.getHikariPoolMXBean().getTotalConnections());
+            printPoolStats(dataSource);
         }
+        for (HikariDataSource replica : readDataSources) {
+            printPoolStats(replica);
+        }
+    }
+
+    private static void printPoolStats(HikariDataSource pool) {
+        System.out.println("[" + pool.getPoolName() + "]");
+        System.out.println("Active connections: " + pool.getHikariPoolMXBean().getActiveConnections());
+        System.out.println("Idle connections: " + pool.getHikariPoolMXBean().getIdleConnections());
+        System.out.println("Total connections: " + pool.getHikariPoolMXBean().getTotalConnections());
     }
-}
\ No newline at end of file
+}
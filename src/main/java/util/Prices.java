@@ -0,0 +1,69 @@
+package util;
+
+/**
+ * Операции с ценами в копейках.
+ * Цена хранится как long с фиксированными двумя знаками после запятой (как DECIMAL(10,2) в БД):
+ * сравнения и суммы выполняются целочисленно, без погрешности double и без объектов BigDecimal.
+ */
+public final class Prices {
+    /** Число копеек в рубле */
+    public static final long SCALE = 100;
+
+    /** Наибольшая цена, помещающаяся в DECIMAL(10,2) */
+    public static final long MAX_CENTS = 99_999_999_99L;
+
+    private Prices() {
+    }
+
+    /**
+     * Разбирает десятичную запись цены ("1299", "1299.9", "1299,99") без промежуточного double.
+     *
+     * @param text запись цены, не более двух знаков после разделителя
+     * @return цена в копейках
+     * @throws NumberFormatException если запись некорректна, отрицательна или превышает {@link #MAX_CENTS}
+     */
+    public static long parse(String text) {
+        String value = text.trim();
+        int separator = Math.max(value.indexOf('.'), value.indexOf(','));
+        String whole = separator < 0 ? value : value.substring(0, separator);
+        String fraction = separator < 0 ? "" : value.substring(separator + 1);
+
+        if (whole.isEmpty() && fraction.isEmpty() || fraction.length() > 2) {
+            throw new NumberFormatException("Invalid price: " + text);
+        }
+        long cents = 0;
+        for (int i = 0; i < whole.length(); i++) {
+            cents = cents * 10 + digit(whole.charAt(i), text);
+            if (cents > MAX_CENTS / SCALE) {
+                throw new NumberFormatException("Price is too large: " + text);
+            }
+        }
+        cents *= SCALE;
+        if (fraction.length() > 0) {
+            cents += digit(fraction.charAt(0), text) * 10L;
+        }
+        if (fraction.length() > 1) {
+            cents += digit(fraction.charAt(1), text);
+        }
+        return cents;
+    }
+
+    /**
+     * Форматирует цену с двумя знаками после точки.
+     *
+     * @param cents цена в копейках
+     * @return запись вида "1299.99"
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % SCALE;
+        return (cents < 0 ? "-" : "") + abs / SCALE + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static int digit(char c, String text) {
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Invalid price: " + text);
+        }
+        return c - '0';
+    }
+}
@@ -0,0 +1,96 @@
+package util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель асинхронных обращений к репозиториям.
+ * Число потоков задается при инициализации и должно равняться размеру пула соединений:
+ * больше одновременных JDBC-вызовов пул все равно не обслужит, лишние задачи ждут в очереди исполнителя, а не в пуле.
+ * Потоки-демоны не мешают завершению приложения.
+ * Вызов выполняется от имени сеанса вызывающего потока, поэтому чтения после собственных записей
+ * направляются на основной сервер так же, как при синхронном вызове.
+ */
+public final class RepositoryExecutor {
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private static volatile ExecutorService executor;
+
+    private RepositoryExecutor() {
+    }
+
+    /**
+     * Создает потоки исполнителя. Повторная инициализация заменяет исполнитель,
+     * позволяя предыдущему завершить начатые вызовы.
+     *
+     * @param threads число потоков, обычно размер пула соединений основного сервера
+     * @throws IllegalArgumentException если threads не положительно
+     */
+    public static synchronized void initialize(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        ExecutorService previous = executor;
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "repository-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Выполняет вызов репозитория асинхронно.
+     *
+     * @param call вызов репозитория
+     * @return future с результатом вызова
+     * @throws IllegalStateException если исполнитель не инициализирован
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        ExecutorService current = executor;
+        if (current == null) {
+            throw new IllegalStateException("Repository executor is not initialized. Call initialize() first.");
+        }
+        Long writeMark = ConnectionPoolManager.sessionWriteMark();
+        return CompletableFuture.supplyAsync(() -> ConnectionPoolManager.callInSession(writeMark, call), current);
+    }
+
+    /**
+     * Выполняет вызов репозитория без результата асинхронно.
+     *
+     * @param call вызов репозитория
+     * @return future, завершающийся после вызова
+     * @throws IllegalStateException если исполнитель не инициализирован
+     */
+    public static CompletableFuture<Void> runAsync(Runnable call) {
+        return supplyAsync(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Останавливает исполнитель, дожидаясь завершения начатых вызовов.
+     *
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени ожидания
+     */
+    public static void shutdown(long timeout, TimeUnit unit) {
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            current.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
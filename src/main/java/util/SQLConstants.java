@@ -1,5 +1,10 @@
 package util;
 
+import model.ProductFacets;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
 /**
  * Класс констант для SQL запросов
  */
@@ -11,7 +16,70 @@ public final class SQLConstants {
         public static final String TABLE = SCHEMA + ".audit_entries";
         public static final String INSERT = "INSERT INTO " + TABLE + " (timestamp, username, action, details) VALUES (?, ?, ?, ?)";
         public static final String SELECT_ALL = "SELECT id, timestamp, username, action, details FROM " + TABLE + " ORDER BY timestamp DESC";
+        public static final String SELECT_RECENT = "SELECT id, timestamp, username, action, details FROM " + TABLE + " ORDER BY timestamp DESC LIMIT ?";
         public static final String COLUMNS = "id, timestamp, username, action, details";
+
+
+        /** Месячные секции таблицы аудита: имя audit_entries_ГГГГ_ММ, границы [первое число месяца, первое число следующего) */
+        public static final String PARTITION_PREFIX = "audit_entries_";
+        public static final String SELECT_PARTITIONS = "SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "JOIN pg_namespace n ON n.oid = p.relnamespace "
+                + "WHERE n.nspname = '" + SCHEMA + "' AND p.relname = 'audit_entries'";
+        public static final String CREATE_PARTITION = "CREATE TABLE IF NOT EXISTS " + SCHEMA + ".%s PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('%s') TO ('%s')";
+        public static final String DROP_PARTITION = "DROP TABLE IF EXISTS " + SCHEMA + ".%s";
+
+        /**
+         * Архивация секции целиком: секция блокируется от вставок, читается по порядку времени,
+         * затем в той же транзакции отсоединяется и удаляется, поэтому строки не удаляются по одной.
+         */
+        public static final String LOCK_PARTITION = "LOCK TABLE " + SCHEMA + ".%s IN SHARE MODE";
+        public static final String SELECT_PARTITION = "SELECT " + COLUMNS + " FROM " + SCHEMA + ".%s ORDER BY timestamp, id";
+        public static final String DETACH_PARTITION = "ALTER TABLE " + TABLE + " DETACH PARTITION " + SCHEMA + ".%s";
+        public static final int ARCHIVE_FETCH_SIZE = 1000;
+
+        /**
+         * Биты маски фильтров запроса журнала; параметры привязываются в порядке возрастания битов, LIMIT последним.
+         * Страницы читаются по ключу (timestamp, id) в порядке убывания по составным индексам миграции 005.
+         */
+        public static final int FILTER_USERNAME = 1;
+        public static final int FILTER_ACTION = 1 << 1;
+        public static final int FILTER_FROM = 1 << 2;
+        public static final int FILTER_TO = 1 << 3;
+        public static final int FILTER_AFTER = 1 << 4;
+
+        public static final int MASK_COUNT = 1 << 5;
+
+        private static final String BASE_QUERY = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE 1=1";
+        private static final String QUERY_ORDER = " ORDER BY timestamp DESC, id DESC LIMIT ?";
+        private static final String[] QUERY_FILTER_CLAUSES = {
+                " AND username = ?",
+                " AND action = ?",
+                " AND timestamp >= ?",
+                " AND timestamp < ?",
+                " AND (timestamp, id) < (?, ?)"
+        };
+        private static final String[] QUERY_BY_MASK = new String[MASK_COUNT];
+
+        static {
+            for (int mask = 0; mask < MASK_COUNT; mask++) {
+                StringBuilder sql = new StringBuilder(BASE_QUERY);
+                for (int bit = 0; bit < QUERY_FILTER_CLAUSES.length; bit++) {
+                    if ((mask & (1 << bit)) != 0) {
+                        sql.append(QUERY_FILTER_CLAUSES[bit]);
+                    }
+                }
+                QUERY_BY_MASK[mask] = sql.append(QUERY_ORDER).toString();
+            }
+        }
+
+        /**
+         * Запрос страницы журнала аудита для маски фильтров.
+         */
+        public static String query(int mask) {
+            return QUERY_BY_MASK[mask];
+        }
     }
 
     public static final class User {
@@ -24,14 +92,188 @@ public final class SQLConstants {
 
     public static final class Product {
         public static final String TABLE = SCHEMA + ".products";
-        public static final String INSERT = "INSERT INTO " + TABLE + " (name, category, brand, price, description, user_id) VALUES (?, ?, ?, ?, ?, ?)";
-        public static final String UPDATE = "UPDATE " + TABLE + " SET name = ?, category = ?, brand = ?, price = ?, description = ?, updated_at = NOW() WHERE id = ?";
+
+        /**
+         * Цена хранится как DECIMAL(10,2), а в приложении - в копейках (long):
+         * при чтении столбец price возвращается целым числом копеек, параметры цены передаются как bigint.
+         * Преобразование выполняется в БД, поэтому на стороне JDBC нет ни double, ни BigDecimal.
+         */
+        public static final String PRICE_CENTS = "(price * 100)::bigint AS price";
+        public static final String PRICE_PARAM = "?::bigint / 100.0";
+
+        public static final String INSERT = "INSERT INTO " + TABLE + " (name, category, brand, price, description, user_id) VALUES (?, ?, ?, " + PRICE_PARAM + ", ?, ?)";
+        public static final String UPDATE = "UPDATE " + TABLE + " SET name = ?, category = ?, brand = ?, price = " + PRICE_PARAM + ", description = ?, updated_at = NOW() WHERE id = ?";
         public static final String DELETE = "DELETE FROM " + TABLE + " WHERE id = ?";
-        public static final String SELECT_BY_ID = "SELECT id, name, category, brand, price, description, created_at, updated_at FROM " + TABLE + " WHERE id = ?";
-        public static final String SELECT_ALL = "SELECT id, name, category, brand, price, description, created_at, updated_at FROM " + TABLE + " ORDER BY id";
+        public static final String COLUMNS = "id, name, category, brand, " + PRICE_CENTS + ", description, created_at, updated_at";
+        public static final String SELECT_BY_ID = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id = ?";
+        public static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM " + TABLE + " ORDER BY id";
         public static final String COUNT = "SELECT COUNT(*) FROM " + TABLE;
-        public static final String COLUMNS = "id, name, category, brand, price, description, created_at, updated_at";
+        public static final String APPROXIMATE_COUNT = "SELECT reltuples::bigint FROM pg_class WHERE oid = '" + TABLE + "'::regclass";
+        public static final String RETURNING = " RETURNING " + COLUMNS;
+        public static final String INSERT_RETURNING = INSERT + RETURNING;
+        public static final String UPDATE_RETURNING = UPDATE + RETURNING;
+        public static final int BATCH_SIZE = 1000;
+
+        /**
+         * Вставка пакета одной командой: строки передаются массивами и вставляются в порядке пакета,
+         * поэтому номера из последовательности возрастают в том же порядке, что и строки пакета.
+         */
+        public static final String INSERT_ALL_RETURNING = "INSERT INTO " + TABLE
+                + " (name, category, brand, price, description, user_id) "
+                + "SELECT u.name, u.category, u.brand, u.price / 100.0, u.description, ? "
+                + "FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::bigint[], ?::text[]) WITH ORDINALITY "
+                + "AS u(name, category, brand, price, description, ord) ORDER BY u.ord"
+                + RETURNING;
+
+        /**
+         * Синхронизация по внешнему артикулу: строки пакета передаются массивами,
+         * существующий товар обновляется только при изменении хэша содержимого.
+         * Неизмененные строки не записываются и не возвращаются; inserted отличает созданные строки.
+         */
+        public static final String SYNC_UPSERT = "INSERT INTO " + TABLE
+                + " (external_sku, name, category, brand, price, description, content_hash, user_id) "
+                + "SELECT u.sku, u.name, u.category, u.brand, u.price / 100.0, u.description, u.hash, ? "
+                + "FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::bigint[], ?::text[], ?::char(64)[]) "
+                + "AS u(sku, name, category, brand, price, description, hash) "
+                + "ON CONFLICT (external_sku) DO UPDATE SET name = EXCLUDED.name, category = EXCLUDED.category, "
+                + "brand = EXCLUDED.brand, price = EXCLUDED.price, description = EXCLUDED.description, "
+                + "content_hash = EXCLUDED.content_hash, updated_at = NOW() "
+                + "WHERE " + TABLE + ".content_hash IS DISTINCT FROM EXCLUDED.content_hash"
+                + RETURNING + ", (xmax = 0) AS inserted";
+        public static final String SELECT_BY_IDS = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id = ANY(?)";
+        public static final String DELETE_BY_IDS = "DELETE FROM " + TABLE + " WHERE id = ANY(?) RETURNING id";
+        public static final String UPDATE_PRICES = "UPDATE " + TABLE + " p SET price = u.price / 100.0, updated_at = NOW() "
+                + "FROM unnest(?::bigint[], ?::bigint[]) AS u(id, price) WHERE p.id = u.id "
+                + "RETURNING p.id, p.name, p.category, p.brand, (p.price * 100)::bigint AS price, p.description, p.created_at, p.updated_at";
+
+        /**
+         * Импорт каталога: CSV загружается командой COPY во временную таблицу,
+         * затем сливается с таблицей товаров одним запросом. Товар определяется парой (name, brand);
+         * при повторе пары в файле побеждает последняя строка.
+         */
+        public static final String IMPORT_STAGING_CREATE = "CREATE TEMP TABLE products_staging ("
+                + "name VARCHAR(200) NOT NULL, category VARCHAR(100) NOT NULL, brand VARCHAR(100) NOT NULL, "
+                + "price DECIMAL(10,2) NOT NULL, description TEXT) ON COMMIT DROP";
+        public static final String IMPORT_COPY = "COPY products_staging (name, category, brand, price, description) "
+                + "FROM STDIN WITH (FORMAT csv, HEADER true)";
+        public static final String IMPORT_STAGING_ANALYZE = "ANALYZE products_staging";
+        /** Экспорт выгружает цену в том виде, в котором она хранится (DECIMAL) */
+        public static final String EXPORT_COLUMNS = "id, name, category, brand, price, description, created_at, updated_at";
+        public static final String EXPORT_CSV = "COPY (SELECT " + EXPORT_COLUMNS + " FROM " + TABLE + " ORDER BY id) "
+                + "TO STDOUT WITH (FORMAT csv, HEADER true)";
+        public static final String EXPORT_BINARY = "COPY (SELECT " + EXPORT_COLUMNS + " FROM " + TABLE + " ORDER BY id) "
+                + "TO STDOUT WITH (FORMAT binary)";
+        public static final String IMPORT_MERGE = "WITH src AS ("
+                + "SELECT DISTINCT ON (name, brand) name, category, brand, price, COALESCE(description, '') AS description "
+                + "FROM products_staging ORDER BY name, brand, ctid DESC), "
+                + "updated AS (UPDATE " + TABLE + " p SET category = s.category, price = s.price, "
+                + "description = s.description, updated_at = NOW() FROM src s "
+                + "WHERE p.name = s.name AND p.brand = s.brand "
+                + "AND (p.category, p.price, p.description) IS DISTINCT FROM (s.category, s.price, s.description) "
+                + "RETURNING p.id), "
+                + "inserted AS (INSERT INTO " + TABLE + " (name, category, brand, price, description, user_id) "
+                + "SELECT s.name, s.category, s.brand, s.price, s.description, ? FROM src s "
+                + "WHERE NOT EXISTS (SELECT 1 FROM " + TABLE + " p WHERE p.name = s.name AND p.brand = s.brand) "
+                + "RETURNING id) "
+                + "SELECT (SELECT COUNT(*) FROM inserted) AS inserted_rows, (SELECT COUNT(*) FROM updated) AS updated_rows";
         public static final String BASE_SEARCH = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE 1=1";
+        public static final String BATCH_SEARCH_PART = "SELECT %d AS query_tag, " + COLUMNS + " FROM " + TABLE + " WHERE 1=1";
+        public static final String BATCH_SEARCH_UNION = " UNION ALL ";
+        public static final String BATCH_SEARCH_ORDER = " ORDER BY query_tag, id";
+        public static final String PRICE_BUCKET = "width_bucket(price, ARRAY["
+                + Arrays.stream(ProductFacets.priceBucketBounds()).mapToObj(Prices::format).collect(Collectors.joining(", "))
+                + "]::numeric[])";
+        public static final String BASE_FACETS = "SELECT category, brand, " + PRICE_BUCKET + " AS price_bucket, COUNT(*) AS cnt FROM " + TABLE + " WHERE 1=1";
+        public static final String FACETS_GROUP_BY = " GROUP BY GROUPING SETS ((category), (brand), (" + PRICE_BUCKET + "))";
+        /** Первый запрос транзакции REPEATABLE READ фиксирует ее снимок данных */
+        public static final String TAKE_SNAPSHOT = "SELECT 1";
+
+        /** Биты маски фильтров поиска; параметры привязываются в порядке возрастания битов */
+        public static final int FILTER_NAME = 1;
+        public static final int FILTER_CATEGORY = 1 << 1;
+        public static final int FILTER_BRAND = 1 << 2;
+        public static final int FILTER_MIN_PRICE = 1 << 3;
+        public static final int FILTER_MAX_PRICE = 1 << 4;
+
+        /** Биты маски полей частичного обновления; параметры привязываются в порядке возрастания битов */
+        public static final int FIELD_NAME = 1;
+        public static final int FIELD_CATEGORY = 1 << 1;
+        public static final int FIELD_BRAND = 1 << 2;
+        public static final int FIELD_PRICE = 1 << 3;
+        public static final int FIELD_DESCRIPTION = 1 << 4;
+
+        public static final int MASK_COUNT = 1 << 5;
+
+        private static final String[] SEARCH_FILTER_CLAUSES = {
+                " AND LOWER(name) LIKE LOWER(?) ESCAPE '\\'",
+                " AND LOWER(category) = LOWER(?)",
+                " AND LOWER(brand) = LOWER(?)",
+                " AND price >= " + PRICE_PARAM,
+                " AND price <= " + PRICE_PARAM
+        };
+        private static final String[] UPDATE_FIELD_CLAUSES = {
+                "name = ?, ", "category = ?, ", "brand = ?, ", "price = " + PRICE_PARAM + ", ", "description = ?, "
+        };
+
+        private static final String[] SEARCH_FILTERS = new String[MASK_COUNT];
+        private static final String[] SEARCH_BY_MASK = new String[MASK_COUNT];
+        private static final String[] FACETS_BY_MASK = new String[MASK_COUNT];
+        private static final String[] UPDATE_PARTIAL_BY_MASK = new String[MASK_COUNT];
+        private static final String[] UPDATE_PARTIAL_RETURNING_BY_MASK = new String[MASK_COUNT];
+
+        static {
+            for (int mask = 0; mask < MASK_COUNT; mask++) {
+                StringBuilder filters = new StringBuilder();
+                StringBuilder fields = new StringBuilder();
+                for (int bit = 0; bit < SEARCH_FILTER_CLAUSES.length; bit++) {
+                    if ((mask & (1 << bit)) != 0) {
+                        filters.append(SEARCH_FILTER_CLAUSES[bit]);
+                        fields.append(UPDATE_FIELD_CLAUSES[bit]);
+                    }
+                }
+                SEARCH_FILTERS[mask] = filters.toString();
+                SEARCH_BY_MASK[mask] = BASE_SEARCH + filters + " ORDER BY id";
+                FACETS_BY_MASK[mask] = BASE_FACETS + filters + FACETS_GROUP_BY;
+                UPDATE_PARTIAL_BY_MASK[mask] = mask == 0 ? null
+                        : "UPDATE " + TABLE + " SET " + fields + "updated_at = NOW() WHERE id = ?";
+                UPDATE_PARTIAL_RETURNING_BY_MASK[mask] = mask == 0 ? null : UPDATE_PARTIAL_BY_MASK[mask] + RETURNING;
+            }
+        }
+
+        /**
+         * Условия WHERE (начиная с " AND ") для маски фильтров поиска.
+         */
+        public static String searchFilters(int mask) {
+            return SEARCH_FILTERS[mask];
+        }
+
+        /**
+         * Запрос поиска товаров для маски фильтров.
+         */
+        public static String search(int mask) {
+            return SEARCH_BY_MASK[mask];
+        }
+
+        /**
+         * Запрос фасетных счетчиков для маски фильтров.
+         */
+        public static String facets(int mask) {
+            return FACETS_BY_MASK[mask];
+        }
+
+        /**
+         * Запрос частичного обновления для маски полей (маска должна быть ненулевой).
+         */
+        public static String updatePartial(int mask) {
+            return UPDATE_PARTIAL_BY_MASK[mask];
+        }
+
+        /**
+         * Запрос частичного обновления для маски полей, возвращающий обновленную строку.
+         */
+        public static String updatePartialReturning(int mask) {
+            return UPDATE_PARTIAL_RETURNING_BY_MASK[mask];
+        }
     }
 
     private SQLConstants() {
@@ -0,0 +1,101 @@
+package test;
+
+import config.Config;
+import config.DatabaseMigrator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import util.ConnectionPoolManager;
+import util.RepositoryExecutor;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Основа тестов репозиториев на настоящей БД: PostgreSQL в контейнере со схемой из миграций Liquibase
+ * и инициализированным ConnectionPoolManager. Без Docker тесты пропускаются.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class DatabaseTestBase {
+    protected static final String DATABASE = "marketplace_db";
+    protected static final String USERNAME = "disa";
+    protected static final String PASSWORD = "disa12";
+
+    /** Пользователь admin, создаваемый миграцией 002 */
+    protected static final long ADMIN_ID = 1L;
+
+    @Container
+    protected static final PostgreSQLContainer<?> postgres = newPostgres();
+
+    @BeforeAll
+    static void initializeDatabase() {
+        Config config = config(postgres, List.of(), 0);
+        new DatabaseMigrator().runMigrations(config);
+        ConnectionPoolManager.initialize(config);
+        RepositoryExecutor.initialize(ConnectionPoolManager.getMaximumPoolSize());
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        ConnectionPoolManager.close();
+    }
+
+    protected static PostgreSQLContainer<?> newPostgres() {
+        return new PostgreSQLContainer<>("postgres:13")
+                .withDatabaseName(DATABASE)
+                .withUsername(USERNAME)
+                .withPassword(PASSWORD);
+    }
+
+    /**
+     * Конфигурация приложения для основного сервера и реплик в контейнерах.
+     */
+    protected static Config config(PostgreSQLContainer<?> primary, List<PostgreSQLContainer<?>> replicas,
+                                   long readYourWritesMillis) {
+        Map<String, Object> database = new HashMap<>();
+        database.put("host", primary.getHost());
+        database.put("port", primary.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT));
+        database.put("name", DATABASE);
+        database.put("defaultSchema", "app_schema");
+        database.put("username", USERNAME);
+        database.put("password", PASSWORD);
+        database.put("poolSize", 4);
+        database.put("readYourWritesMillis", readYourWritesMillis);
+
+        List<Map<String, Object>> replicaSettings = new ArrayList<>();
+        for (PostgreSQLContainer<?> replica : replicas) {
+            replicaSettings.add(Map.of("host", replica.getHost(),
+                    "port", replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)));
+        }
+        database.put("replicas", replicaSettings);
+
+        return new Config(Map.of(
+                "database", database,
+                "migrations", Map.of(
+                        "change-log", "db/changelog/changelog-master.yaml",
+                        "contexts", "dev",
+                        "liquibase", Map.of("schema", "liquibase_schema"))));
+    }
+
+    /**
+     * Выполняет SQL напрямую на сервере в контейнере, в обход пулов приложения.
+     */
+    protected static void execute(PostgreSQLContainer<?> server, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(server.getJdbcUrl(), USERNAME, PASSWORD);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    protected static void clearProducts() throws SQLException {
+        execute(postgres, "DELETE FROM app_schema.products");
+    }
+}
@@ -0,0 +1,136 @@
+package test.benchmark;
+
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import repository.mapper.ProductRowMapper;
+import repository.mapper.RowMapper;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение стоимости преобразования строки товара: прежний способ (поиск столбцов по имени
+ * и запись временных меток через рефлексию) и {@link ProductRowMapper} (номера столбцов
+ * определяются один раз, объект создается конструктором).
+ * Результат набора строк эмулируется в памяти, чтобы измерялось только преобразование.
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=test.benchmark.RowMapperBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMapperBenchmark {
+    private static final int ROWS = 1_000;
+    private static final String[] COLUMNS = {"id", "name", "category", "brand", "price", "description", "created_at", "updated_at"};
+
+    private ResultSet resultSet;
+    private int[] cursor;
+
+    @Setup
+    public void setUp() {
+        Object[][] rows = new Object[ROWS][];
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new Object[]{(long) i, "Product " + i, "Category", "Brand", i * 150L, "Description", now, now};
+        }
+        cursor = new int[1];
+        resultSet = inMemoryResultSet(rows, cursor);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void reflectionByName(Blackhole blackhole) throws Exception {
+        cursor[0] = -1;
+        while (resultSet.next()) {
+            Product product = new Product(
+                    resultSet.getLong("id"),
+                    resultSet.getString("name"),
+                    resultSet.getString("category"),
+                    resultSet.getString("brand"),
+                    resultSet.getLong("price"),
+                    resultSet.getString("description")
+            );
+            Field createdAtField = Product.class.getDeclaredField("createdAt");
+            Field updatedAtField = Product.class.getDeclaredField("updatedAt");
+            createdAtField.setAccessible(true);
+            updatedAtField.setAccessible(true);
+            createdAtField.set(product, resultSet.getTimestamp("created_at"));
+            updatedAtField.set(product, resultSet.getTimestamp("updated_at"));
+            blackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void indexedMapper(Blackhole blackhole) throws SQLException {
+        cursor[0] = -1;
+        RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(resultSet);
+        while (resultSet.next()) {
+            blackhole.consume(mapper.mapRow(resultSet));
+        }
+    }
+
+    /**
+     * Создает ResultSet поверх массива строк. Поиск по имени идет через HashMap, как в драйвере PostgreSQL.
+     */
+    private static ResultSet inMemoryResultSet(Object[][] rows, int[] cursor) {
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            indexByName.put(COLUMNS[i], i + 1);
+        }
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                RowMapperBenchmark.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> COLUMNS.length;
+                    case "getColumnLabel", "getColumnName" -> COLUMNS[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        return (ResultSet) Proxy.newProxyInstance(
+                RowMapperBenchmark.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < rows.length;
+                        case "getMetaData":
+                            return metaData;
+                        case "findColumn":
+                            return indexByName.get((String) args[0]);
+                        case "getLong":
+                        case "getString":
+                        case "getTimestamp":
+                            int column = args[0] instanceof Integer ? (Integer) args[0] : indexByName.get((String) args[0]);
+                            return rows[cursor[0]][column - 1];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RowMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package test.main.controller;
+
+import controller.ProductController;
+import exception.ProductRepositoryException;
+import model.CatalogItem;
+import model.Product;
+import model.ProductFacets;
+import model.ProductSearchResult;
+import model.enums.ExportFormat;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import service.audit.AuditService;
+import service.product.ProductService;
+import util.RepositoryExecutor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private AuditService auditService;
+
+    @TempDir
+    Path directory;
+
+    private ProductController productController;
+
+    @BeforeAll
+    static void initializeExecutor() {
+        RepositoryExecutor.initialize(3);
+    }
+
+    @BeforeEach
+    void setUp() {
+        productController = new ProductController(productService, auditService);
+    }
+
+    @Test
+    void testSearchWithSummary_ShouldMatchSequentialQueries() {
+        List<Product> products = List.of(new Product(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone"));
+        ProductFacets facets = new ProductFacets(Map.of("Electronics", 1L), Map.of("BrandA", 1L), new long[]{0, 1, 0, 0});
+        when(productService.searchProducts("Pho", "Electronics", null, 10_00L, null)).thenReturn(products);
+        when(productService.getTotalProductsCount()).thenReturn(42);
+        when(productService.getSearchFacets("Pho", "Electronics", null, 10_00L, null)).thenReturn(facets);
+
+        ProductSearchResult result = productController.searchWithSummary("admin", "Pho", "Electronics", null, 10_00L, null);
+
+        assertSame(products, result.getProducts());
+        assertEquals(42, result.getTotalCount());
+        assertSame(facets, result.getFacets());
+        verify(productService, times(1)).searchProducts("Pho", "Electronics", null, 10_00L, null);
+        verify(productService, times(1)).getTotalProductsCount();
+        verify(productService, times(1)).getSearchFacets("Pho", "Electronics", null, 10_00L, null);
+        verify(auditService).record("admin", "SEARCH", "found 1 products");
+    }
+
+    @Test
+    void testSearchWithSummary_QueryFailure_ShouldPropagateOriginalExceptionWithoutAudit() {
+        ProductRepositoryException failure = new ProductRepositoryException("Database unavailable");
+        when(productService.searchProducts(any(), any(), any(), any(), any())).thenThrow(failure);
+
+        ProductRepositoryException thrown = assertThrows(ProductRepositoryException.class,
+                () -> productController.searchWithSummary("admin", "Pho", null, null, null, null));
+
+        assertSame(failure, thrown);
+        verify(auditService, never()).record(any(), any(), any());
+    }
+
+    @Test
+    void testExportCatalog_Gzip_ShouldCompressServiceOutputAndRecordAudit() throws IOException {
+        String csv = "id,name,category,brand,price,description,created_at,updated_at\n"
+                + "1,Phone,Electronics,BrandA,100.00,Phone,2024-01-01 00:00:00,2024-01-01 00:00:00\n";
+        when(productService.exportCatalog(any(), eq(ExportFormat.CSV))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(csv.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+        Path file = directory.resolve("catalog.csv.gz");
+
+        long rows = productController.exportCatalog("admin", file, ExportFormat.CSV, true);
+
+        assertEquals(1, rows);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals(csv, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(auditService).record("admin", "EXPORT_PRODUCTS", "catalog.csv.gz: CSV, rows=1");
+    }
+
+    @Test
+    void testExportCatalog_Plain_ShouldOverwriteFileWithServiceOutput() throws IOException {
+        Path file = directory.resolve("catalog.csv");
+        Files.writeString(file, "previous content that is longer than the export");
+        when(productService.exportCatalog(any(), eq(ExportFormat.CSV))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("id\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        productController.exportCatalog("admin", file, ExportFormat.CSV, false);
+
+        assertEquals("id\n", Files.readString(file));
+    }
+
+    @Test
+    void testSyncCatalog_NullUserId_ShouldThrowException() {
+        List<CatalogItem> items = Arrays.asList(new CatalogItem("SKU-1", "Phone", "Electronics", "BrandA", 100_00L, "Phone"));
+
+        assertThrows(IllegalArgumentException.class, () -> productController.syncCatalog("admin", items, null));
+
+        verifyNoInteractions(productService, auditService);
+    }
+
+    @Test
+    void testSearchWithSummary_InvalidPriceRange_ShouldFailBeforeQuerying() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productController.searchWithSummary("admin", null, null, null, 100_00L, 10_00L));
+
+        verifyNoInteractions(productService, auditService);
+    }
+}
@@ -0,0 +1,134 @@
+package test.main.index;
+
+import index.ProductIndex;
+import model.Product;
+import model.ProductSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductIndexTest {
+
+    private ProductIndex productIndex;
+
+    @BeforeEach
+    void setUp() {
+        productIndex = new ProductIndex();
+        productIndex.load(List.of(
+                new Product(3L, "MacBook Air M3", "Laptops", "Apple", 1299_99L, "Laptop"),
+                new Product(1L, "iPhone 15 Pro", "Smartphones", "Apple", 999_99L, "Phone"),
+                new Product(2L, "Galaxy S24", "Smartphones", "Samsung", 849_99L, "Phone")
+        ));
+    }
+
+    @Test
+    void testSearch_ByCategoryIgnoringCase_ShouldReturnInIdOrder() {
+        List<Product> result = productIndex.search(new ProductSearchCriteria(null, "smartphones", null, null, null));
+
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    void testSearch_ByNameSubstringAndPriceRange() {
+        List<Product> result = productIndex.search(new ProductSearchCriteria("a", null, null, 800_00L, 1000_00L));
+
+        assertEquals(List.of(2L), ids(result));
+    }
+
+    @Test
+    void testPutAndRemove_ShouldBeVisibleToNextSearch() {
+        productIndex.put(new Product(4L, "Pixel 9", "Smartphones", "Google", 799_00L, "Phone"));
+        productIndex.remove(1L);
+
+        List<Product> result = productIndex.search(new ProductSearchCriteria(null, "Smartphones", null, null, null));
+
+        assertEquals(List.of(2L, 4L), ids(result));
+        assertFalse(productIndex.get(1L).isPresent());
+    }
+
+    @Test
+    void testFuzzySearch_MisspelledBrandAndName_ShouldRankByEditDistance() {
+        List<Product> result = productIndex.search(new ProductSearchCriteria("galxy", null, null, null, null));
+        assertTrue(result.isEmpty());
+
+        List<Product> fuzzy = productIndex.fuzzySearch("galxy samsng", 2, 10);
+
+        assertEquals(List.of(2L), ids(fuzzy));
+    }
+
+    @Test
+    void testFuzzySearch_ShouldRespectMaxEditsAndLimit() {
+        assertTrue(productIndex.fuzzySearch("aple", 0, 10).isEmpty());
+        assertEquals(List.of(1L, 3L), ids(productIndex.fuzzySearch("aple", 1, 10)));
+        assertEquals(List.of(1L), ids(productIndex.fuzzySearch("aple", 1, 1)));
+    }
+
+    @Test
+    void testFuzzySearch_RemovedProduct_ShouldNotBeReturned() {
+        productIndex.remove(2L);
+
+        assertTrue(productIndex.fuzzySearch("galaxy", 1, 10).isEmpty());
+    }
+
+    @Test
+    void testSuggest_ShouldReturnNamesAndBrandsByPrefix() {
+        productIndex.put(new Product(4L, "Galaxy Tab S9", "Tablets", "Samsung", 799_00L, "Tablet"));
+
+        assertEquals(List.of("Galaxy S24", "Galaxy Tab S9"), productIndex.suggest("GAL", 10));
+        assertEquals(List.of("Samsung"), productIndex.suggest("sa", 10));
+        assertEquals(List.of("Galaxy S24"), productIndex.suggest("gal", 1));
+    }
+
+    @Test
+    void testSuggest_ShouldRankByNumberOfProducts() {
+        productIndex.put(new Product(4L, "Xperia 1", "Smartphones", "Sony", 999_00L, "Phone"));
+        productIndex.put(new Product(5L, "Xperia 5", "Smartphones", "Sony", 799_00L, "Phone"));
+        productIndex.put(new Product(6L, "Sapphire Watch", "Watches", "Casio", 99_00L, "Watch"));
+
+        assertEquals(List.of("Sony", "Samsung", "Sapphire Watch"), productIndex.suggest("s", 10));
+        assertEquals(List.of("Sony", "Samsung"), productIndex.suggest("S", 2));
+    }
+
+    @Test
+    void testSuggest_InvalidArguments_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> productIndex.suggest("ga", -1));
+        assertThrows(IllegalArgumentException.class, () -> productIndex.suggest("ga", 0));
+        assertThrows(NullPointerException.class, () -> productIndex.suggest(null, 10));
+    }
+
+    @Test
+    void testSuggest_ShouldTrackRemovalsAndSharedBrands() {
+        productIndex.remove(1L);
+        assertEquals(List.of("Apple"), productIndex.suggest("ap", 10));
+
+        productIndex.remove(3L);
+        assertTrue(productIndex.suggest("ap", 10).isEmpty());
+        assertTrue(productIndex.suggest("iphone", 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_LargeCatalog_ParallelResultMatchesSequentialFilter() {
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 50_000; id++) {
+            catalog.add(new Product(id, "Item " + id, id % 7 == 0 ? "Laptops" : "Phones",
+                    id % 3 == 0 ? "Apple" : "Samsung", id % 2000 * 100, "Generated"));
+        }
+        productIndex.load(catalog);
+        ProductSearchCriteria criteria = new ProductSearchCriteria("1", "laptops", "apple", 100_00L, 1500_00L);
+
+        List<Product> result = productIndex.search(criteria);
+
+        List<Long> expected = catalog.stream().filter(criteria::matches).map(Product::getId).collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, ids(result));
+    }
+
+    private List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,56 @@
+package test.main.index;
+
+import index.ProductIndex;
+import index.SearchPlan;
+import index.SearchPlanner;
+import model.Product;
+import model.ProductSearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchPlannerTest {
+
+    @Test
+    void testPlan_IndexNotLoaded_ShouldThrowException() {
+        SearchPlanner planner = new SearchPlanner(new ProductIndex());
+
+        assertThrows(IllegalStateException.class,
+                () -> planner.plan(new ProductSearchCriteria(null, "Laptops", null, null, null)));
+    }
+
+    @Test
+    void testPlan_SelectiveBrand_ShouldUseIndexIntersection() {
+        ProductIndex productIndex = new ProductIndex();
+        productIndex.load(catalog(20_000));
+        SearchPlanner planner = new SearchPlanner(productIndex);
+
+        SearchPlan plan = planner.plan(new ProductSearchCriteria(null, null, "Rare", null, null));
+
+        assertEquals(SearchPlan.Route.INDEX_INTERSECTION, plan.getRoute());
+        assertEquals(20, plan.getEstimatedRows());
+        assertEquals(20, productIndex.searchIntersection(new ProductSearchCriteria(null, null, "rare", null, null)).size());
+    }
+
+    @Test
+    void testPlan_NoIndexedFilters_ShouldNotUseIntersection() {
+        ProductIndex productIndex = new ProductIndex();
+        productIndex.load(catalog(1_000));
+        SearchPlanner planner = new SearchPlanner(productIndex);
+
+        SearchPlan plan = planner.plan(new ProductSearchCriteria("Item", null, null, 10_00L, 20_00L));
+
+        assertEquals(SearchPlan.Route.FULL_SCAN, plan.getRoute());
+    }
+
+    private List<Product> catalog(int size) {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            products.add(new Product(id, "Item " + id, "Phones", id % 1000 == 0 ? "Rare" : "Common", id % 500 * 100, "Generated"));
+        }
+        return products;
+    }
+}
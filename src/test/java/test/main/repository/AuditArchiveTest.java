@@ -0,0 +1,81 @@
+package test.main.repository;
+
+import model.AuditEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.audit.AuditArchive;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndRead_SeveralBlocks_ShouldReturnAllEntriesInOrder() {
+        AuditArchive archive = new AuditArchive(directory);
+        int total = AuditArchive.BLOCK_ROWS + 10;
+        try (AuditArchive.Writer writer = archive.openWriter(DAY)) {
+            for (int i = 0; i < total; i++) {
+                writer.accept(entry(i, i % 2 == 0 ? "admin" : "user", i % 3 == 0 ? "LOGIN" : "SEARCH"));
+            }
+            writer.commit();
+        }
+
+        List<AuditEntry> entries = new ArrayList<>();
+        long count = archive.read(DAY, DAY, null, null, entries::add);
+
+        assertEquals(total, count);
+        assertEquals(total, entries.size());
+        AuditEntry last = entries.get(total - 1);
+        assertEquals(total - 1, last.getId());
+        assertEquals(1_000L * (total - 1), last.getTimestamp().getTime());
+        assertEquals("детали " + (total - 1), last.getDetails());
+    }
+
+    @Test
+    void testRead_WithFilters_ShouldReturnOnlyMatchingEntries() {
+        AuditArchive archive = new AuditArchive(directory);
+        try (AuditArchive.Writer writer = archive.openWriter(DAY)) {
+            writer.accept(entry(1, "admin", "LOGIN"));
+            writer.accept(entry(2, "user", "LOGIN"));
+            writer.accept(entry(3, "admin", "DELETE_PRODUCT"));
+            writer.commit();
+        }
+
+        List<AuditEntry> entries = new ArrayList<>();
+        archive.read(DAY, DAY, "admin", "LOGIN", entries::add);
+
+        assertEquals(1, entries.size());
+        assertEquals(1L, entries.get(0).getId());
+        assertEquals(0, archive.read(DAY, DAY, "unknown", null, entry -> fail("Unexpected entry")));
+    }
+
+    @Test
+    void testWriter_ClosedWithoutCommit_ShouldNotBeVisible() {
+        AuditArchive archive = new AuditArchive(directory);
+        try (AuditArchive.Writer writer = archive.openWriter(DAY)) {
+            writer.accept(entry(1, "admin", "LOGIN"));
+        }
+        try (AuditArchive.Writer writer = archive.openWriter(DAY.plusDays(1))) {
+            writer.accept(entry(2, "admin", "LOGIN"));
+            writer.commit();
+        }
+
+        assertEquals(0, archive.read(DAY, DAY, null, null, entry -> fail("Unexpected entry")));
+        assertEquals(1, archive.read(DAY, DAY.plusDays(1), null, null, entry -> { }));
+    }
+
+    private static AuditEntry entry(long id, String username, String action) {
+        return new AuditEntry(id, new Date(1_000L * id), username, action, "детали " + id);
+    }
+}
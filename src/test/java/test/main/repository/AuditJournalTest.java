@@ -0,0 +1,84 @@
+package test.main.repository;
+
+import model.AuditEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.audit.AuditJournal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendAndRead_ShouldReturnEntriesInOrder() {
+        try (AuditJournal journal = new AuditJournal(directory, 4096)) {
+            journal.append(List.of(new AuditEntry("user", "LOGIN", "first"), new AuditEntry("user", "SEARCH", "второй")));
+
+            AuditJournal.Batch batch = journal.read(journal.readCheckpoint(), 10);
+
+            assertEquals(List.of("LOGIN", "SEARCH"), batch.getEntries().stream().map(AuditEntry::getAction).toList());
+            assertEquals("второй", batch.getEntries().get(1).getDetails());
+            assertTrue(journal.read(batch.getNext(), 10).getEntries().isEmpty());
+        }
+    }
+
+    @Test
+    void testCheckpoint_AcrossSegments_ShouldDeleteShippedSegments() throws IOException {
+        try (AuditJournal journal = new AuditJournal(directory, 128)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(List.of(new AuditEntry("user", "ACTION", "entry " + i)));
+            }
+            assertTrue(segmentCount() > 1);
+
+            AuditJournal.Batch batch = journal.read(journal.readCheckpoint(), 100);
+            assertEquals(10, batch.getEntries().size());
+            assertEquals("entry 9", batch.getEntries().get(9).getDetails());
+
+            journal.checkpoint(batch.getNext());
+
+            assertEquals(1, segmentCount());
+            assertEquals(batch.getNext(), journal.readCheckpoint());
+        }
+    }
+
+    @Test
+    void testReopen_TornTail_ShouldKeepOnlyValidEntries() throws IOException {
+        try (AuditJournal journal = new AuditJournal(directory, 4096)) {
+            journal.append(List.of(new AuditEntry("user", "LOGIN", "kept"), new AuditEntry("user", "LOGOUT", "torn")));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            int secondRecord = 8 + 8 + 12 + "user".length() + "LOGIN".length() + "kept".length();
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), secondRecord + 12);
+        }
+
+        try (AuditJournal journal = new AuditJournal(directory, 4096)) {
+            journal.append(List.of(new AuditEntry("user", "SEARCH", "after restart")));
+
+            List<AuditEntry> entries = journal.read(journal.readCheckpoint(), 10).getEntries();
+
+            assertEquals(List.of("LOGIN", "SEARCH"), entries.stream().map(AuditEntry::getAction).toList());
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+}
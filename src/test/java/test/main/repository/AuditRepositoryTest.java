@@ -1,7 +1,9 @@
 package test.main.repository;
 
 import exception.AuditRepositoryException;
+import model.AuditCursor;
 import model.AuditEntry;
+import model.AuditQuery;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -11,10 +13,10 @@ import repository.audit.AuditRepositoryImpl;
 import util.SQLConstants;
 
 import java.sql.*;
+import java.util.Date;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -80,4 +82,46 @@ class AuditRepositoryTest {
             auditRepository.record("user", "action", "details");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testQueryTemplates_ShouldUseKeysetOrderForEveryMask() {
+        int all = SQLConstants.Audit.MASK_COUNT - 1;
+
+        assertEquals("SELECT " + SQLConstants.Audit.COLUMNS + " FROM " + SQLConstants.Audit.TABLE
+                + " WHERE 1=1 ORDER BY timestamp DESC, id DESC LIMIT ?", SQLConstants.Audit.query(0));
+        assertTrue(SQLConstants.Audit.query(all).contains(" AND (timestamp, id) < (?, ?) ORDER BY"));
+        for (int mask = 0; mask < SQLConstants.Audit.MASK_COUNT; mask++) {
+            int cursorParams = (mask & SQLConstants.Audit.FILTER_AFTER) != 0 ? 1 : 0;
+            assertEquals(Integer.bitCount(mask) + cursorParams + 1,
+                    SQLConstants.Audit.query(mask).chars().filter(c -> c == '?').count());
+        }
+    }
+
+    @Test
+    void testArchiveStatements_ShouldWorkOnWholePartition() {
+        String partition = SQLConstants.Audit.PARTITION_PREFIX + "2024_04";
+
+        assertEquals("SELECT " + SQLConstants.Audit.COLUMNS + " FROM " + SQLConstants.SCHEMA + "." + partition
+                + " ORDER BY timestamp, id", String.format(SQLConstants.Audit.SELECT_PARTITION, partition));
+        assertEquals("ALTER TABLE " + SQLConstants.Audit.TABLE + " DETACH PARTITION " + SQLConstants.SCHEMA + "." + partition,
+                String.format(SQLConstants.Audit.DETACH_PARTITION, partition));
+    }
+
+    @Test
+    void testAuditQuery_NextPage_ShouldKeepFiltersAndValidateLimit() {
+        Date from = new Date(1_000L);
+        Date to = new Date(2_000L);
+        AuditQuery query = new AuditQuery("admin", "", from, to, 50);
+        AuditCursor cursor = new AuditCursor(new Timestamp(1_500L), 42L);
+
+        AuditQuery next = query.after(cursor);
+
+        assertEquals("admin", next.getUsername());
+        assertNull(next.getAction());
+        assertEquals(from, next.getFrom());
+        assertEquals(50, next.getLimit());
+        assertSame(cursor, next.getAfter());
+        assertThrows(IllegalArgumentException.class, () -> new AuditQuery(null, null, null, null, AuditQuery.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class, () -> new AuditQuery(null, null, to, from, 10));
+    }
+}
@@ -0,0 +1,195 @@
+package test.main.repository;
+
+import cache.QueryCache;
+import controller.ProductController;
+import index.ProductIndex;
+import model.ImportReport;
+import model.NewProduct;
+import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.ProductSearchResult;
+import model.enums.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.product.ProductRepository;
+import repository.product.ProductRepositoryImpl;
+import service.audit.AuditService;
+import service.product.ProductService;
+import service.product.ProductServiceImpl;
+import test.DatabaseTestBase;
+import util.SQLConstants;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ProductRepositoryIntegrationTest extends DatabaseTestBase {
+
+    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        clearProducts();
+        productRepository = new ProductRepositoryImpl();
+        productService = new ProductServiceImpl(productRepository, new QueryCache(10), new ProductIndex());
+    }
+
+    @Test
+    void testCreateAll_MoreThanOneChunk_ShouldReturnRowsInInputOrder() {
+        List<NewProduct> products = new ArrayList<>();
+        for (int i = 0; i < SQLConstants.Product.BATCH_SIZE + 5; i++) {
+            products.add(new NewProduct("Product " + i, "Category " + (i % 3), "Brand", 1_00L + i, "Description " + i));
+        }
+
+        List<Product> created = productRepository.createAll(products, ADMIN_ID);
+
+        assertEquals(products.size(), created.size());
+        for (int i = 0; i < products.size(); i++) {
+            assertEquals(products.get(i).getName(), created.get(i).getName());
+            assertEquals(products.get(i).getPrice(), created.get(i).getPrice());
+            assertEquals(products.get(i).getDescription(), created.get(i).getDescription());
+        }
+    }
+
+    @Test
+    void testSearch_NameWithLikeWildcards_ShouldMatchInMemoryIndex() {
+        productService.createProduct("Cotton 100% shirt", "Clothes", "Brand", 10_00L, "", ADMIN_ID);
+        productService.createProduct("Cotton 1000 shirt", "Clothes", "Brand", 10_00L, "", ADMIN_ID);
+        productService.createProduct("usb_c cable", "Cables", "Brand", 5_00L, "", ADMIN_ID);
+        productService.createProduct("usb-c cable", "Cables", "Brand", 5_00L, "", ADMIN_ID);
+        productService.createProduct("path\\to cable", "Cables", "Brand", 5_00L, "", ADMIN_ID);
+        productService.createProduct("pathto cable", "Cables", "Brand", 5_00L, "", ADMIN_ID);
+        ProductIndex productIndex = new ProductIndex();
+        productIndex.load(productRepository.findAll());
+
+        for (String name : List.of("100%", "usb_c", "h\\t", "%", "_", "COTTON")) {
+            ProductSearchCriteria criteria = new ProductSearchCriteria(name, null, null, null, null);
+
+            List<Product> fromDatabase = productRepository.search(name, null, null, null, null);
+            List<Product> fromIndex = productIndex.search(criteria);
+
+            assertEquals(ids(fromIndex), ids(fromDatabase), "name=" + name);
+        }
+        assertEquals(1, productRepository.search("100%", null, null, null, null).size());
+        assertEquals(1, productRepository.search("usb_c", null, null, null, null).size());
+    }
+
+    @Test
+    void testUpdateProducts_SameProductPatchedTwice_ShouldLeaveDatabaseAndIndexInAgreement() {
+        ProductIndex productIndex = new ProductIndex();
+        ProductService indexedService = new ProductServiceImpl(productRepository, new QueryCache(10), productIndex);
+        Product phone = indexedService.createProduct("Phone", "Electronics", "BrandA", 100_00L, "Phone", ADMIN_ID);
+        productIndex.load(productRepository.findAll());
+
+        int updated = indexedService.updateProducts(List.of(
+                new ProductPatch(phone.getId(), null, "Smartphones", null, null, null),
+                ProductPatch.price(phone.getId(), 120_00L),
+                new ProductPatch(phone.getId(), null, "Phones", null, null, null)));
+
+        assertEquals(1, updated);
+        Product stored = productRepository.findById(phone.getId()).orElseThrow();
+        Product indexed = productIndex.get(phone.getId()).orElseThrow();
+        assertEquals("Phones", stored.getCategory());
+        assertEquals(120_00L, stored.getPrice());
+        assertEquals(stored.getCategory(), indexed.getCategory());
+        assertEquals(stored.getPrice(), indexed.getPrice());
+        assertEquals(stored.getUpdatedAt(), indexed.getUpdatedAt());
+    }
+
+    @Test
+    void testSearchWithSummary_ShouldMatchSequentialQueries() {
+        productService.createProduct("Phone X", "Electronics", "BrandA", 100_00L, "", ADMIN_ID);
+        productService.createProduct("Phone Y", "Electronics", "BrandB", 600_00L, "", ADMIN_ID);
+        productService.createProduct("Desk", "Furniture", "BrandA", 200_00L, "", ADMIN_ID);
+        ProductController productController = new ProductController(productService, mock(AuditService.class));
+
+        ProductSearchResult result = productController.searchWithSummary("admin", "phone", null, null, null, null);
+
+        assertEquals(ids(productService.searchProducts("phone", null, null, null, null)), ids(result.getProducts()));
+        assertEquals(productService.getTotalProductsCount(), result.getTotalCount());
+        ProductFacets facets = productService.getSearchFacets("phone", null, null, null, null);
+        assertEquals(facets.getCategoryCounts(), result.getFacets().getCategoryCounts());
+        assertEquals(facets.getBrandCounts(), result.getFacets().getBrandCounts());
+        assertArrayEquals(facets.getPriceBucketCounts(), result.getFacets().getPriceBucketCounts());
+    }
+
+    @Test
+    void testExportCatalog_GzipCsv_ShouldRoundTripStoredRows(@TempDir Path directory) throws IOException {
+        Product phone = productService.createProduct("Phone", "Electronics", "BrandA", 799_00L, "Flagship", ADMIN_ID);
+        Product desk = productService.createProduct("Desk", "Furniture", "BrandB", 150_50L, "", ADMIN_ID);
+        ProductController productController = new ProductController(productService, mock(AuditService.class));
+        Path file = directory.resolve("catalog.csv.gz");
+
+        assertEquals(2, productController.exportCatalog("admin", file, ExportFormat.CSV, true));
+
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            lines = reader.lines().toList();
+        }
+        assertEquals(3, lines.size());
+        assertEquals(SQLConstants.Product.EXPORT_COLUMNS.replace(", ", ","), lines.get(0));
+        for (Product product : List.of(phone, desk)) {
+            String[] columns = lines.get(product == phone ? 1 : 2).split(",", -1);
+            assertEquals(8, columns.length);
+            assertEquals(product.getId(), Long.parseLong(columns[0]));
+            assertEquals(product.getName(), columns[1]);
+            assertEquals(product.getCategory(), columns[2]);
+            assertEquals(product.getBrand(), columns[3]);
+            assertEquals(product.getPrice(), new BigDecimal(columns[4]).movePointRight(2).longValueExact());
+            assertEquals(product.getDescription(), columns[5].replace("\"\"", ""));
+        }
+    }
+
+    @Test
+    void testExportTo_Binary_ShouldWritePostgresCopySignature() {
+        productService.createProduct("Phone", "Electronics", "BrandA", 799_00L, "Flagship", ADMIN_ID);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, productRepository.exportTo(out, ExportFormat.BINARY));
+
+        byte[] signature = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+        assertArrayEquals(signature, Arrays.copyOf(out.toByteArray(), signature.length));
+    }
+
+    @Test
+    void testImportCatalog_EmptyDescription_ShouldStoreEmptyStringAndReload() {
+        String csv = "name,category,brand,price,description\n"
+                + "Pixel 9,Smartphones,Google,799.00,\n"
+                + "Galaxy S24,Smartphones,Samsung,899.50,Flagship\n";
+
+        ImportReport report = productService.importCatalog(new StringReader(csv), ADMIN_ID);
+
+        assertEquals(2, report.getInsertedRows());
+        List<Product> products = productRepository.findAll();
+        assertEquals(2, products.size());
+        Product pixel = products.stream().filter(p -> p.getName().equals("Pixel 9")).findFirst().orElseThrow();
+        assertEquals("", pixel.getDescription());
+        assertEquals(799_00L, pixel.getPrice());
+    }
+
+    private static Set<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toSet());
+    }
+}
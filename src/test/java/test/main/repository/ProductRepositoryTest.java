@@ -2,22 +2,27 @@ package test.main.repository;
 
 import exception.EntityNotFoundException;
 import exception.ProductRepositoryException;
+import model.NewProduct;
 import model.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import repository.product.ProductRepository;
 import repository.product.ProductRepositoryImpl;
+import util.ConnectionPoolManager;
 import util.SQLConstants;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,10 +31,14 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,9 +55,6 @@ class ProductRepositoryTest {
     @Mock
     private ResultSet resultSet;
 
-    @Mock
-    private ResultSet generatedKeys;
-
     private ProductRepository productRepository;
 
     @BeforeEach
@@ -61,25 +67,18 @@ class ProductRepositoryTest {
         String name = "Test Product";
         String category = "Electronics";
         String brand = "TestBrand";
-        double price = 99.99;
+        long price = 99_99L;
         String description = "Test description";
         Long userId = 1L;
 
-        when(connection.prepareStatement(SQLConstants.Product.INSERT, Statement.RETURN_GENERATED_KEYS))
-                .thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
-        when(preparedStatement.getGeneratedKeys()).thenReturn(generatedKeys);
-        when(generatedKeys.next()).thenReturn(true);
-        when(generatedKeys.getLong(1)).thenReturn(123L);
-
-        when(connection.prepareStatement(SQLConstants.Product.SELECT_BY_ID)).thenReturn(preparedStatement);
+        when(connection.prepareStatement(SQLConstants.Product.INSERT_RETURNING)).thenReturn(preparedStatement);
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true);
         when(resultSet.getLong("id")).thenReturn(123L);
         when(resultSet.getString("name")).thenReturn(name);
         when(resultSet.getString("category")).thenReturn(category);
         when(resultSet.getString("brand")).thenReturn(brand);
-        when(resultSet.getDouble("price")).thenReturn(price);
+        when(resultSet.getLong("price")).thenReturn(price);
         when(resultSet.getString("description")).thenReturn(description);
         when(resultSet.getTimestamp("created_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
         when(resultSet.getTimestamp("updated_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
@@ -91,41 +90,68 @@ class ProductRepositoryTest {
         assertEquals(name, product.getName());
         assertEquals(category, product.getCategory());
         assertEquals(brand, product.getBrand());
-        assertEquals(price, product.getPrice(), 0.001);
+        assertEquals(price, product.getPrice());
 
         verify(preparedStatement).setString(1, name);
         verify(preparedStatement).setString(2, category);
         verify(preparedStatement).setString(3, brand);
-        verify(preparedStatement).setDouble(4, price);
+        verify(preparedStatement).setLong(4, price);
         verify(preparedStatement).setString(5, description);
         verify(preparedStatement).setLong(6, userId);
-        verify(preparedStatement).executeUpdate();
-        verify(generatedKeys).next();
-        verify(generatedKeys).getLong(1);
+        verify(preparedStatement).executeQuery();
+        verify(connection, never()).prepareStatement(SQLConstants.Product.SELECT_BY_ID);
     }
 
     @Test
-    void testCreate_ShouldThrowExceptionWhenNoRowsAffected() throws SQLException {
-        when(connection.prepareStatement(SQLConstants.Product.INSERT, Statement.RETURN_GENERATED_KEYS))
-                .thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(0);
+    void testCreate_ShouldThrowExceptionWhenNoRowReturned() throws SQLException {
+        when(connection.prepareStatement(SQLConstants.Product.INSERT_RETURNING)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
 
         assertThrows(ProductRepositoryException.class, () -> {
-            productRepository.create("Test", "Category", "Brand", 10.0, "Desc", 1L);
+            productRepository.create("Test", "Category", "Brand", 10_00L, "Desc", 1L);
         });
     }
 
     @Test
-    void testCreate_ShouldThrowExceptionWhenNoGeneratedKey() throws SQLException {
-        when(connection.prepareStatement(SQLConstants.Product.INSERT, Statement.RETURN_GENERATED_KEYS))
-                .thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
-        when(preparedStatement.getGeneratedKeys()).thenReturn(generatedKeys);
-        when(generatedKeys.next()).thenReturn(false);
-
-        assertThrows(ProductRepositoryException.class, () -> {
-            productRepository.create("Test", "Category", "Brand", 10.0, "Desc", 1L);
+    void testCreateAll_ShouldInsertEachChunkWithOneStatement() throws SQLException {
+        String[] labels = {"id", "name", "category", "brand", "price", "description", "created_at", "updated_at"};
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        when(metaData.getColumnLabel(anyInt())).thenAnswer(invocation -> labels[invocation.<Integer>getArgument(0) - 1]);
+
+        int[] rowsLeft = new int[1];
+        long[] nextId = {1};
+        when(connection.prepareStatement(SQLConstants.Product.INSERT_ALL_RETURNING)).thenReturn(preparedStatement);
+        when(connection.createArrayOf(anyString(), any())).thenAnswer(invocation -> {
+            rowsLeft[0] = invocation.<Object[]>getArgument(1).length;
+            return mock(Array.class);
         });
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenAnswer(invocation -> rowsLeft[0]-- > 0);
+        when(resultSet.getLong(1)).thenAnswer(invocation -> nextId[0]++);
+        when(resultSet.getString(anyInt())).thenReturn("Product");
+
+        List<NewProduct> products = new ArrayList<>();
+        for (int i = 0; i <= SQLConstants.Product.BATCH_SIZE; i++) {
+            products.add(new NewProduct("Product " + i, "Electronics", "Brand", 10_00L, "Desc"));
+        }
+
+        List<Product> created;
+        try (MockedStatic<ConnectionPoolManager> pool = mockStatic(ConnectionPoolManager.class)) {
+            pool.when(ConnectionPoolManager::getConnection).thenReturn(connection);
+            created = productRepository.createAll(products, 1L);
+        }
+
+        assertEquals(products.size(), created.size());
+        assertEquals(1L, created.get(0).getId());
+        assertEquals(products.size(), created.get(products.size() - 1).getId());
+        verify(connection, times(1)).prepareStatement(SQLConstants.Product.INSERT_ALL_RETURNING);
+        verify(preparedStatement, times(2)).executeQuery();
+        verify(preparedStatement, never()).addBatch();
+        verify(preparedStatement, never()).executeBatch();
+        verify(connection).commit();
     }
 
     @Test
@@ -138,7 +164,7 @@ class ProductRepositoryTest {
         when(resultSet.getString("name")).thenReturn("Test Product");
         when(resultSet.getString("category")).thenReturn("Electronics");
         when(resultSet.getString("brand")).thenReturn("Brand");
-        when(resultSet.getDouble("price")).thenReturn(99.99);
+        when(resultSet.getLong("price")).thenReturn(99_99L);
         when(resultSet.getString("description")).thenReturn("Description");
         when(resultSet.getTimestamp("created_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
         when(resultSet.getTimestamp("updated_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
@@ -171,20 +197,17 @@ class ProductRepositoryTest {
         String name = "Updated Name";
         String category = "Updated Category";
         String brand = "Updated Brand";
-        Double price = 20.0;
+        Long price = 20_00L;
         String description = "Updated Description";
 
-        when(connection.prepareStatement(SQLConstants.Product.UPDATE)).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(1);
-
-        when(connection.prepareStatement(SQLConstants.Product.SELECT_BY_ID)).thenReturn(preparedStatement);
+        when(connection.prepareStatement(SQLConstants.Product.UPDATE_RETURNING)).thenReturn(preparedStatement);
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next()).thenReturn(true);
         when(resultSet.getLong("id")).thenReturn(productId);
         when(resultSet.getString("name")).thenReturn(name);
         when(resultSet.getString("category")).thenReturn(category);
         when(resultSet.getString("brand")).thenReturn(brand);
-        when(resultSet.getDouble("price")).thenReturn(price);
+        when(resultSet.getLong("price")).thenReturn(price);
         when(resultSet.getString("description")).thenReturn(description);
         when(resultSet.getTimestamp("created_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
         when(resultSet.getTimestamp("updated_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
@@ -196,20 +219,22 @@ class ProductRepositoryTest {
         verify(preparedStatement).setString(1, name);
         verify(preparedStatement).setString(2, category);
         verify(preparedStatement).setString(3, brand);
-        verify(preparedStatement).setDouble(4, price);
+        verify(preparedStatement).setLong(4, price);
         verify(preparedStatement).setString(5, description);
         verify(preparedStatement).setLong(6, productId);
-        verify(preparedStatement).executeUpdate();
+        verify(preparedStatement).executeQuery();
+        verify(connection, never()).prepareStatement(SQLConstants.Product.SELECT_BY_ID);
     }
 
     @Test
     void testUpdate_ShouldThrowExceptionWhenProductNotFound() throws SQLException {
         Long productId = 999L;
-        when(connection.prepareStatement(SQLConstants.Product.UPDATE)).thenReturn(preparedStatement);
-        when(preparedStatement.executeUpdate()).thenReturn(0);
+        when(connection.prepareStatement(SQLConstants.Product.UPDATE_RETURNING)).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> {
-            productRepository.update(productId, "Name", "Category", "Brand", 10.0, "Description");
+            productRepository.update(productId, "Name", "Category", "Brand", 10_00L, "Description");
         });
     }
 
@@ -244,8 +269,8 @@ class ProductRepositoryTest {
         String nameSubstring = "test";
         String category = "Electronics";
         String brand = "Brand";
-        Double minPrice = 10.0;
-        Double maxPrice = 100.0;
+        Long minPrice = 10_00L;
+        Long maxPrice = 100_00L;
 
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
@@ -262,8 +287,31 @@ class ProductRepositoryTest {
         verify(preparedStatement).setString(anyInt(), eq("%test%"));
         verify(preparedStatement).setString(anyInt(), eq("Electronics"));
         verify(preparedStatement).setString(anyInt(), eq("Brand"));
-        verify(preparedStatement).setDouble(anyInt(), eq(10.0));
-        verify(preparedStatement).setDouble(anyInt(), eq(100.0));
+        verify(preparedStatement).setLong(anyInt(), eq(10_00L));
+        verify(preparedStatement).setLong(anyInt(), eq(100_00L));
+    }
+
+    @Test
+    void testSearchFilters_Name_ShouldDeclareLikeEscapeCharacter() {
+        assertEquals(" AND LOWER(name) LIKE LOWER(?) ESCAPE '\\'",
+                SQLConstants.Product.searchFilters(SQLConstants.Product.FILTER_NAME));
+    }
+
+    @Test
+    void testStatementTemplates_ShouldCoverEveryMaskInBitOrder() {
+        int all = SQLConstants.Product.MASK_COUNT - 1;
+
+        assertEquals(SQLConstants.Product.BASE_SEARCH + " ORDER BY id", SQLConstants.Product.search(0));
+        assertTrue(SQLConstants.Product.search(all).indexOf("LIKE") < SQLConstants.Product.search(all).indexOf("price <= ?"));
+        assertEquals(" AND LOWER(brand) = LOWER(?)", SQLConstants.Product.searchFilters(SQLConstants.Product.FILTER_BRAND));
+        assertEquals(null, SQLConstants.Product.updatePartial(0));
+        assertEquals("UPDATE " + SQLConstants.Product.TABLE + " SET price = ?::bigint / 100.0, description = ?, updated_at = NOW() WHERE id = ?",
+                SQLConstants.Product.updatePartial(SQLConstants.Product.FIELD_PRICE | SQLConstants.Product.FIELD_DESCRIPTION));
+        assertTrue(SQLConstants.Product.updatePartialReturning(SQLConstants.Product.FIELD_NAME)
+                .endsWith("WHERE id = ? RETURNING " + SQLConstants.Product.COLUMNS));
+        for (int mask = 0; mask < SQLConstants.Product.MASK_COUNT; mask++) {
+            assertEquals(Integer.bitCount(mask), SQLConstants.Product.facets(mask).chars().filter(c -> c == '?').count());
+        }
     }
 
     @Test
@@ -290,7 +338,7 @@ class ProductRepositoryTest {
         when(resultSet.getString("name")).thenReturn("Product1", "Product2");
         when(resultSet.getString("category")).thenReturn("Cat1", "Cat2");
         when(resultSet.getString("brand")).thenReturn("Brand1", "Brand2");
-        when(resultSet.getDouble("price")).thenReturn(10.0, 20.0);
+        when(resultSet.getLong("price")).thenReturn(10_00L, 20_00L);
         when(resultSet.getString("description")).thenReturn("Desc1", "Desc2");
         when(resultSet.getTimestamp("created_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
         when(resultSet.getTimestamp("updated_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
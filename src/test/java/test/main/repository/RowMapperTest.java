@@ -0,0 +1,92 @@
+package test.main.repository;
+
+import model.Product;
+import model.User;
+import model.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repository.mapper.ProductRowMapper;
+import repository.mapper.RowMapper;
+import repository.mapper.UserRowMapper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RowMapperTest {
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ResultSetMetaData metaData;
+
+    @Test
+    void testProductMapper_ShouldResolveColumnsOnceAndReadByIndex() throws SQLException {
+        stubColumns("query_tag", "id", "name", "category", "brand", "price", "description", "created_at", "updated_at");
+        Timestamp createdAt = new Timestamp(1_000L);
+        Timestamp updatedAt = new Timestamp(2_000L);
+        when(resultSet.getLong(2)).thenReturn(7L);
+        when(resultSet.getString(3)).thenReturn("Phone");
+        when(resultSet.getString(4)).thenReturn("Electronics");
+        when(resultSet.getString(5)).thenReturn("Brand");
+        when(resultSet.getLong(6)).thenReturn(99_50L);
+        when(resultSet.getString(7)).thenReturn("Description");
+        when(resultSet.getTimestamp(8)).thenReturn(createdAt);
+        when(resultSet.getTimestamp(9)).thenReturn(updatedAt);
+
+        RowMapper<Product> mapper = ProductRowMapper.INSTANCE.forResultSet(resultSet);
+        Product first = mapper.mapRow(resultSet);
+        mapper.mapRow(resultSet);
+
+        assertEquals(7L, first.getId());
+        assertEquals("Phone", first.getName());
+        assertEquals(99_50L, first.getPrice());
+        assertEquals(createdAt, first.getCreatedAt());
+        assertEquals(updatedAt, first.getUpdatedAt());
+        verify(resultSet, times(1)).getMetaData();
+        verify(resultSet, never()).getString(anyString());
+    }
+
+    @Test
+    void testUserMapper_ShouldMapRole() throws SQLException {
+        stubColumns("ID", "USERNAME", "PASSWORD_HASH", "USER_ROLE");
+        when(resultSet.getLong(1)).thenReturn(3L);
+        when(resultSet.getString(2)).thenReturn("admin");
+        when(resultSet.getString(3)).thenReturn("hash");
+        when(resultSet.getString(4)).thenReturn("ADMIN");
+
+        User user = UserRowMapper.INSTANCE.forResultSet(resultSet).mapRow(resultSet);
+
+        assertEquals(3L, user.getId());
+        assertEquals("admin", user.getUsername());
+        assertEquals(UserRole.ADMIN, user.getUserRole());
+    }
+
+    @Test
+    void testMapper_MissingColumn_ShouldThrow() throws SQLException {
+        stubColumns("id", "username");
+
+        assertThrows(SQLException.class, () -> UserRowMapper.INSTANCE.forResultSet(resultSet));
+    }
+
+    private void stubColumns(String... labels) throws SQLException {
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+        }
+    }
+}
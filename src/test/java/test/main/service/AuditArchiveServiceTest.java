@@ -0,0 +1,101 @@
+package test.main.service;
+
+import exception.AuditRepositoryException;
+import model.AuditEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repository.audit.AuditArchive;
+import repository.audit.AuditRepository;
+import service.audit.AuditArchiveService;
+import service.audit.AuditArchiveServiceImpl;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditArchiveServiceTest {
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @TempDir
+    Path directory;
+
+    private AuditArchive archive;
+
+    private AuditArchiveService auditArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-06-15T10:00:00Z"), ZoneOffset.UTC);
+        archive = new AuditArchive(directory);
+        auditArchiveService = new AuditArchiveServiceImpl(auditRepository, archive, 20, clock);
+    }
+
+    @Test
+    void testRunArchival_ShouldArchiveWholePartitionsOlderThanCutoff() {
+        when(auditRepository.getPartitions()).thenReturn(List.of(YearMonth.of(2024, 4), YearMonth.of(2024, 5), YearMonth.of(2024, 6)));
+        when(auditRepository.archivePartition(eq(YearMonth.of(2024, 4)), any(), any())).thenAnswer(invocation -> {
+            Consumer<AuditEntry> consumer = invocation.getArgument(1);
+            for (String timestamp : List.of("2024-04-03T08:00:00Z", "2024-04-03T09:00:00Z", "2024-04-05T10:00:00Z")) {
+                Date date = Date.from(Instant.parse(timestamp));
+                consumer.accept(new AuditEntry(date.getTime(), date, "admin", "LOGIN", "archived"));
+            }
+            invocation.<Runnable>getArgument(2).run();
+            return 3L;
+        });
+
+        // срок 20 дней: апрель целиком старше 26 мая, май еще нет
+        assertEquals(3, auditArchiveService.runArchival());
+
+        verify(auditRepository).getPartitions();
+        verify(auditRepository).archivePartition(eq(YearMonth.of(2024, 4)), any(), any());
+        verifyNoMoreInteractions(auditRepository);
+
+        assertEquals(List.of(LocalDate.of(2024, 4, 3), LocalDate.of(2024, 4, 5)), archive.getDays());
+        List<AuditEntry> archived = new ArrayList<>();
+        auditArchiveService.readArchive(LocalDate.of(2024, 4, 4), LocalDate.of(2024, 4, 30), "admin", null, archived::add);
+        assertEquals(1, archived.size());
+        assertEquals(Date.from(Instant.parse("2024-04-05T10:00:00Z")), archived.get(0).getTimestamp());
+    }
+
+    @Test
+    void testRunArchival_DatabaseFailure_ShouldLeaveNoArchiveFile() {
+        when(auditRepository.getPartitions()).thenReturn(List.of(YearMonth.of(2024, 4)));
+        when(auditRepository.archivePartition(eq(YearMonth.of(2024, 4)), any(), any())).thenAnswer(invocation -> {
+            Date date = Date.from(Instant.parse("2024-04-03T08:00:00Z"));
+            invocation.<Consumer<AuditEntry>>getArgument(1).accept(new AuditEntry(1L, date, "admin", "LOGIN", "archived"));
+            throw new AuditRepositoryException("Database unavailable");
+        });
+
+        assertThrows(AuditRepositoryException.class, auditArchiveService::runArchival);
+
+        assertEquals(0, auditArchiveService.readArchive(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30),
+                null, null, entry -> fail("Unexpected entry")));
+    }
+
+    @Test
+    void testRunArchival_NoAgedPartitions_ShouldDoNothing() {
+        when(auditRepository.getPartitions()).thenReturn(List.of(YearMonth.of(2024, 5), YearMonth.of(2024, 6)));
+
+        assertEquals(0, auditArchiveService.runArchival());
+
+        verify(auditRepository, never()).archivePartition(any(), any(), any());
+    }
+}
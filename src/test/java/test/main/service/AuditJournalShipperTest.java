@@ -0,0 +1,60 @@
+package test.main.service;
+
+import exception.AuditRepositoryException;
+import model.AuditEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repository.audit.AuditJournal;
+import repository.audit.AuditRepository;
+import service.audit.AuditJournalShipper;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditJournalShipperTest {
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testShipPending_ShouldInsertInBatchesAndAdvanceCheckpoint() {
+        try (AuditJournal journal = new AuditJournal(directory, 4096)) {
+            journal.append(List.of(new AuditEntry("user", "LOGIN", "1"), new AuditEntry("user", "SEARCH", "2"),
+                    new AuditEntry("user", "LOGOUT", "3")));
+            AuditJournalShipper shipper = new AuditJournalShipper(journal, auditRepository, 2, 60_000);
+
+            assertEquals(3, shipper.shipPending());
+            assertEquals(0, shipper.shipPending());
+
+            verify(auditRepository).recordBatch(argThat(entries -> entries.size() == 2));
+            verify(auditRepository).recordBatch(argThat(entries -> entries.size() == 1));
+        }
+    }
+
+    @Test
+    void testShipPending_DatabaseFailure_ShouldKeepEntriesForRetry() {
+        try (AuditJournal journal = new AuditJournal(directory, 4096)) {
+            journal.append(List.of(new AuditEntry("user", "LOGIN", "1")));
+            AuditJournalShipper shipper = new AuditJournalShipper(journal, auditRepository, 10, 60_000);
+            doThrow(new AuditRepositoryException("Database unavailable")).doNothing()
+                    .when(auditRepository).recordBatch(anyList());
+
+            assertThrows(AuditRepositoryException.class, shipper::shipPending);
+            assertEquals(1, shipper.shipPending());
+
+            verify(auditRepository, times(2)).recordBatch(anyList());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package test.main.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repository.audit.AuditRepository;
+import service.audit.AuditRetentionService;
+import service.audit.AuditRetentionServiceImpl;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRetentionServiceTest {
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    private AuditRetentionService auditRetentionService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-06-15T10:00:00Z"), ZoneOffset.UTC);
+        auditRetentionService = new AuditRetentionServiceImpl(auditRepository, 3, 2, clock);
+    }
+
+    @Test
+    void testRunMaintenance_ShouldCreateMissingAndDropExpiredPartitions() {
+        when(auditRepository.getPartitions()).thenReturn(List.of(
+                YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3),
+                YearMonth.of(2024, 4), YearMonth.of(2024, 6)));
+
+        auditRetentionService.runMaintenance();
+
+        verify(auditRepository).createPartition(YearMonth.of(2024, 7));
+        verify(auditRepository).createPartition(YearMonth.of(2024, 8));
+        verify(auditRepository).dropPartition(YearMonth.of(2024, 1));
+        verify(auditRepository).dropPartition(YearMonth.of(2024, 2));
+        verify(auditRepository, never()).createPartition(YearMonth.of(2024, 6));
+        verify(auditRepository, never()).dropPartition(YearMonth.of(2024, 3));
+    }
+
+    @Test
+    void testConstructor_NegativeRetention_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AuditRetentionServiceImpl(auditRepository, -1, 2));
+    }
+}
@@ -1,6 +1,8 @@
 package test.main.service;
 
 import model.AuditEntry;
+import model.AuditPage;
+import model.AuditQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -108,6 +110,28 @@ class AuditServiceTest {
         verify(auditRepository, times(1)).getEntries();
     }
 
+    @Test
+    void testGetRecentEntries_ShouldQueryOnlyLimit() {
+        List<AuditEntry> recent = List.of(createAuditEntry(2L, "user2", "LOGOUT", "User logged out"));
+        when(auditRepository.getRecentEntries(1)).thenReturn(recent);
+
+        assertEquals(recent, auditService.getRecentEntries(1));
+
+        verify(auditRepository, never()).getEntries();
+    }
+
+    @Test
+    void testQuery_ShouldDelegatePageRequest() {
+        AuditQuery query = new AuditQuery("user1", "LOGIN", null, null, 10);
+        AuditPage page = new AuditPage(List.of(createAuditEntry(1L, "user1", "LOGIN", "User logged in")), null);
+        when(auditRepository.query(query)).thenReturn(page);
+
+        AuditPage result = auditService.query(query);
+
+        assertSame(page, result);
+        assertFalse(result.hasNext());
+    }
+
     private AuditEntry createAuditEntry(Long id, String username, String action, String details) {
         AuditEntry entry = new AuditEntry();
         entry.setId(id);
@@ -0,0 +1,116 @@
+package test.main.service;
+
+import exception.AuditRepositoryException;
+import model.AuditEntry;
+import model.enums.AuditOverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import repository.audit.AuditRepository;
+import service.audit.AuditService;
+import service.audit.AuditServiceImpl;
+import service.audit.AuditWriter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Test
+    void testSubmit_FullBatch_ShouldBeWrittenInBackground() {
+        AuditWriter writer = new AuditWriter(auditRepository, 100, 2, 60_000, AuditOverflowPolicy.BLOCK);
+
+        writer.submit(new AuditEntry("user", "LOGIN", "first"));
+        writer.submit(new AuditEntry("user", "SEARCH", "second"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditEntry>> batch = ArgumentCaptor.forClass(List.class);
+        verify(auditRepository, timeout(2_000)).recordBatch(batch.capture());
+        assertEquals(List.of("LOGIN", "SEARCH"), batch.getValue().stream().map(AuditEntry::getAction).toList());
+        writer.close();
+    }
+
+    @Test
+    void testSubmit_DropPolicy_ShouldCountOverflowAndFlushRestOnClose() {
+        AuditWriter writer = new AuditWriter(auditRepository, 1, 10, 60_000, AuditOverflowPolicy.DROP);
+
+        assertTrue(writer.submit(new AuditEntry("user", "LOGIN", "kept")));
+        assertFalse(writer.submit(new AuditEntry("user", "SEARCH", "dropped")));
+        assertEquals(1, writer.getDroppedCount());
+
+        writer.close();
+
+        verify(auditRepository).recordBatch(argThat(entries -> entries.size() == 1));
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    void testFlush_TransientFailure_ShouldRetryBatch() {
+        AuditWriter writer = new AuditWriter(auditRepository, 100, 50, 60_000, AuditOverflowPolicy.BLOCK);
+        doThrow(new AuditRepositoryException("Database unavailable")).doNothing()
+                .when(auditRepository).recordBatch(anyList());
+
+        writer.submit(new AuditEntry("user", "LOGIN", "retried"));
+        writer.flush();
+
+        verify(auditRepository, times(2)).recordBatch(argThat(entries -> entries.size() == 1));
+        assertEquals(0, writer.getFailedCount());
+        assertEquals(0, writer.getPendingCount());
+        writer.close();
+    }
+
+    @Test
+    void testFlush_PersistentFailure_ShouldDropBatchAfterMaxAttempts() {
+        AuditWriter writer = new AuditWriter(auditRepository, 100, 50, 60_000, AuditOverflowPolicy.BLOCK);
+        doThrow(new AuditRepositoryException("Database unavailable")).when(auditRepository).recordBatch(anyList());
+
+        writer.submit(new AuditEntry("user", "LOGIN", "lost"));
+
+        assertThrows(AuditRepositoryException.class, writer::flush);
+        verify(auditRepository, times(AuditWriter.MAX_ATTEMPTS)).recordBatch(anyList());
+        assertEquals(1, writer.getFailedCount());
+        assertEquals(0, writer.getPendingCount());
+        writer.close();
+    }
+
+    @Test
+    void testAuditService_ReadDuringWriteFailure_ShouldNotThrowOrWriteInCallerThread() {
+        AuditWriter writer = new AuditWriter(auditRepository, 100, 50, 60_000, AuditOverflowPolicy.BLOCK);
+        AuditService auditService = new AuditServiceImpl(auditRepository, writer);
+        Thread caller = Thread.currentThread();
+        doAnswer(invocation -> {
+            assertNotSame(caller, Thread.currentThread());
+            throw new AuditRepositoryException("Database unavailable");
+        }).when(auditRepository).recordBatch(anyList());
+        when(auditRepository.getEntries()).thenReturn(List.of());
+
+        auditService.record("user", "LOGIN", "User logged in");
+
+        assertEquals(List.of(), assertDoesNotThrow(auditService::getEntries));
+        verify(auditRepository, timeout(2_000).times(AuditWriter.MAX_ATTEMPTS)).recordBatch(anyList());
+        writer.close();
+    }
+
+    @Test
+    void testAuditService_WithWriter_ShouldNotWriteSynchronously() {
+        AuditWriter writer = new AuditWriter(auditRepository, 100, 50, 60_000, AuditOverflowPolicy.BLOCK);
+        AuditService auditService = new AuditServiceImpl(auditRepository, writer);
+        when(auditRepository.getEntries()).thenReturn(List.of());
+
+        auditService.record("user", "LOGIN", "User logged in");
+        verify(auditRepository, never()).record(any(), any(), any());
+
+        auditService.getEntries();
+
+        verify(auditRepository).recordBatch(argThat(entries -> entries.size() == 1));
+        writer.close();
+    }
+}
@@ -0,0 +1,154 @@
+package test.main.service;
+
+import model.Product;
+import model.ProductFacets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import repository.product.ProductRepository;
+import service.product.ProductCountService;
+import service.product.ProductCountServiceImpl;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCountServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCountService productCountService;
+
+    @BeforeEach
+    void setUp() {
+        productCountService = new ProductCountServiceImpl(productRepository);
+    }
+
+    @Test
+    void testGetTotalCount_ShouldLoadOnceAndTrackWrites() {
+        when(productRepository.countSnapshot(any())).thenAnswer(snapshot(initialCounts()));
+
+        assertEquals(3, productCountService.getTotalCount());
+
+        productCountService.onCreated(new Product(4L, "Pixel 9", "Smartphones", "Google", 799_00L, "Phone"));
+        productCountService.onDeleted(new Product(3L, "MacBook Air M3", "Laptops", "Apple", 1299_99L, "Laptop"));
+
+        assertEquals(3, productCountService.getTotalCount());
+        assertEquals(3, productCountService.getCountByCategory("Smartphones"));
+        assertEquals(0, productCountService.getCountByCategory("Laptops"));
+        assertEquals(1, productCountService.getCountByBrand("Apple"));
+        verify(productRepository, times(1)).countSnapshot(any());
+        verify(productRepository, never()).getCount();
+    }
+
+    @Test
+    void testOnDeleted_UnknownProduct_ShouldRecomputeBreakdownOnNextRead() {
+        when(productRepository.countSnapshot(any())).thenAnswer(snapshot(initialCounts()));
+        productCountService.getTotalCount();
+
+        productCountService.onDeleted(null);
+
+        assertEquals(2, productCountService.getTotalCount());
+        productCountService.getCountByBrand("Apple");
+        verify(productRepository, times(2)).countSnapshot(any());
+    }
+
+    @Test
+    void testGetApproximateCount_ShouldFallBackWhenStatisticsMissing() {
+        when(productRepository.getApproximateCount()).thenReturn(1_000_000L, -1L);
+        when(productRepository.countSnapshot(any())).thenAnswer(snapshot(initialCounts()));
+
+        assertEquals(1_000_000L, productCountService.getApproximateCount());
+        assertEquals(3, productCountService.getApproximateCount());
+    }
+
+    @Test
+    void testTrackWrite_ReconcileInProgress_ShouldNotWaitAndShouldBeReappliedAfterSwap() throws Exception {
+        CountDownLatch scanStarted = new CountDownLatch(1);
+        CountDownLatch releaseScan = new CountDownLatch(1);
+        when(productRepository.countSnapshot(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            scanStarted.countDown();
+            releaseScan.await();
+            return initialCounts();
+        });
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(productCountService::reconcile);
+        scanStarted.await();
+
+        // запись начата после снимка и не ждет окончания подсчета
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> productCountService.trackWrite(() -> {
+            productCountService.onCreated(new Product(4L, "Pixel 9", "Smartphones", "Google", 799_00L, "Phone"));
+            return null;
+        }));
+        write.get(5, TimeUnit.SECONDS);
+        assertFalse(reconcile.isDone());
+
+        releaseScan.countDown();
+        reconcile.get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, productCountService.getTotalCount());
+        assertEquals(3, productCountService.getCountByCategory("Smartphones"));
+        assertEquals(1, productCountService.getCountByBrand("Google"));
+        verify(productRepository, times(1)).countSnapshot(any());
+    }
+
+    @Test
+    void testReconcile_WriteStartedBeforeSnapshot_ShouldRepeatScan() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> productCountService.trackWrite(() -> {
+            writeStarted.countDown();
+            try {
+                releaseWrite.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            productCountService.onCreated(new Product(4L, "Pixel 9", "Smartphones", "Google", 799_00L, "Phone"));
+            return null;
+        }));
+        writeStarted.await();
+
+        ProductFacets afterWrite = new ProductFacets(
+                Map.of("Smartphones", 3L, "Laptops", 1L),
+                Map.of("Apple", 2L, "Samsung", 1L, "Google", 1L),
+                new long[]{0, 0, 3, 1});
+        when(productRepository.countSnapshot(any()))
+                .thenAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(0).run();
+                    // неизвестно, вошла ли в снимок запись, которая завершилась во время подсчета
+                    releaseWrite.countDown();
+                    write.get(5, TimeUnit.SECONDS);
+                    return afterWrite;
+                })
+                .thenAnswer(snapshot(afterWrite));
+
+        productCountService.reconcile();
+
+        assertEquals(4, productCountService.getTotalCount());
+        assertEquals(1, productCountService.getCountByBrand("Google"));
+        verify(productRepository, times(2)).countSnapshot(any());
+    }
+
+    private static Answer<ProductFacets> snapshot(ProductFacets counts) {
+        return invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return counts;
+        };
+    }
+
+    private ProductFacets initialCounts() {
+        return new ProductFacets(
+                Map.of("Smartphones", 2L, "Laptops", 1L),
+                Map.of("Apple", 2L, "Samsung", 1L),
+                new long[]{0, 0, 2, 1});
+    }
+}
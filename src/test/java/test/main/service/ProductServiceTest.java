@@ -1,7 +1,16 @@
 package test.main.service;
 
 import cache.QueryCache;
+import index.ProductIndex;
+import index.SearchPlan;
+import model.CatalogItem;
+import model.ImportReport;
+import model.NewProduct;
 import model.Product;
+import model.ProductFacets;
+import model.ProductPatch;
+import model.ProductSearchCriteria;
+import model.SyncReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,13 +20,17 @@ import repository.product.ProductRepository;
 import service.product.ProductService;
 import service.product.ProductServiceImpl;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,7 +54,7 @@ class ProductServiceTest {
         String name = "Test Product";
         String category = "Electronics";
         String brand = "TestBrand";
-        double price = 99.99;
+        long price = 99_99L;
         String description = "Test description";
         Long userId = 1L;
 
@@ -56,7 +69,7 @@ class ProductServiceTest {
         assertEquals(name, result.getName());
         assertEquals(category, result.getCategory());
         assertEquals(brand, result.getBrand());
-        assertEquals(price, result.getPrice(), 0.001);
+        assertEquals(price, result.getPrice());
         assertEquals(description, result.getDescription());
 
         verify(productRepository, times(1)).create(name, category, brand, price, description, userId);
@@ -66,7 +79,7 @@ class ProductServiceTest {
     @Test
     void testGetProductById_Found() {
         Long productId = 1L;
-        Product expectedProduct = createProduct(productId, "Test Product", "Electronics", "Brand", 99.99, "Description");
+        Product expectedProduct = createProduct(productId, "Test Product", "Electronics", "Brand", 99_99L, "Description");
         when(productRepository.findById(productId)).thenReturn(Optional.of(expectedProduct));
 
         Optional<Product> result = productService.getProductById(productId);
@@ -93,7 +106,7 @@ class ProductServiceTest {
         String newName = "New Name";
         String newCategory = "New Category";
         String newBrand = "New Brand";
-        Double newPrice = 20.0;
+        Long newPrice = 20_00L;
         String newDescription = "New Description";
 
         Product updatedProduct = createProduct(productId, newName, newCategory, newBrand, newPrice, newDescription);
@@ -107,7 +120,7 @@ class ProductServiceTest {
         assertEquals(newName, result.getName());
         assertEquals(newCategory, result.getCategory());
         assertEquals(newBrand, result.getBrand());
-        assertEquals(newPrice, result.getPrice(), 0.001);
+        assertEquals(newPrice, result.getPrice());
 
         verify(productRepository, times(1)).update(productId, newName, newCategory, newBrand, newPrice, newDescription);
         verify(queryCache, times(1)).invalidateAll();
@@ -143,12 +156,12 @@ class ProductServiceTest {
         String nameSubstring = "iphone";
         String category = "Electronics";
         String brand = "Apple";
-        Double minPrice = 0.0;
-        Double maxPrice = 1000.0;
+        Long minPrice = 0L;
+        Long maxPrice = 1000_00L;
 
         String cacheKey = "search:iphone:Electronics:Apple:0.0:1000.0";
         List<Product> cachedProducts = Arrays.asList(
-                createProduct(1L, "iPhone 15", "Electronics", "Apple", 999.99, "Smartphone")
+                createProduct(1L, "iPhone 15", "Electronics", "Apple", 999_99L, "Smartphone")
         );
 
         when(queryCache.get(cacheKey)).thenReturn(cachedProducts);
@@ -167,12 +180,12 @@ class ProductServiceTest {
         String nameSubstring = "iphone";
         String category = "Electronics";
         String brand = "Apple";
-        Double minPrice = 0.0;
-        Double maxPrice = 1000.0;
+        Long minPrice = 0L;
+        Long maxPrice = 1000_00L;
 
         String cacheKey = "search:iphone:Electronics:Apple:0.0:1000.0";
         List<Product> dbProducts = Arrays.asList(
-                createProduct(1L, "iPhone 15", "Electronics", "Apple", 999.99, "Smartphone")
+                createProduct(1L, "iPhone 15", "Electronics", "Apple", 999_99L, "Smartphone")
         );
 
         when(queryCache.get(cacheKey)).thenReturn(null);
@@ -190,8 +203,8 @@ class ProductServiceTest {
     @Test
     void testGetAllProducts() {
         List<Product> expectedProducts = Arrays.asList(
-                createProduct(1L, "Product 1", "Cat1", "Brand1", 10.0, "Desc1"),
-                createProduct(2L, "Product 2", "Cat2", "Brand2", 20.0, "Desc2")
+                createProduct(1L, "Product 1", "Cat1", "Brand1", 10_00L, "Desc1"),
+                createProduct(2L, "Product 2", "Cat2", "Brand2", 20_00L, "Desc2")
         );
         when(productRepository.findAll()).thenReturn(expectedProducts);
 
@@ -214,27 +227,236 @@ class ProductServiceTest {
 
     @Test
     void testCacheInvalidationOnCreate() {
-        Product newProduct = createProduct(1L, "New Product", "Electronics", "Brand", 100.0, "Desc");
-        when(productRepository.create(any(), any(), any(), anyDouble(), any(), any())).thenReturn(newProduct);
+        Product newProduct = createProduct(1L, "New Product", "Electronics", "Brand", 100_00L, "Desc");
+        when(productRepository.create(any(), any(), any(), anyLong(), any(), any())).thenReturn(newProduct);
         doNothing().when(queryCache).invalidateAll();
 
-        productService.createProduct("New Product", "Electronics", "Brand", 100.0, "Desc", 1L);
+        productService.createProduct("New Product", "Electronics", "Brand", 100_00L, "Desc", 1L);
 
         verify(queryCache, times(1)).invalidateAll();
     }
 
     @Test
     void testCacheInvalidationOnUpdate() {
-        Product updatedProduct = createProduct(1L, "Updated Product", "Electronics", "Brand", 150.0, "Desc");
-        when(productRepository.update(any(), any(), any(), any(), any(), any())).thenReturn(updatedProduct);
+        Product updatedProduct = createProduct(1L, "Updated Product", "Electronics", "Brand", 150_00L, "Desc");
+        when(productRepository.update(anyLong(), any(), any(), any(), any(), any())).thenReturn(updatedProduct);
         doNothing().when(queryCache).invalidateAll();
 
-        productService.updateProduct(1L, "Updated Product", "Electronics", "Brand", 150.0, "Desc");
+        productService.updateProduct(1L, "Updated Product", "Electronics", "Brand", 150_00L, "Desc");
 
         verify(queryCache, times(1)).invalidateAll();
     }
 
-    private Product createProduct(Long id, String name, String category, String brand, double price, String description) {
+    @Test
+    void testGetSearchFacets_WithCacheMiss() {
+        String cacheKey = productService.createCacheKey(null, "Smartphones", null, null, null);
+        ProductFacets facets = new ProductFacets(
+                Map.of("Smartphones", 2L), Map.of("Apple", 1L, "Samsung", 1L), new long[]{0, 0, 2, 0});
+
+        when(queryCache.getFacets(cacheKey)).thenReturn(null);
+        when(productRepository.facets(null, "Smartphones", null, null, null)).thenReturn(facets);
+
+        ProductFacets result = productService.getSearchFacets(null, "Smartphones", null, null, null);
+
+        assertEquals(facets, result);
+        verify(productRepository, times(1)).facets(null, "Smartphones", null, null, null);
+        verify(queryCache, times(1)).putFacets(cacheKey, facets);
+    }
+
+    @Test
+    void testGetSearchFacets_WithCacheHit() {
+        String cacheKey = productService.createCacheKey("phone", null, null, null, null);
+        ProductFacets facets = new ProductFacets(Map.of(), Map.of(), new long[ProductFacets.bucketCount()]);
+
+        when(queryCache.getFacets(cacheKey)).thenReturn(facets);
+
+        ProductFacets result = productService.getSearchFacets("phone", null, null, null, null);
+
+        assertEquals(facets, result);
+        verify(productRepository, never()).facets(any(), any(), any(), any(), any());
+        verify(queryCache, never()).putFacets(any(), any());
+    }
+
+    @Test
+    void testCreateProducts_ShouldInsertInOneCallAndInvalidateCacheOnce() {
+        List<NewProduct> products = List.of(
+                new NewProduct("Phone", "Electronics", "BrandA", 100_00L, "Phone"),
+                new NewProduct("Laptop", "Electronics", "BrandB", 900_00L, "Laptop")
+        );
+        List<Product> created = List.of(
+                createProduct(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone"),
+                createProduct(2L, "Laptop", "Electronics", "BrandB", 900_00L, "Laptop")
+        );
+        when(productRepository.createAll(products, 1L)).thenReturn(created);
+
+        List<Product> result = productService.createProducts(products, 1L);
+
+        assertEquals(created, result);
+        verify(productRepository, times(1)).createAll(products, 1L);
+        verify(productRepository, never()).create(any(), any(), any(), anyLong(), any(), any());
+        verify(queryCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testGetProductsByIds_ShouldServeIndexedIdsAndFetchOnlyMisses() {
+        ProductIndex productIndex = new ProductIndex();
+        productIndex.load(List.of(createProduct(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone")));
+        ProductService indexedService = new ProductServiceImpl(productRepository, queryCache, productIndex);
+        Product missing = createProduct(5L, "Laptop", "Electronics", "BrandB", 900_00L, "Laptop");
+        when(productRepository.findByIds(new long[]{5L, 9L})).thenReturn(Map.of(5L, missing));
+
+        Map<Long, Product> result = indexedService.getProductsByIds(new long[]{5L, 1L, 9L, 1L});
+
+        assertEquals(List.of(5L, 1L), List.copyOf(result.keySet()));
+        assertSame(missing, result.get(5L));
+        verify(productRepository, times(1)).findByIds(new long[]{5L, 9L});
+    }
+
+    @Test
+    void testExplainSearch_UnloadedIndex_ShouldLoadItAndPlanFromItsStatistics() {
+        ProductIndex productIndex = new ProductIndex();
+        ProductService indexedService = new ProductServiceImpl(productRepository, queryCache, productIndex);
+        when(productRepository.findAll()).thenReturn(List.of(
+                createProduct(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone")));
+
+        SearchPlan plan = indexedService.explainSearch(null, "Electronics", null, null, null);
+
+        assertTrue(productIndex.isLoaded());
+        assertNotEquals(SearchPlan.Route.DATABASE, plan.getRoute());
+        verify(productRepository, never()).search(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSuggest_InvalidArguments_ShouldFailBeforeLoadingIndex() {
+        ProductService indexedService = new ProductServiceImpl(productRepository, queryCache, new ProductIndex());
+
+        assertThrows(NullPointerException.class, () -> indexedService.suggest(null, 5));
+        assertThrows(IllegalArgumentException.class, () -> indexedService.suggest("ga", -1));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testExplainSearch_WithoutIndex_ShouldUseDatabase() {
+        assertEquals(SearchPlan.Route.DATABASE, productService.explainSearch("Phone", null, null, null, null).getRoute());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testUpdateProducts_ShouldRefreshIndexFromReturnedRowsAndInvalidateCacheOnce() {
+        ProductIndex productIndex = new ProductIndex();
+        productIndex.load(List.of(
+                createProduct(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone"),
+                createProduct(2L, "Laptop", "Electronics", "BrandB", 900_00L, "Laptop")
+        ));
+        ProductService indexedService = new ProductServiceImpl(productRepository, queryCache, productIndex);
+        List<ProductPatch> patches = List.of(
+                ProductPatch.price(1L, 120_00L),
+                new ProductPatch(2L, null, "Computers", null, null, null)
+        );
+        Date updatedAt = new Date(1_700_000_000_000L);
+        Product phone = new Product(1L, "Phone", "Electronics", "BrandA", 120_00L, "Phone", null, updatedAt);
+        Product laptop = new Product(2L, "Laptop", "Computers", "BrandB", 900_00L, "Laptop", null, updatedAt);
+        when(productRepository.updatePartialBatch(patches)).thenReturn(Map.of(1L, phone, 2L, laptop));
+
+        int updated = indexedService.updateProducts(patches);
+
+        assertEquals(2, updated);
+        assertSame(phone, productIndex.get(1L).orElseThrow());
+        assertSame(laptop, productIndex.get(2L).orElseThrow());
+        assertEquals(updatedAt, productIndex.get(2L).orElseThrow().getUpdatedAt());
+        verify(queryCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testProductPatchThen_ShouldLetLaterFieldsWin() {
+        ProductPatch first = new ProductPatch(1L, "Phone", "Electronics", null, 100_00L, null);
+        ProductPatch second = new ProductPatch(1L, null, "Smartphones", null, 120_00L, "New");
+
+        ProductPatch merged = first.then(second);
+
+        assertEquals("Phone", merged.getName());
+        assertEquals("Smartphones", merged.getCategory());
+        assertNull(merged.getBrand());
+        assertEquals(120_00L, merged.getPrice());
+        assertEquals("New", merged.getDescription());
+        assertThrows(IllegalArgumentException.class, () -> first.then(ProductPatch.price(2L, 1L)));
+    }
+
+    @Test
+    void testSyncCatalog_NoChanges_ShouldNotInvalidateCache() {
+        List<CatalogItem> items = List.of(new CatalogItem("SKU-1", "Phone", "Electronics", "BrandA", 100_00L, "Phone"));
+        when(productRepository.syncCatalog(items, 1L)).thenReturn(new SyncReport(List.of(), List.of(), 1));
+
+        SyncReport report = productService.syncCatalog(items, 1L);
+
+        assertEquals(1, report.getUnchangedCount());
+        verify(queryCache, never()).invalidateAll();
+    }
+
+    @Test
+    void testCatalogItemHash_ShouldIgnoreSkuAndPriceBelowStoredPrecision() {
+        CatalogItem item = new CatalogItem("SKU-1", "Phone", "Electronics", "BrandA", 100_00L, "Phone");
+
+        assertEquals(64, item.contentHash().length());
+        assertEquals(item.contentHash(), new CatalogItem("SKU-2", "Phone", "Electronics", "BrandA", 100_00L, "Phone").contentHash());
+        assertNotEquals(item.contentHash(), new CatalogItem("SKU-1", "Phone", "Electronics", "BrandA", 100_01L, "Phone").contentHash());
+    }
+
+    @Test
+    void testImportCatalog_ShouldInvalidateCacheOnceAfterImport() {
+        Reader csv = new StringReader("name,category,brand,price,description\nPhone,Electronics,BrandA,100,Phone\n");
+        ImportReport expected = new ImportReport(1, 1, 0, 5);
+        when(productRepository.importCsv(csv, 1L)).thenReturn(expected);
+
+        ImportReport report = productService.importCatalog(csv, 1L);
+
+        assertSame(expected, report);
+        assertEquals(200.0, report.getRowsPerSecond(), 0.001);
+        verify(queryCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testImportCatalog_ShouldInvalidateIndexAndReloadItOnDemand() {
+        ProductIndex productIndex = new ProductIndex();
+        productIndex.load(List.of(createProduct(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone")));
+        ProductService indexedService = new ProductServiceImpl(productRepository, queryCache, productIndex);
+        Reader csv = new StringReader("name,category,brand,price,description\nPhablet,Electronics,BrandA,200,Phablet\n");
+        when(productRepository.importCsv(csv, 1L)).thenReturn(new ImportReport(1, 1, 0, 5));
+
+        indexedService.importCatalog(csv, 1L);
+
+        assertFalse(productIndex.isLoaded());
+        verify(productRepository, never()).findAll();
+
+        when(productRepository.findAll()).thenReturn(List.of(
+                createProduct(1L, "Phone", "Electronics", "BrandA", 100_00L, "Phone"),
+                createProduct(2L, "Phablet", "Electronics", "BrandA", 200_00L, "Phablet")));
+
+        assertEquals(List.of("Phablet", "Phone"), indexedService.suggest("ph", 5));
+        assertTrue(productIndex.isLoaded());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testSearchBatch_ShouldServeHitsFromCacheAndFetchMissesInOneCall() {
+        ProductSearchCriteria cached = new ProductSearchCriteria(null, "Laptops", null, null, null);
+        ProductSearchCriteria missing = new ProductSearchCriteria(null, null, "Apple", null, null);
+        List<Product> cachedProducts = List.of(createProduct(3L, "MacBook Air M3", "Laptops", "Apple", 1299_99L, "Laptop"));
+        List<Product> fetchedProducts = List.of(createProduct(1L, "iPhone 15 Pro", "Smartphones", "Apple", 999_99L, "Phone"));
+
+        when(queryCache.get(productService.createCacheKey(null, "Laptops", null, null, null))).thenReturn(cachedProducts);
+        when(queryCache.get(productService.createCacheKey(null, null, "Apple", null, null))).thenReturn(null);
+        when(productRepository.searchBatch(List.of(missing))).thenReturn(List.of(fetchedProducts));
+
+        List<List<Product>> result = productService.searchBatch(List.of(missing, cached, missing));
+
+        assertEquals(List.of(fetchedProducts, cachedProducts, fetchedProducts), result);
+        verify(productRepository, times(1)).searchBatch(List.of(missing));
+        verify(productRepository, never()).search(any(), any(), any(), any(), any());
+        verify(queryCache, times(1)).put(productService.createCacheKey(null, null, "Apple", null, null), fetchedProducts);
+    }
+
+    private Product createProduct(Long id, String name, String category, String brand, long price, String description) {
         Product product = new Product(id, name, category, brand, price, description);
         return product;
     }
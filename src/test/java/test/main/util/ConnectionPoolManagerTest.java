@@ -0,0 +1,57 @@
+package test.main.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import util.ConnectionPoolManager;
+import util.RepositoryExecutor;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolManagerTest {
+
+    @BeforeAll
+    static void initializeExecutor() {
+        RepositoryExecutor.initialize(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectionPoolManager.clearWriteMark();
+    }
+
+    @Test
+    void testReadYourWrites_ShouldApplyOnlyToWritingSession() throws Exception {
+        assertFalse(ConnectionPoolManager.isReadingOwnWrites());
+
+        ConnectionPoolManager.markWrite();
+
+        assertTrue(ConnectionPoolManager.isReadingOwnWrites());
+        CompletableFuture<Boolean> otherSession = CompletableFuture.supplyAsync(ConnectionPoolManager::isReadingOwnWrites);
+        assertFalse(otherSession.get());
+    }
+
+    @Test
+    void testRepositoryExecutor_ShouldPropagateSessionWriteMark() throws Exception {
+        ConnectionPoolManager.markWrite();
+        Long mark = ConnectionPoolManager.sessionWriteMark();
+
+        assertTrue(RepositoryExecutor.supplyAsync(ConnectionPoolManager::isReadingOwnWrites).get());
+        assertEquals(mark, RepositoryExecutor.supplyAsync(ConnectionPoolManager::sessionWriteMark).get());
+    }
+
+    @Test
+    void testCallInSession_ShouldRestorePreviousMark() {
+        ConnectionPoolManager.callInSession(System.nanoTime(), () -> {
+            assertTrue(ConnectionPoolManager.isReadingOwnWrites());
+            return null;
+        });
+
+        assertNull(ConnectionPoolManager.sessionWriteMark());
+    }
+}
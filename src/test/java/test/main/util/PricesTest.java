@@ -0,0 +1,34 @@
+package test.main.util;
+
+import org.junit.jupiter.api.Test;
+import util.Prices;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricesTest {
+
+    @Test
+    void testParse_ShouldReadWholeAndFractionalCentsExactly() {
+        assertEquals(1299_99L, Prices.parse("1299.99"));
+        assertEquals(1299_90L, Prices.parse(" 1299,9 "));
+        assertEquals(15_00L, Prices.parse("15"));
+        assertEquals(10L, Prices.parse(".1"));
+        assertEquals(Prices.MAX_CENTS, Prices.parse("99999999.99"));
+    }
+
+    @Test
+    void testParse_InvalidInput_ShouldThrow() {
+        assertThrows(NumberFormatException.class, () -> Prices.parse("1.999"));
+        assertThrows(NumberFormatException.class, () -> Prices.parse("-1"));
+        assertThrows(NumberFormatException.class, () -> Prices.parse("12a"));
+        assertThrows(NumberFormatException.class, () -> Prices.parse("."));
+        assertThrows(NumberFormatException.class, () -> Prices.parse("100000000"));
+    }
+
+    @Test
+    void testFormat_ShouldRoundTripWithParse() {
+        assertEquals("1299.09", Prices.format(1299_09L));
+        assertEquals("0.00", Prices.format(0));
+        assertEquals(Prices.parse(Prices.format(849_99L)), 849_99L);
+    }
+}
@@ -0,0 +1,99 @@
+package test.main.util;
+
+import config.Config;
+import config.DatabaseMigrator;
+import model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import repository.product.ProductRepository;
+import repository.product.ProductRepositoryImpl;
+import test.DatabaseTestBase;
+import util.ConnectionPoolManager;
+import util.RepositoryExecutor;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Маршрутизация чтений между основным сервером и репликой.
+ * "Реплика" - отдельный сервер без репликации, поэтому по содержимому ответа видно, какой сервер его дал:
+ * товар, созданный через приложение, есть только на основном сервере, а товар, вставленный напрямую
+ * в реплику, - только на ней.
+ */
+class ReplicaRoutingIntegrationTest extends DatabaseTestBase {
+
+    private static final long READ_YOUR_WRITES_MILLIS = 500;
+
+    @Container
+    private static final PostgreSQLContainer<?> replica = newPostgres();
+
+    private ProductRepository productRepository;
+
+    @BeforeAll
+    static void initializeReplica() {
+        new DatabaseMigrator().runMigrations(config(replica, List.of(), 0));
+        ConnectionPoolManager.close();
+        Config config = config(postgres, List.of(replica), READ_YOUR_WRITES_MILLIS);
+        ConnectionPoolManager.initialize(config);
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        clearProducts();
+        execute(replica, "DELETE FROM app_schema.products");
+        execute(replica, "INSERT INTO app_schema.products (name, category, brand, price, description, user_id) "
+                + "VALUES ('Replica only', 'Test', 'Test', 1.00, '', " + ADMIN_ID + ")");
+        ConnectionPoolManager.clearWriteMark();
+        productRepository = new ProductRepositoryImpl();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectionPoolManager.clearWriteMark();
+    }
+
+    @Test
+    void testRead_WithoutWrites_ShouldGoToReplica() {
+        List<Product> products = productRepository.findAll();
+
+        assertEquals(List.of("Replica only"), products.stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void testRead_AfterWrite_ShouldGoToPrimaryUntilWindowExpires() throws InterruptedException {
+        Product created = productRepository.create("Primary only", "Test", "Test", 100L, "", ADMIN_ID);
+
+        assertTrue(productRepository.findById(created.getId()).isPresent());
+        assertTrue(RepositoryExecutor.supplyAsync(() -> productRepository.findById(created.getId())).join().isPresent());
+
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 200);
+
+        assertFalse(productRepository.findById(created.getId()).isPresent());
+    }
+
+    @Test
+    void testRead_AfterWriteInOtherSession_ShouldGoToReplica() throws InterruptedException {
+        Thread writer = new Thread(() -> productRepository.create("Primary only", "Test", "Test", 100L, "", ADMIN_ID));
+        writer.start();
+        writer.join();
+
+        assertEquals(List.of("Replica only"), productRepository.findAll().stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void testCallOnPrimary_ShouldReadFromPrimaryWithoutWrites() throws SQLException {
+        execute(postgres, "INSERT INTO app_schema.products (name, category, brand, price, description, user_id) "
+                + "VALUES ('Primary only', 'Test', 'Test', 1.00, '', " + ADMIN_ID + ")");
+
+        List<Product> products = ConnectionPoolManager.callOnPrimary(productRepository::findAll);
+
+        assertEquals(List.of("Primary only"), products.stream().map(Product::getName).toList());
+        assertEquals(List.of("Replica only"), productRepository.findAll().stream().map(Product::getName).toList());
+    }
+}